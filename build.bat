@@ -1,2 +1,3 @@
 ./gradlew build
-docker build --build-arg JAR_FILE=./build/libs/aggregator-0.0.1-SNAPSHOT.jar -t aggregator-docker .
+docker build --target web -t aggregator-docker .
+docker build --target image-worker -t aggregator-image-worker-docker .
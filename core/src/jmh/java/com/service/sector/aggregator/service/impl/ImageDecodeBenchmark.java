@@ -0,0 +1,124 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.service.external.ImageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.coobird.thumbnailator.Thumbnails;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Peak heap and time of encoding the default variants of {@code concurrent}
+ * 48 MP photos at once, as JPEG and as PNG:
+ * <ul>
+ *     <li>{@code full} - the whole raster decoded by Thumbnailator, as before;</li>
+ *     <li>{@code subsampled} - {@link ImageService#compress(java.io.InputStream, List, List)}
+ *     with the default pixel budget.</li>
+ * </ul>
+ * {@code peakHeapMb} is an event counter, so JMH reports the sum over the
+ * measurement iterations.
+ * Run with {@code ./gradlew jmh -PjmhInclude=ImageDecodeBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ImageDecodeBenchmark {
+
+    @Param({"jpg", "png"})
+    public String format;
+
+    @Param({"full", "subsampled"})
+    public String mode;
+
+    @Param({"4"})
+    public int concurrent;
+
+    private List<PhotoProperties.Variant> variants;
+    private ImageService imageSrv;
+    private byte[] photo;
+    private ExecutorService executor;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapPeak {
+        public double peakHeapMb;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        PhotoProperties props = new PhotoProperties();
+        variants = List.copyOf(props.getVariants().values());
+        imageSrv = new ImageService(props, new SimpleMeterRegistry());
+        photo = PhotoUploadBenchmark.sampleImage(8000, 6000, 42, format);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @Benchmark
+    public long burst(HeapPeak peak) throws Exception {
+        List<Future<Long>> running = new ArrayList<>(concurrent);
+        for (int i = 0; i < concurrent; i++) {
+            running.add(executor.submit(() -> mode.equals("full") ? fullDecode() : subsampled()));
+        }
+        long total = 0;
+        for (Future<Long> f : running) {
+            total += f.get();
+        }
+        peak.peakHeapMb = heapPools().stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum() / 1048576.0;
+        return total;
+    }
+
+    private long subsampled() throws IOException {
+        List<ByteArrayOutputStream> outs = variants.stream().map(v -> new ByteArrayOutputStream()).toList();
+        imageSrv.compress(new ByteArrayInputStream(photo), variants, outs);
+        return outs.stream().mapToLong(ByteArrayOutputStream::size).sum();
+    }
+
+    /** The single-decode flow before subsampling. */
+    private long fullDecode() throws IOException {
+        BufferedImage source = Thumbnails.of(new ByteArrayInputStream(photo)).scale(1).asBufferedImage();
+        long total = 0;
+        for (PhotoProperties.Variant variant : variants) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Thumbnails.of(source)
+                    .size(variant.getMaxSize(), variant.getMaxSize())
+                    .outputFormat("jpg")
+                    .outputQuality(variant.getQuality())
+                    .toOutputStream(out);
+            total += out.size();
+        }
+        return total;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getType() == MemoryType.HEAP)
+                .toList();
+    }
+}
@@ -0,0 +1,206 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.service.external.ImageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+/**
+ * Peak heap while {@code requests} add-workspace requests of
+ * {@code photosPerRequest} photos each are processed at once. Parts are read
+ * from disk, as the servlet container spools them there.
+ * <ul>
+ *     <li>{@code heap} - the previous path: {@code getBytes()} per part,
+ *     {@code compress(byte[])}, and an upload that copies the array as
+ *     {@code RequestBody.fromBytes} does;</li>
+ *     <li>{@code streaming} - {@link PhotoUploadPipeline} with pooled direct buffers.</li>
+ * </ul>
+ * {@code peakHeapMb} is the sum of the peak usage of all heap pools during the
+ * run, after a full GC. Run with {@code ./gradlew jmh -PjmhInclude=PhotoIngestMemoryBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PhotoIngestMemoryBenchmark {
+
+    @Param({"heap", "streaming"})
+    public String mode;
+
+    @Param({"20"})
+    public int requests;
+
+    @Param({"15"})
+    public int photosPerRequest;
+
+    @Param({"20"})
+    public int uploadMillis;
+
+    private List<Path> photoFiles;
+    private PhotoProperties props;
+    private ImageService imageSrv;
+    private PhotoUploadPipeline pipeline;
+    private ExecutorService requestThreads;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapPeak {
+        public double peakHeapMb;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        // distinct photos, so none is deduplicated within a request
+        photoFiles = new ArrayList<>(photosPerRequest);
+        for (int i = 0; i < photosPerRequest; i++) {
+            Path file = Files.createTempFile("photo", ".jpg");
+            Files.write(file, PhotoUploadBenchmark.sampleJpeg(2000, 1500, i));
+            photoFiles.add(file);
+        }
+
+        props = new PhotoProperties();
+        imageSrv = new ImageService(props, new SimpleMeterRegistry());
+        pipeline = new PhotoUploadPipeline(imageSrv, PhotoUploadBenchmark.latencyStore(uploadMillis),
+                new DirectBufferPool(props, new SimpleMeterRegistry()),
+                PhotoUploadBenchmark.blobRepo(null), props, new SimpleMeterRegistry());
+        requestThreads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pipeline.shutdown();
+        requestThreads.shutdownNow();
+        for (Path file : photoFiles) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @Benchmark
+    public void burst(HeapPeak peak) throws Exception {
+        Semaphore compressPermits = new Semaphore(props.effectiveCompressConcurrency());
+        Semaphore uploadPermits = new Semaphore(props.getUploadConcurrency());
+
+        List<Future<?>> running = new ArrayList<>(requests);
+        for (int r = 0; r < requests; r++) {
+            List<MultipartFile> photos = IntStream.range(0, photosPerRequest)
+                    .mapToObj(i -> (MultipartFile) new DiskPart(photoFiles.get(i)))
+                    .toList();
+            running.add(requestThreads.submit(() -> mode.equals("heap")
+                    ? heapPath(photos, compressPermits, uploadPermits)
+                    : pipeline.process(photos)));
+        }
+        for (Future<?> f : running) {
+            f.get();
+        }
+        peak.peakHeapMb = heapPools().stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum() / 1048576.0;
+    }
+
+    /** The per-request flow before streaming, with the same concurrency limits. */
+    private List<String> heapPath(List<MultipartFile> photos, Semaphore compressPermits, Semaphore uploadPermits)
+            throws Exception {
+        List<Future<String>> futures = new ArrayList<>();
+        try (ExecutorService perPhoto = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (MultipartFile mf : photos) {
+                futures.add(perPhoto.submit(() -> {
+                    byte[] original = mf.getBytes();
+                    byte[] compressed;
+                    compressPermits.acquire();
+                    try {
+                        compressed = imageSrv.compress(original);
+                    } finally {
+                        compressPermits.release();
+                    }
+                    uploadPermits.acquire();
+                    try {
+                        byte[] copy = compressed.clone();
+                        Thread.sleep(uploadMillis);
+                        return "k" + copy.length;
+                    } finally {
+                        uploadPermits.release();
+                    }
+                }));
+            }
+        }
+        List<String> urls = new ArrayList<>();
+        for (Future<String> f : futures) {
+            urls.add(f.get());
+        }
+        return urls;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getType() == MemoryType.HEAP)
+                .toList();
+    }
+
+    /** A multipart part spooled to disk. */
+    private record DiskPart(Path file) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "photos";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return file.getFileName().toString();
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(file);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(file, dest.toPath());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.data.entity.PhotoBlob;
+import com.service.sector.aggregator.data.repositories.PhotoBlobRepository;
+import com.service.sector.aggregator.service.external.BlobStore;
+import com.service.sector.aggregator.service.external.ImageService;
+import com.service.sector.aggregator.service.external.LocalBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of processing one add-workspace request versus photo count, with
+ * the real {@link ImageService}:
+ * <ul>
+ *     <li>{@code sequential} - one photo at a time, as before;</li>
+ *     <li>{@code parallel} - default limits (cores for compression, 16 uploads);</li>
+ *     <li>{@code queued} - what the request does now: only stage the originals
+ *     for the {@code PhotoJobWorker}s (image-worker).</li>
+ * </ul>
+ * Photos go to {@code store}: {@code stub}, a store that completes each
+ * upload after {@code uploadMillis} without holding a thread (a remote
+ * bucket), or {@code local}, a {@link LocalBlobStore} in a temporary
+ * directory (real asynchronous file writes, no network).
+ * With {@code stored=true} every photo is already stored (a landlord
+ * re-using photos), so only the hashing and lookup remain.
+ * Run with {@code ./gradlew jmh -PjmhInclude=PhotoUploadBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PhotoUploadBenchmark {
+
+    @Param({"3", "8", "15"})
+    public int photoCount;
+
+    @Param({"sequential", "parallel", "queued"})
+    public String mode;
+
+    @Param({"false", "true"})
+    public boolean stored;
+
+    @Param({"stub", "local"})
+    public String store;
+
+    @Param({"50"})
+    public int uploadMillis;
+
+    private Path storeRoot;
+    private PhotoUploadPipeline pipeline;
+    private StagedPhotoUploads staging;
+    private List<MultipartFile> photos;
+
+    @Setup
+    public void setUp() throws IOException {
+        PhotoProperties props = new PhotoProperties();
+        if (mode.equals("sequential")) {
+            props.setCompressConcurrency(1);
+            props.setUploadConcurrency(1);
+        }
+        BlobStore blobStore;
+        if (store.equals("local")) {
+            storeRoot = Files.createTempDirectory("photo-store");
+            blobStore = new LocalBlobStore(storeRoot, null);
+        } else {
+            blobStore = latencyStore(uploadMillis);
+        }
+        pipeline = new PhotoUploadPipeline(new ImageService(props, new SimpleMeterRegistry()), blobStore,
+                new DirectBufferPool(props, new SimpleMeterRegistry()),
+                blobRepo(stored ? String.join(",", props.getVariants().keySet()) : null),
+                props, new SimpleMeterRegistry());
+        if (mode.equals("queued")) {
+            staging = new StagedPhotoUploads(null, blobStore, new DirectBufferPool(props, new SimpleMeterRegistry()),
+                    props);
+        }
+
+        photos = new ArrayList<>(photoCount);
+        for (int i = 0; i < photoCount; i++) {
+            photos.add(new MockMultipartFile("photos", "p" + i + ".jpg", "image/jpeg", sampleJpeg(1600, 1200, i)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pipeline.shutdown();
+        if (storeRoot != null) {
+            try (var paths = Files.walk(storeRoot)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<?> request() throws IOException {
+        return staging != null ? staging.stage(1L, photos) : pipeline.process(photos);
+    }
+
+    /** A remote store stand-in: every upload completes after {@code millis}, no thread waits for it. */
+    static BlobStore latencyStore(int millis) {
+        return new BlobStore() {
+            @Override
+            public CompletableFuture<Void> put(String key, ByteBuffer[] content, String contentType) {
+                return CompletableFuture.runAsync(() -> { },
+                        CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS));
+            }
+
+            @Override
+            public InputStream open(String key) throws IOException {
+                throw new FileNotFoundException(key);       // nothing is kept
+            }
+
+            @Override
+            public void delete(List<String> keys) {
+            }
+
+            @Override
+            public String urlOf(String key) {
+                return "https://example/" + key;
+            }
+        };
+    }
+
+    /**
+     * A blob repository stub: with {@code variants == null} nothing is stored,
+     * otherwise every looked up hash is stored with those variants.
+     */
+    static PhotoBlobRepository blobRepo(String variants) {
+        return (PhotoBlobRepository) Proxy.newProxyInstance(PhotoBlobRepository.class.getClassLoader(),
+                new Class<?>[]{PhotoBlobRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllById")) {
+                        return variants == null ? List.of() : ((Collection<?>) args[0]).stream()
+                                .map(sha -> PhotoBlob.builder().sha256((String) sha).refCount(1)
+                                        .variants(variants).build())
+                                .toList();
+                    }
+                    return null;                        // touch / retain / release
+                });
+    }
+
+    /** A noisy photo-like image, so the encoder has real work to do. */
+    static byte[] sampleJpeg(int width, int height) throws IOException {
+        return sampleJpeg(width, height, 42);
+    }
+
+    /** Like {@link #sampleJpeg(int, int)}; a different {@code seed} gives a different photo. */
+    static byte[] sampleJpeg(int width, int height, long seed) throws IOException {
+        return sampleImage(width, height, seed, "jpg");
+    }
+
+    /** A noisy photo-like image in an {@link ImageIO} format such as {@code jpg} or {@code png}. */
+    static byte[] sampleImage(int width, int height, long seed, String format) throws IOException {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        Random rnd = new Random(seed);
+        for (int i = 0; i < 400; i++) {
+            g.setColor(new Color(rnd.nextInt(0xffffff)));
+            g.fillOval(rnd.nextInt(width), rnd.nextInt(height), 20 + rnd.nextInt(300), 20 + rnd.nextInt(300));
+        }
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, format, out);
+        return out.toByteArray();
+    }
+}
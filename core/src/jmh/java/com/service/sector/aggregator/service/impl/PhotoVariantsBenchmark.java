@@ -0,0 +1,67 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.service.external.ImageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.coobird.thumbnailator.Thumbnails;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing the default thumb / card / full variants of one photo:
+ * <ul>
+ *     <li>{@code decodePerVariant} - a full Thumbnailator pass per size;</li>
+ *     <li>{@code singleDecode} - {@link ImageService#compress(java.io.InputStream, List, List)}.</li>
+ * </ul>
+ * A {@code 1200} px upload already fits the {@code full} variant, which
+ * {@code singleDecode} stores as uploaded.
+ * Run with {@code ./gradlew jmh -PjmhInclude=PhotoVariantsBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PhotoVariantsBenchmark {
+
+    @Param({"4000", "1200"})
+    public int width;
+
+    private final ImageService imageSrv = new ImageService(new PhotoProperties(), new SimpleMeterRegistry());
+    private List<PhotoProperties.Variant> variants;
+    private byte[] jpeg;
+
+    @Setup
+    public void setUp() throws IOException {
+        variants = List.copyOf(new PhotoProperties().getVariants().values());
+        jpeg = PhotoUploadBenchmark.sampleJpeg(width, width * 3 / 4);
+    }
+
+    @Benchmark
+    public long decodePerVariant() throws IOException {
+        long total = 0;
+        for (PhotoProperties.Variant variant : variants) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Thumbnails.of(new ByteArrayInputStream(jpeg))
+                    .size(variant.getMaxSize(), variant.getMaxSize())
+                    .outputFormat("jpg")
+                    .outputQuality(variant.getQuality())
+                    .toOutputStream(out);
+            total += out.size();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long singleDecode() throws IOException {
+        List<ByteArrayOutputStream> outs = variants.stream().map(v -> new ByteArrayOutputStream()).toList();
+        imageSrv.compress(new ByteArrayInputStream(jpeg), variants, outs);
+        return outs.stream().mapToLong(ByteArrayOutputStream::size).sum();
+    }
+}
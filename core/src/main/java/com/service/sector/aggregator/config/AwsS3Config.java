@@ -0,0 +1,76 @@
+package com.service.sector.aggregator.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+/**
+ * Configures the {@link S3Client} and {@link S3Presigner} beans for AWS SDK v2
+ * and, when photos are stored in S3, the {@link S3AsyncClient} that uploads
+ * them; all are pointed at {@code aws.s3.endpoint} when set.
+ * <p>
+ * Credentials are resolved via the default provider chain
+ * (env vars, system properties, ~/.aws/credentials, EC2/ECS metadata, etc.).
+ */
+@Configuration
+public class AwsS3Config {
+
+    @Bean
+    public S3Client s3Client(S3Properties props) {
+        var builder = S3Client.builder()
+                .region(Region.of(props.getRegion()))
+                .serviceConfiguration(serviceConfiguration(props));
+        if (props.getEndpoint() != null) {
+            builder.endpointOverride(props.getEndpoint());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Non-blocking client on a Netty connection pool sized by
+     * {@code aws.s3.max-connections}; requests beyond the pool queue for a
+     * connection rather than a thread.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "workspace.photos", name = "store", havingValue = "s3", matchIfMissing = true)
+    public S3AsyncClient s3AsyncClient(S3Properties props) {
+        var builder = S3AsyncClient.builder()
+                .region(Region.of(props.getRegion()))
+                .serviceConfiguration(serviceConfiguration(props))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(props.getMaxConnections())
+                        .connectionAcquisitionTimeout(props.getConnectionAcquireTimeout())
+                        .maxPendingConnectionAcquires(props.getMaxPendingConnectionAcquires()))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .apiCallTimeout(props.getApiCallTimeout())
+                        .build());
+        if (props.getEndpoint() != null) {
+            builder.endpointOverride(props.getEndpoint());
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public S3Presigner s3Presigner(S3Properties props) {
+        var builder = S3Presigner.builder()
+                .region(Region.of(props.getRegion()))
+                .serviceConfiguration(serviceConfiguration(props));
+        if (props.getEndpoint() != null) {
+            builder.endpointOverride(props.getEndpoint());
+        }
+        return builder.build();
+    }
+
+    private static S3Configuration serviceConfiguration(S3Properties props) {
+        return S3Configuration.builder()
+                .pathStyleAccessEnabled(props.isPathStyleAccess())
+                .build();
+    }
+}
@@ -0,0 +1,216 @@
+package com.service.sector.aggregator.config;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "workspace.photos")
+public class PhotoProperties {
+
+    /**
+     * Photos decoded / resized / encoded at the same time across all requests;
+     * 0 (default) means one per available core.
+     */
+    private int compressConcurrency = 0;
+
+    /**
+     * Where photos are stored: "s3" (default) or "local" (a directory, for
+     * local runs, tests and benchmarks).
+     */
+    private String store = "s3";
+
+    /**
+     * Directory of the "local" store.
+     */
+    private Path localStoreRoot = Path.of(System.getProperty("java.io.tmpdir"), "workspace-photos");
+
+    /**
+     * URL the "local" store's files are served under; unset means their
+     * {@code file:} URIs.
+     */
+    private String localStoreBaseUrl;
+
+    /**
+     * Uploads in flight at the same time across all requests. Uploads are
+     * asynchronous, so this bounds open requests to the store, not threads.
+     */
+    private int uploadConcurrency = 16;
+
+    /**
+     * Size of one pooled direct buffer holding part of an encoded photo.
+     */
+    private DataSize bufferChunkSize = DataSize.ofKilobytes(64);
+
+    /**
+     * Free direct buffers kept for reuse; buffers released beyond this are dropped.
+     */
+    private DataSize bufferPoolSize = DataSize.ofMegabytes(32);
+
+    /**
+     * How long a presigned direct-upload URL stays valid.
+     */
+    private Duration uploadUrlTtl = Duration.ofMinutes(15);
+
+    /**
+     * Largest photo accepted through a presigned URL; matches the multipart limit.
+     */
+    private DataSize maxUploadSize = DataSize.ofMegabytes(10);
+
+    /**
+     * Decoded pixels held at the same time across all requests (4 bytes each);
+     * a photo waits until its share is free. Sources are subsampled on decode
+     * to about the largest variant, so a photo rarely needs more than a few
+     * million.
+     */
+    private int decodePixelBudget = 32_000_000;
+
+    /**
+     * Lowest JPEG quality the size search may go down to; a variant that
+     * is still over its {@code max-bytes} at this quality is stored anyway.
+     */
+    private float minQuality = 0.5f;
+
+    /**
+     * Sizes stored for every photo, by name (used in the storage key and the API,
+     * at most 20 characters); all are encoded from one decode of the upload.
+     * The largest variant is also the photo's main URL.
+     */
+    private Map<String, Variant> variants = defaultVariants();
+
+    /**
+     * How long an unreferenced photo blob is kept before its stored objects are
+     * deleted; must be longer than any upload request takes.
+     */
+    private Duration blobGracePeriod = Duration.ofHours(1);
+
+    /**
+     * Delay between two runs of the unreferenced-blob sweep.
+     */
+    private Duration blobSweepInterval = Duration.ofMinutes(10);
+
+    /**
+     * Blobs deleted per sweep transaction.
+     */
+    private int blobSweepBatchSize = 100;
+
+    /**
+     * Directory resumable uploads are spooled to until they are finalized.
+     * Sessions live on the node that created them, so requests of one upload
+     * must be routed to the same node.
+     */
+    private Path resumableSpoolDir = Path.of(System.getProperty("java.io.tmpdir"), "workspace-photo-spool");
+
+    /**
+     * When spooled chunks are forced to disk: "chunk" (default) before each
+     * chunk's new offset is acknowledged, so a crash never loses acknowledged
+     * bytes; "none" leaves it to the OS, and after a crash the client resumes
+     * from whatever reached the disk.
+     */
+    private Fsync resumableFsync = Fsync.CHUNK;
+
+    /**
+     * How long a resumable upload can take from creation to finalization;
+     * expired sessions are deleted.
+     */
+    private Duration resumableUploadTtl = Duration.ofHours(24);
+
+    /**
+     * Delay between two sweeps for expired resumable uploads.
+     */
+    private Duration resumableSweepInterval = Duration.ofMinutes(15);
+
+    /**
+     * Photo jobs one image-worker node processes at the same time.
+     */
+    private int jobConcurrency = 4;
+
+    /**
+     * Delay between two polls of a node for due photo jobs.
+     */
+    private Duration jobPollInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long a claimed photo job is owned by its worker; a job still
+     * claimed after this (its node died) is picked up again.
+     */
+    private Duration jobLease = Duration.ofMinutes(5);
+
+    /**
+     * Attempts of a photo job before its photo is marked failed.
+     */
+    private int jobMaxAttempts = 5;
+
+    /**
+     * Delay before the first retry of a failed photo job; doubled on every
+     * further failure, up to {@code job-max-retry-backoff}.
+     */
+    private Duration jobRetryBackoff = Duration.ofSeconds(10);
+
+    /**
+     * Longest delay between two attempts of a photo job.
+     */
+    private Duration jobMaxRetryBackoff = Duration.ofMinutes(10);
+
+    public int effectiveCompressConcurrency() {
+        return compressConcurrency > 0 ? compressConcurrency : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static Map<String, Variant> defaultVariants() {
+        Map<String, Variant> variants = new LinkedHashMap<>();
+        variants.put("thumb", new Variant(200, 0.8f, DataSize.ofKilobytes(30)));
+        variants.put("card", new Variant(640, 0.85f, DataSize.ofKilobytes(150)));
+        variants.put("full", new Variant(2000, 0.9f, DataSize.ofMegabytes(1)));
+        return variants;
+    }
+
+    /** Name of the largest variant. */
+    public String primaryVariant() {
+        return variants.entrySet().stream()
+                .max(Comparator.comparingInt(e -> e.getValue().getMaxSize()))
+                .orElseThrow(() -> new IllegalStateException("workspace.photos.variants is empty"))
+                .getKey();
+    }
+
+    public enum Fsync { CHUNK, NONE }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Variant {
+
+        /** Longest side in pixels; smaller photos are kept at their size. */
+        private int maxSize = 2000;
+
+        /** JPEG quality, 0..1; lowered (down to {@code min-quality}) when the result exceeds {@code maxBytes}. */
+        private float quality = 0.9f;
+
+        /**
+         * Size target of the encoded variant. A JPEG upload that already fits
+         * this and {@code maxSize} is stored unchanged, minus its metadata.
+         */
+        private DataSize maxBytes = DataSize.ofMegabytes(1);
+
+        public Variant(int maxSize, float quality) {
+            this.maxSize = maxSize;
+            this.quality = quality;
+        }
+
+        public Variant(int maxSize, float quality, DataSize maxBytes) {
+            this(maxSize, quality);
+            this.maxBytes = maxBytes;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.service.sector.aggregator.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "aws.s3")
+public class S3Properties {
+
+    /**
+     * Bucket holding workspace photos and direct uploads.
+     */
+    private String bucket = "workplace-photos";
+
+    /**
+     * Region of the bucket.
+     */
+    private String region = "eu-north-1";
+
+    /**
+     * Endpoint of an S3-compatible server (e.g. {@code http://localhost:9000}
+     * for a local MinIO); unset means AWS. Photo URLs then point at
+     * {@code <endpoint>/<bucket>/<key>}.
+     */
+    private URI endpoint;
+
+    /**
+     * Address the bucket in the path rather than the host name; most local
+     * S3 stand-ins need this.
+     */
+    private boolean pathStyleAccess = false;
+
+    /**
+     * Pooled HTTP connections of the asynchronous client that stores photos;
+     * should be at least {@code workspace.photos.upload-concurrency}.
+     */
+    private int maxConnections = 64;
+
+    /**
+     * How long a request waits for a pooled connection before failing.
+     */
+    private Duration connectionAcquireTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Requests allowed to wait for a pooled connection; further ones fail at once.
+     */
+    private int maxPendingConnectionAcquires = 1_000;
+
+    /**
+     * Upper bound for one request including its retries.
+     */
+    private Duration apiCallTimeout = Duration.ofMinutes(1);
+}
@@ -0,0 +1,12 @@
+package com.service.sector.aggregator.data.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @param uploadId  passed to the confirm endpoint once every photo is uploaded
+ * @param expiresAt when the URLs stop accepting uploads
+ * @param urls      one presigned URL per photo, in photo order; upload with {@code PUT}
+ */
+public record PhotoUploadSlots(String uploadId, Instant expiresAt, List<String> urls) {
+}
@@ -25,6 +25,7 @@ import java.time.OffsetDateTime;
 @EqualsAndHashCode(of = "id")
 @ToString(of = {"id", "email", "phone", "realName"})
 @Entity
+@EntityListeners(AppUserAuthorityListener.class)
 @Table(name = "app_user",
         uniqueConstraints = {
                 @UniqueConstraint(name = "uc_user_email", columnNames = "email"),
@@ -71,8 +72,14 @@ public class AppUser {
     private java.util.Set<Role> roles = new java.util.HashSet<>();
 
     // NEW helper methods -------------------------------------------------------
+    /** In-memory check over the (EAGER) roles; never queries. */
     public boolean hasRole(RoleName rn) {
-        return roles.stream().anyMatch(r -> r.getRoleName() == rn);
+        for (Role r : roles) {
+            if (r.getRoleName() == rn) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void addRole(Role r) { roles.add(r); }
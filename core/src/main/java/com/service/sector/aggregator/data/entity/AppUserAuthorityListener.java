@@ -0,0 +1,30 @@
+package com.service.sector.aggregator.data.entity;
+
+import com.service.sector.aggregator.security.AppUserCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Drops the cached state of a user, such as its admin authority, whenever
+ * the row changes, so promotions and demotions are seen immediately on this
+ * node (other nodes pick them up when the cache TTL runs out).
+ * <p>
+ * Instantiated by Hibernate through Spring's bean container; the caches are
+ * looked up lazily because listeners are created while the
+ * EntityManagerFactory that the caches depend on is still being built.
+ */
+public class AppUserAuthorityListener {
+
+    private final ObjectProvider<AppUserCache> caches;
+
+    public AppUserAuthorityListener(ObjectProvider<AppUserCache> caches) {
+        this.caches = caches;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(AppUser user) {
+        caches.forEach(cache -> cache.invalidate(user.getId()));
+    }
+}
@@ -4,6 +4,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.OffsetDateTime;
+
 @Schema(description = "Phone numbers and sent sms codes")
 @Entity
 @Table(name = "auth_codes")
@@ -28,5 +30,15 @@ public class AuthCode {
     @Schema(description = "Generated SMS auth code")
     @Column(name = "sms_code", length = 6)
     private String code;
+
+    @Schema(description = "When the code was issued; expired codes are purged")
+    @Builder.Default
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+
+    @Schema(description = "Wrong guesses made against this code")
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
 }
 
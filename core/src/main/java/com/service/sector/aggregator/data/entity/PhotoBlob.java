@@ -0,0 +1,60 @@
+package com.service.sector.aggregator.data.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A distinct uploaded photo, identified by the SHA-256 of its original bytes.
+ * Its variants are stored once under {@code photos/<sha256>/<variant>.jpg} and
+ * shared by every {@link WorkspacePhoto} with the same content.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "sha256")
+@ToString(of = {"sha256", "refCount"})
+@Entity
+@Table(name = "photo_blob")
+public class PhotoBlob {
+
+    /** Lower-case hex SHA-256 of the uploaded file. */
+    @Id
+    @Column(length = 64, columnDefinition = "CHAR(64)")
+    private String sha256;
+
+    /** Workspace photos using this blob; unreferenced blobs are swept after a grace period. */
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    /** Comma-separated names of the stored variants; {@code null} while the first upload is in progress. */
+    @Column(length = 200)
+    private String variants;
+
+    /** Total size of the stored variants. */
+    @Column(name = "stored_bytes", nullable = false)
+    private long storedBytes;
+
+    /** When the last reference went away (or an upload started); {@code null} while referenced. */
+    @Column(name = "released_at")
+    private OffsetDateTime releasedAt;
+
+    @Builder.Default
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+
+    public List<String> variantNames() {
+        return variants == null || variants.isEmpty() ? List.of() : Arrays.asList(variants.split(","));
+    }
+
+    /** Whether every one of {@code names} is stored. */
+    public boolean hasVariants(Collection<String> names) {
+        return variantNames().containsAll(names);
+    }
+}
@@ -0,0 +1,59 @@
+package com.service.sector.aggregator.data.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Pending processing of one {@link WorkspacePhoto}: the upload staged under
+ * {@link #sourceKey} still has to be compressed and stored. Claimed by a
+ * worker of any node for {@code workspace.photos.job-lease}; deleted once the
+ * photo is ready or has failed for good.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id")
+@ToString(of = {"id", "sourceKey", "attempts"})
+@Entity
+@Table(name = "photo_job")
+public class PhotoJob {
+
+    /** Taken from a pooled sequence (50 per call), so jobs are batched with their photos. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "photo_job_id_seq")
+    @SequenceGenerator(name = "photo_job_id_seq", sequenceName = "photo_job_id_seq", allocationSize = 50)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "photo_id", unique = true)
+    private WorkspacePhoto photo;
+
+    /** Store key of the uploaded original. */
+    @Column(name = "source_key", nullable = false, length = 500)
+    private String sourceKey;
+
+    /** Attempts started so far, including one in progress. */
+    @Column(nullable = false)
+    private int attempts;
+
+    /** Earliest time of the next attempt. */
+    @Builder.Default
+    @Column(name = "run_at", nullable = false)
+    private OffsetDateTime runAt = OffsetDateTime.now();
+
+    /** Until when the worker that claimed the job owns it; {@code null} if unclaimed. */
+    @Column(name = "locked_until")
+    private OffsetDateTime lockedUntil;
+
+    /** Why the last attempt failed. */
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Builder.Default
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+}
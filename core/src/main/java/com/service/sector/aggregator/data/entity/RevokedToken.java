@@ -0,0 +1,41 @@
+package com.service.sector.aggregator.data.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A single access token revoked before its expiry (logout).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id")
+@ToString(of = {"id", "jti", "userId"})
+@Entity
+@Table(name = "revoked_token",
+        uniqueConstraints = @UniqueConstraint(name = "uc_revoked_token_jti", columnNames = "jti"))
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** The token's {@code jti} claim. */
+    @Column(nullable = false, length = 36)
+    private String jti;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** The token's {@code exp}; the row is useless afterwards and gets purged. */
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @Builder.Default
+    @Column(name = "revoked_at", nullable = false, updatable = false)
+    private OffsetDateTime revokedAt = OffsetDateTime.now();
+}
@@ -0,0 +1,33 @@
+package com.service.sector.aggregator.data.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * "Log out everywhere" marker: every token of the user issued before
+ * {@link #revokedBefore} is revoked.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "userId")
+@ToString(of = {"userId", "revokedBefore"})
+@Entity
+@Table(name = "user_token_revocation")
+public class UserTokenRevocation {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "revoked_before", nullable = false)
+    private OffsetDateTime revokedBefore;
+
+    @Builder.Default
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt = OffsetDateTime.now();
+}
@@ -25,8 +25,10 @@ import java.util.List;
 @Table(name = "workspace")
 public class Workspace {
 
+    /** Taken from a pooled sequence (50 per call), so rows can be inserted in JDBC batches. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workspace_id_seq")
+    @SequenceGenerator(name = "workspace_id_seq", sequenceName = "workspace_id_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -88,6 +90,10 @@ public class Workspace {
     @Column(length = 50)                 // optional, matches Liquibase change
     private WorkspaceStatus status = WorkspaceStatus.DRAFT;
 
+    /** Direct or resumable upload the photos came from; {@code null} for multipart photos. */
+    @Column(name = "upload_id", length = 36, unique = true, updatable = false)
+    private String uploadId;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt = OffsetDateTime.now();
 
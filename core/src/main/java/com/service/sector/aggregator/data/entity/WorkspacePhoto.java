@@ -0,0 +1,70 @@
+package com.service.sector.aggregator.data.entity;
+
+import com.service.sector.aggregator.data.enums.PhotoStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import lombok.*;
+import org.hibernate.annotations.BatchSize;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id")
+@ToString(of = {"id", "status", "filePath"})
+@Entity
+@Table(name = "workspace_photo",
+        uniqueConstraints = @UniqueConstraint(name = "uc_photo_order",
+                columnNames = {"workspace_id", "\"order\""}))
+public class WorkspacePhoto {
+
+    /** Taken from a pooled sequence (50 per call), so rows can be inserted in JDBC batches. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workspace_photo_id_seq")
+    @SequenceGenerator(name = "workspace_photo_id_seq", sequenceName = "workspace_photo_id_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "workspace_id")
+    private Workspace workspace;
+
+    /** URL of the largest variant; {@code null} until the photo is {@link PhotoStatus#READY}. */
+    @Column(name = "file_path", length = 500)
+    private String filePath;
+
+    /**
+     * Photos are saved {@link PhotoStatus#PROCESSING} and completed by the
+     * {@link PhotoJob}; rows stored before the job queue are {@link PhotoStatus#READY}.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private PhotoStatus status = PhotoStatus.PROCESSING;
+
+    /** Stored content ({@link PhotoBlob}); {@code null} for photos uploaded before deduplication. */
+    @Column(name = "blob_sha256", length = 64, columnDefinition = "CHAR(64)")
+    private String blobSha256;
+
+    /** URL per size variant (see {@code workspace.photos.variants}). */
+    @ElementCollection
+    @CollectionTable(name = "workspace_photo_variant", joinColumns = @JoinColumn(name = "photo_id"))
+    @MapKeyColumn(name = "variant", length = 20)
+    @Column(name = "file_path", nullable = false, length = 500)
+    @BatchSize(size = 50)            // one query for the variants of a whole listing page
+    @Builder.Default
+    private Map<String, String> variants = new LinkedHashMap<>();
+
+    /** Display order (0…14) */
+    @Min(0)
+    @Max(14)
+    @Column(name = "\"order\"", nullable = false)
+    private short order;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+}
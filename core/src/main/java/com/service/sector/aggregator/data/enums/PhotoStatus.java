@@ -0,0 +1,4 @@
+package com.service.sector.aggregator.data.enums;
+
+/** Processing state of a {@code WorkspacePhoto}. */
+public enum PhotoStatus { PROCESSING, READY, FAILED }
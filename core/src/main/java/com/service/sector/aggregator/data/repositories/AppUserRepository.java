@@ -3,6 +3,8 @@ package com.service.sector.aggregator.data.repositories;
 import com.service.sector.aggregator.data.entity.AppUser;
 import com.service.sector.aggregator.data.enums.RoleRequestStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +15,8 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long> {
     boolean existsByPhone(String phone);
     Optional<AppUser> findByPhone(String phone);
     List<AppUser> findByLandlordRoleStatus(RoleRequestStatus status);
+
+    /** Reads only the admin flag, without loading the user row and its roles. */
+    @Query("select u.isAdmin from AppUser u where u.id = :id")
+    Optional<Boolean> findAdminFlagById(@Param("id") Long id);
 }
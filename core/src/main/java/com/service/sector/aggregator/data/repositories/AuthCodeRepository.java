@@ -0,0 +1,53 @@
+package com.service.sector.aggregator.data.repositories;
+
+import com.service.sector.aggregator.data.entity.AuthCode;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface AuthCodeRepository extends JpaRepository<AuthCode, Long> {
+
+    /** Locks the phone's codes, newest first, so concurrent requests for a code serialise. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from AuthCode c where c.phone = :phone order by c.createdAt desc")
+    List<AuthCode> lockByPhone(@Param("phone") String phone);
+
+    /** Bulk delete in one statement (the derived variant loads and removes row by row). */
+    @Modifying
+    @Query("delete from AuthCode c where c.phone = :phone")
+    void deleteAllByPhone(@Param("phone") String phone);
+
+    /** Deletes the phone's code only if it is still {@code code}. */
+    @Modifying
+    @Query("delete from AuthCode c where c.phone = :phone and c.code = :code")
+    void deleteByPhoneAndCode(@Param("phone") String phone, @Param("code") String code);
+
+    /**
+     * Verifies and consumes a code issued after {@code issuedAfter} that has
+     * seen fewer than {@code maxAttempts} wrong guesses, in a single statement.
+     * Concurrent callers serialise on the row lock, so only one of them gets
+     * the id back.
+     *
+     * @return ids of the consumed rows; empty when the code did not match
+     */
+    @Query(value = "DELETE FROM auth_codes WHERE phone = :phone AND sms_code = :code "
+            + "AND created_at > :issuedAfter AND attempts < :maxAttempts RETURNING id",
+           nativeQuery = true)
+    List<Long> consume(@Param("phone") String phone, @Param("code") String code,
+                       @Param("issuedAfter") OffsetDateTime issuedAfter,
+                       @Param("maxAttempts") int maxAttempts);
+
+    /** Counts a wrong guess against the phone's unexpired codes. */
+    @Modifying
+    @Query("update AuthCode c set c.attempts = c.attempts + 1 "
+            + "where c.phone = :phone and c.createdAt > :issuedAfter")
+    void countFailedAttempt(@Param("phone") String phone, @Param("issuedAfter") OffsetDateTime issuedAfter);
+}
@@ -0,0 +1,45 @@
+package com.service.sector.aggregator.data.repositories;
+
+import com.service.sector.aggregator.data.entity.PhotoBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface PhotoBlobRepository extends JpaRepository<PhotoBlob, String>, PhotoBlobRepositoryCustom {
+
+    /**
+     * Marks a blob as being uploaded, creating it unreferenced if needed. This
+     * keeps the sweep away from it for a grace period, and waits for a sweep
+     * that is deleting it right now to finish first.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO photo_blob (sha256, ref_count, released_at) VALUES (:sha256, 0, NOW()) "
+            + "ON CONFLICT (sha256) DO UPDATE SET released_at = NOW()",
+           nativeQuery = true)
+    void touch(@Param("sha256") String sha256);
+
+    /** Drops a reference; the blob becomes eligible for the sweep when it was the last one. */
+    @Modifying
+    @Query(value = "UPDATE photo_blob SET ref_count = ref_count - 1, "
+            + "released_at = CASE WHEN ref_count = 1 THEN NOW() ELSE released_at END "
+            + "WHERE sha256 = :sha256 AND ref_count > 0",
+           nativeQuery = true)
+    void release(@Param("sha256") String sha256);
+
+    /**
+     * Locks up to {@code limit} blobs unreferenced since before {@code cutoff};
+     * rows locked by another node's sweep are skipped.
+     */
+    @Query(value = "SELECT * FROM photo_blob WHERE ref_count = 0 AND released_at < :cutoff "
+            + "ORDER BY released_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<PhotoBlob> lockUnreferenced(@Param("cutoff") OffsetDateTime cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,19 @@
+package com.service.sector.aggregator.data.repositories;
+
+import com.service.sector.aggregator.data.entity.PhotoBlob;
+
+import java.util.List;
+
+/**
+ * Batched writes of {@link PhotoBlobRepository}.
+ */
+public interface PhotoBlobRepositoryCustom {
+
+    /**
+     * Adds a reference per element, recording what is stored for the blob
+     * (its {@code sha256}, {@code variants} and {@code storedBytes}); a blob
+     * listed twice gets two. Sent as one JDBC batch, in the caller's
+     * transaction.
+     */
+    void retainAll(List<PhotoBlob> blobs);
+}
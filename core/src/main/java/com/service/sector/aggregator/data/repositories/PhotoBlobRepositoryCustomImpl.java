@@ -0,0 +1,27 @@
+package com.service.sector.aggregator.data.repositories;
+
+import com.service.sector.aggregator.data.entity.PhotoBlob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PhotoBlobRepositoryCustomImpl implements PhotoBlobRepositoryCustom {
+
+    private static final String RETAIN = "INSERT INTO photo_blob (sha256, ref_count, variants, stored_bytes) "
+            + "VALUES (?, 1, ?, ?) "
+            + "ON CONFLICT (sha256) DO UPDATE SET ref_count = photo_blob.ref_count + 1, released_at = NULL, "
+            + "variants = EXCLUDED.variants, stored_bytes = EXCLUDED.stored_bytes";
+
+    private final JdbcTemplate jdbc;
+
+    @Override
+    public void retainAll(List<PhotoBlob> blobs) {
+        jdbc.batchUpdate(RETAIN, blobs, blobs.size(), (ps, blob) -> {
+            ps.setString(1, blob.getSha256());
+            ps.setString(2, blob.getVariants());
+            ps.setLong(3, blob.getStoredBytes());
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.service.sector.aggregator.data.repositories;
+
+import com.service.sector.aggregator.data.entity.PhotoJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PhotoJobRepository extends JpaRepository<PhotoJob, Long> {
+
+    /**
+     * Locks up to {@code limit} jobs that are due and not claimed by a live
+     * worker, oldest first; rows locked by another node are skipped.
+     */
+    @Query(value = "SELECT * FROM photo_job WHERE run_at <= NOW() "
+            + "AND (locked_until IS NULL OR locked_until < NOW()) "
+            + "ORDER BY run_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<PhotoJob> lockDue(@Param("limit") int limit);
+
+    /** Locks a job, waiting for another transaction holding it; empty if it is gone. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select j from PhotoJob j where j.id = :id")
+    Optional<PhotoJob> lockById(@Param("id") Long id);
+
+    /** Locks the pending jobs of a workspace's photos, so none completes while it is deleted. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select j from PhotoJob j where j.photo.workspace.id = :workspaceId")
+    List<PhotoJob> lockByWorkspaceId(@Param("workspaceId") Long workspaceId);
+}
@@ -0,0 +1,36 @@
+package com.service.sector.aggregator.data.repositories;
+
+import com.service.sector.aggregator.data.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    /** All revocations of tokens that are still valid. */
+    List<RevokedToken> findByExpiresAtAfter(OffsetDateTime now);
+
+    /** Revocations recorded after {@code since} for tokens that are still valid. */
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(OffsetDateTime since, OffsetDateTime now);
+
+    /** Idempotent: revoking the same token twice is a no-op. */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO revoked_token (jti, user_id, expires_at) VALUES (:jti, :userId, :expiresAt) "
+            + "ON CONFLICT (jti) DO NOTHING",
+           nativeQuery = true)
+    void revoke(@Param("jti") String jti, @Param("userId") Long userId,
+                @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,34 @@
+package com.service.sector.aggregator.data.repositories;
+
+import com.service.sector.aggregator.data.entity.UserTokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface UserTokenRevocationRepository extends JpaRepository<UserTokenRevocation, Long> {
+
+    List<UserTokenRevocation> findByUpdatedAtAfter(OffsetDateTime since);
+
+    /** Creates or moves the user's marker forward; never moves it back. */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_token_revocation (user_id, revoked_before) VALUES (:userId, :revokedBefore) "
+            + "ON CONFLICT (user_id) DO UPDATE SET "
+            + "revoked_before = GREATEST(user_token_revocation.revoked_before, EXCLUDED.revoked_before), "
+            + "updated_at = NOW()",
+           nativeQuery = true)
+    void revokeAll(@Param("userId") Long userId, @Param("revokedBefore") OffsetDateTime revokedBefore);
+
+    /** Markers older than the token TTL no longer match any valid token. */
+    @Transactional
+    @Modifying
+    @Query("delete from UserTokenRevocation r where r.revokedBefore < :cutoff")
+    int deleteOlderThan(@Param("cutoff") OffsetDateTime cutoff);
+}
@@ -12,4 +12,6 @@ public interface WorkspaceRepository extends JpaRepository<Workspace, Long> {
     List<Workspace> findAllByOwner(AppUser owner);
 
     List<Workspace> findAllByOwnerId(Long ownerId);
+
+    boolean existsByUploadId(String uploadId);
 }
@@ -0,0 +1,12 @@
+package com.service.sector.aggregator.security;
+
+import com.service.sector.aggregator.data.entity.AppUserAuthorityListener;
+
+/**
+ * Per-user state cached by an application, dropped by
+ * {@link AppUserAuthorityListener} whenever the user's row changes.
+ */
+public interface AppUserCache {
+
+    void invalidate(Long userId);
+}
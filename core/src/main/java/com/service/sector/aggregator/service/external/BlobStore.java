@@ -0,0 +1,35 @@
+package com.service.sector.aggregator.service.external;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Object storage for photos; selected with {@code workspace.photos.store}.
+ * Writes are asynchronous, so many can be in flight without holding a thread
+ * each.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the remaining bytes of {@code content} under {@code key},
+     * replacing any existing object. The buffers are read, never copied, and
+     * must stay unchanged until the returned future completes.
+     */
+    CompletableFuture<Void> put(String key, ByteBuffer[] content, String contentType);
+
+    /**
+     * Streams a stored object; the caller closes the stream.
+     *
+     * @throws IOException if it does not exist or cannot be read
+     */
+    InputStream open(String key) throws IOException;
+
+    /** Deletes the objects; keys that do not exist are ignored. */
+    void delete(List<String> keys);
+
+    /** URL clients fetch the object from. */
+    String urlOf(String key);
+}
@@ -0,0 +1,339 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.coobird.thumbnailator.Thumbnails;
+import net.coobird.thumbnailator.util.exif.ExifFilterUtils;
+import net.coobird.thumbnailator.util.exif.ExifUtils;
+import net.coobird.thumbnailator.util.exif.Orientation;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * JPEG encoding of uploaded photos.
+ * <p>
+ * Only the image header is read up front. A JPEG that already fits a
+ * variant's {@code maxSize} and {@code maxBytes} (and needs no EXIF rotation)
+ * is stored as uploaded for that variant, with its EXIF / XMP / comment
+ * segments removed. If every variant is satisfied this way the photo is never
+ * decoded.
+ * <p>
+ * Otherwise the source is decoded with
+ * {@link ImageReadParam#setSourceSubsampling source subsampling} down to the
+ * smallest size still at least as large as the biggest variant, so a 48 MP
+ * phone photo is decoded as ~3 MP instead of a 190 MB raster. Decoded pixels
+ * are limited across all requests by {@code workspace.photos.decode-pixel-budget}.
+ * Each variant is encoded at its {@code quality}; if the result exceeds
+ * {@code maxBytes} the highest quality within it (but not below
+ * {@code workspace.photos.min-quality}) is binary searched.
+ * <p>
+ * Metrics: {@code photo.decode.pixels.in.use}, {@code photo.encode.passthrough}
+ * and {@code photo.encode.attempts}.
+ */
+@Service
+public class ImageService {
+
+    /** Halvings of the quality range; 0.9..0.5 ends within 0.0125. */
+    private static final int QUALITY_SEARCH_STEPS = 5;
+
+    private final int pixelBudget;
+    private final float minQuality;
+    private final Semaphore decodePixels;
+    private final Counter passthrough;
+    private final DistributionSummary encodeAttempts;
+
+    public ImageService(PhotoProperties props, MeterRegistry meterRegistry) {
+        this.pixelBudget = props.getDecodePixelBudget();
+        this.minQuality = props.getMinQuality();
+        this.decodePixels = new Semaphore(pixelBudget, true);
+        Gauge.builder("photo.decode.pixels.in.use", decodePixels, s -> pixelBudget - s.availablePermits())
+                .description("Pixels of photos currently decoded")
+                .register(meterRegistry);
+        this.passthrough = Counter.builder("photo.encode.passthrough")
+                .description("Variants stored as uploaded because the upload already fit them")
+                .register(meterRegistry);
+        this.encodeAttempts = DistributionSummary.builder("photo.encode.attempts")
+                .description("JPEG encodes needed to bring one variant within its byte target")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Compresses to a JPEG of at most 2000 px and, quality permitting, 1 MB.
+     */
+    public byte[] compress(byte[] original) throws IOException {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            compress(new ByteArrayInputStream(original),
+                    List.of(new PhotoProperties.Variant(2000, 0.9f, DataSize.ofMegabytes(1))), List.of(out));
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Writes one JPEG per variant into the output at the same index. Each
+     * variant is scaled down to fit its {@code maxSize}; smaller images are
+     * never scaled up. No stream is closed.
+     *
+     * @throws InterruptedIOException if interrupted while waiting for the pixel budget
+     */
+    public void compress(InputStream in, List<PhotoProperties.Variant> variants,
+                         List<? extends OutputStream> outs) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            ImageReader reader = readerFor(iis);
+            try {
+                reader.setInput(iis, false, false);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // only JPEG carries EXIF
+                boolean jpeg = "jpeg".equalsIgnoreCase(reader.getFormatName());
+                Orientation orientation = jpeg ? ExifUtils.getExifOrientation(reader, 0) : null;
+
+                List<Integer> toEncode = new ArrayList<>();
+                byte[] stripped = jpeg && (orientation == null || orientation == Orientation.TOP_LEFT)
+                        ? strippedOriginal(iis, variants, Math.max(width, height))
+                        : null;
+                for (int i = 0; i < variants.size(); i++) {
+                    PhotoProperties.Variant variant = variants.get(i);
+                    if (stripped != null && Math.max(width, height) <= variant.getMaxSize()
+                            && stripped.length <= variant.getMaxBytes().toBytes()) {
+                        outs.get(i).write(stripped);
+                        passthrough.increment();
+                    } else {
+                        toEncode.add(i);
+                    }
+                }
+                if (toEncode.isEmpty()) {
+                    return;
+                }
+
+                int maxSize = toEncode.stream().mapToInt(i -> variants.get(i).getMaxSize()).max().orElseThrow();
+                int step = subsampling(width, height, maxSize);
+                // a photo larger than the whole budget is decoded alone
+                int pixels = (int) Math.min(pixelBudget, (long) ceilDiv(width, step) * ceilDiv(height, step));
+
+                acquire(pixels);
+                try {
+                    BufferedImage source = decode(reader, step, orientation);
+                    for (int i : toEncode) {
+                        outs.get(i).write(encode(source, variants.get(i)));
+                    }
+                } finally {
+                    decodePixels.release(pixels);
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageReader readerFor(ImageInputStream iis) throws IOException {
+        Iterator<ImageReader> readers = iis == null ? null : ImageIO.getImageReaders(iis);
+        if (readers == null || !readers.hasNext()) {
+            throw new IOException("Unsupported image format");
+        }
+        return readers.next();
+    }
+
+    /**
+     * The upload without metadata if some variant could take it as is, else
+     * {@code null}; never reads more than the largest such variant's {@code maxBytes}.
+     */
+    private static byte[] strippedOriginal(ImageInputStream iis, List<PhotoProperties.Variant> variants,
+                                           int longestSide) throws IOException {
+        long limit = variants.stream()
+                .filter(v -> longestSide <= v.getMaxSize())
+                .mapToLong(v -> v.getMaxBytes().toBytes())
+                .max().orElse(-1);
+        if (limit < 0) {
+            return null;
+        }
+        // metadata rarely exceeds 64 KB; anything larger is re-encoded
+        byte[] original = readAtMost(iis, (int) Math.min(Integer.MAX_VALUE - 8, limit + 65536));
+        if (original == null) {
+            return null;
+        }
+        byte[] stripped = stripMetadata(original);
+        return stripped.length <= limit ? stripped : null;
+    }
+
+    /** The whole stream from its start, or {@code null} if longer than {@code limit}. */
+    private static byte[] readAtMost(ImageInputStream iis, int limit) throws IOException {
+        long mark = iis.getStreamPosition();
+        iis.seek(0);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int n;
+            while ((n = iis.read(chunk)) > 0) {
+                if (out.size() + n > limit) {
+                    return null;
+                }
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            iis.seek(mark);
+        }
+    }
+
+    /**
+     * Copies a JPEG without its EXIF / XMP (APP1), other APPn and comment
+     * segments; JFIF (APP0), ICC profile (APP2) and Adobe (APP14) segments,
+     * which affect how the pixels are decoded, are kept.
+     */
+    static byte[] stripMetadata(byte[] jpeg) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(jpeg.length);
+        out.write(jpeg, 0, 2);                                  // SOI
+        int pos = 2;
+        while (true) {
+            if (pos + 4 > jpeg.length || (jpeg[pos] & 0xFF) != 0xFF) {
+                throw new IOException("Malformed JPEG");
+            }
+            int marker = jpeg[pos + 1] & 0xFF;
+            if (marker == 0xFF) {                               // fill byte
+                pos++;
+                continue;
+            }
+            if (marker == 0xDA) {                               // SOS: the rest is image data
+                break;
+            }
+            int end = pos + 2 + (((jpeg[pos + 2] & 0xFF) << 8) | (jpeg[pos + 3] & 0xFF));
+            if (end > jpeg.length) {
+                throw new IOException("Malformed JPEG");
+            }
+            if (!isMetadata(marker)) {
+                out.write(jpeg, pos, end - pos);
+            }
+            pos = end;
+        }
+        out.write(jpeg, pos, jpeg.length - pos);
+        return out.toByteArray();
+    }
+
+    private static boolean isMetadata(int marker) {
+        return marker == 0xE1 || (marker >= 0xE3 && marker <= 0xED) || marker == 0xEF || marker == 0xFE;
+    }
+
+    /** Largest step that still leaves the longest side at least {@code maxSize}. */
+    private static int subsampling(int width, int height, int maxSize) {
+        return maxSize <= 0 ? 1 : Math.max(1, Math.max(width, height) / maxSize);
+    }
+
+    private static int ceilDiv(int value, int step) {
+        return (value + step - 1) / step;
+    }
+
+    private void acquire(int pixels) throws InterruptedIOException {
+        try {
+            decodePixels.acquire(pixels);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to decode a photo");
+        }
+    }
+
+    /** Decodes the first image every {@code step}-th pixel and applies the EXIF orientation. */
+    private static BufferedImage decode(ImageReader reader, int step, Orientation orientation) throws IOException {
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(step, step, 0, 0);
+        BufferedImage image = reader.read(0, param);
+        return orientation == null ? image : ExifFilterUtils.getFilterForOrientation(orientation).apply(image);
+    }
+
+    /**
+     * Scales {@code source} to the variant and encodes it at the variant's
+     * quality, or at the highest lower quality that fits {@code maxBytes}.
+     */
+    private byte[] encode(BufferedImage source, PhotoProperties.Variant variant) throws IOException {
+        BufferedImage image = Math.max(source.getWidth(), source.getHeight()) > variant.getMaxSize()
+                ? Thumbnails.of(source).size(variant.getMaxSize(), variant.getMaxSize()).asBufferedImage()
+                : source;
+        image = opaque(image);
+        long target = variant.getMaxBytes().toBytes();
+
+        byte[] jpeg = writeJpeg(image, variant.getQuality());
+        int attempts = 1;
+        if (jpeg.length > target && variant.getQuality() > minQuality) {
+            // invariant: hi is over the target
+            float lo = minQuality;
+            float hi = variant.getQuality();
+            byte[] best = null;
+            for (int step = 0; step < QUALITY_SEARCH_STEPS; step++) {
+                float mid = (lo + hi) / 2;
+                byte[] candidate = writeJpeg(image, mid);
+                attempts++;
+                if (candidate.length <= target) {
+                    best = candidate;
+                    lo = mid;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (best == null) {
+                // nothing above min-quality fits: store the smallest allowed
+                best = writeJpeg(image, minQuality);
+                attempts++;
+            }
+            jpeg = best;
+        }
+        encodeAttempts.record(attempts);
+        return jpeg;
+    }
+
+    private static byte[] writeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /** JPEG has no alpha channel: transparent areas become white. */
+    private static BufferedImage opaque(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+}
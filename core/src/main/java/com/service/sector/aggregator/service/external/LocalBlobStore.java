@@ -0,0 +1,160 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Stores photos as files under {@code workspace.photos.local-store-root}
+ * ({@code workspace.photos.store=local}); for local runs, tests and offline
+ * benchmarks. Keys map to relative paths.
+ * <p>
+ * Each object is written with an {@link AsynchronousFileChannel} to a
+ * temporary file next to its target, then moved into place, so readers never
+ * see a partial object.
+ */
+@Service
+@ConditionalOnProperty(prefix = "workspace.photos", name = "store", havingValue = "local")
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+    private final String baseUrl;
+
+    @Autowired
+    public LocalBlobStore(PhotoProperties props) {
+        this(props.getLocalStoreRoot(), props.getLocalStoreBaseUrl());
+    }
+
+    /** @param baseUrl URL prefix of the stored files; {@code null} for {@code file:} URIs */
+    public LocalBlobStore(Path root, String baseUrl) {
+        this.root = root.toAbsolutePath().normalize();
+        this.baseUrl = (baseUrl != null ? baseUrl : this.root.toUri().toString()).replaceAll("/+$", "");
+    }
+
+    @Override
+    public CompletableFuture<Void> put(String key, ByteBuffer[] content, String contentType) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        try {
+            Path target = resolve(key);
+            Files.createDirectories(target.getParent());
+            Path part = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+            new Write(AsynchronousFileChannel.open(part, CREATE_NEW, WRITE), part, target, content, done).next();
+        } catch (IOException | RuntimeException e) {
+            done.completeExceptionally(e);
+        }
+        return done;
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void delete(List<String> keys) {
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(resolve(key));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public String urlOf(String key) {
+        return baseUrl + "/" + key;
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Key outside the store: " + key);
+        }
+        return path;
+    }
+
+    /** Writes the buffers one after the other, each write issued from the completion of the previous one. */
+    private static final class Write implements CompletionHandler<Integer, Void> {
+
+        private final AsynchronousFileChannel channel;
+        private final Path part;
+        private final Path target;
+        private final ByteBuffer[] buffers;
+        private final CompletableFuture<Void> done;
+        private int index;
+        private long position;
+
+        Write(AsynchronousFileChannel channel, Path part, Path target, ByteBuffer[] content,
+              CompletableFuture<Void> done) {
+            this.channel = channel;
+            this.part = part;
+            this.target = target;
+            // own views, so the caller's positions are left alone
+            this.buffers = Arrays.stream(content).map(ByteBuffer::duplicate).toArray(ByteBuffer[]::new);
+            this.done = done;
+        }
+
+        void next() {
+            while (index < buffers.length && !buffers[index].hasRemaining()) {
+                index++;
+            }
+            if (index == buffers.length) {
+                finish();
+                return;
+            }
+            try {
+                channel.write(buffers[index], position, null, this);
+            } catch (RuntimeException e) {
+                failed(e, null);
+            }
+        }
+
+        @Override
+        public void completed(Integer written, Void attachment) {
+            position += written;
+            next();
+        }
+
+        @Override
+        public void failed(Throwable e, Void attachment) {
+            try {
+                channel.close();
+                Files.deleteIfExists(part);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            done.completeExceptionally(e);
+        }
+
+        private void finish() {
+            try {
+                channel.close();
+                Files.move(part, target, REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (IOException e) {
+                failed(e, null);
+                return;
+            }
+            done.complete(null);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.S3Properties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Stores photos in the {@code aws.s3.bucket} bucket through the non-blocking
+ * {@link S3AsyncClient}. Bodies are sent straight from the caller's buffers;
+ * the SDK re-reads them on retries.
+ */
+@Service
+@ConditionalOnProperty(prefix = "workspace.photos", name = "store", havingValue = "s3", matchIfMissing = true)
+@RequiredArgsConstructor
+public class S3BlobStore implements BlobStore {
+
+    /** Limit of a DeleteObjects request. */
+    private static final int MAX_DELETE_KEYS = 1000;
+
+    private final S3AsyncClient s3;
+    private final S3Properties props;
+
+    @Override
+    public CompletableFuture<Void> put(String key, ByteBuffer[] content, String contentType) {
+        PutObjectRequest req = PutObjectRequest.builder()
+                .bucket(props.getBucket())
+                .key(key)
+                .contentType(contentType)
+                .contentLength(Arrays.stream(content).mapToLong(ByteBuffer::remaining).sum())
+                .build();                 // no ACL header!
+        return s3.putObject(req, AsyncRequestBody.fromRemainingByteBuffersUnsafe(content))
+                .thenApply(response -> null);
+    }
+
+    /** Streams the object as the SDK receives it; returns once the response has started. */
+    @Override
+    public InputStream open(String key) throws IOException {
+        GetObjectRequest req = GetObjectRequest.builder()
+                .bucket(props.getBucket())
+                .key(key)
+                .build();
+        try {
+            return s3.getObject(req, AsyncResponseTransformer.toBlockingInputStream()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while opening " + key);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException c && c.getCause() != null
+                    ? c.getCause() : e.getCause();
+            throw new IOException("Could not read " + key, cause);
+        }
+    }
+
+    /**
+     * Deletes the objects with one request per {@value #MAX_DELETE_KEYS} keys,
+     * sent concurrently; returns once all are done.
+     */
+    @Override
+    public void delete(List<String> keys) {
+        List<CompletableFuture<?>> requests = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += MAX_DELETE_KEYS) {
+            List<ObjectIdentifier> objects = keys.subList(from, Math.min(keys.size(), from + MAX_DELETE_KEYS))
+                    .stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+            requests.add(s3.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(props.getBucket())
+                    .delete(Delete.builder().objects(objects).quiet(true).build())
+                    .build()));
+        }
+        try {
+            CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /** Public URL of an object in the photo bucket. */
+    @Override
+    public String urlOf(String key) {
+        if (props.getEndpoint() != null) {
+            return String.format("%s/%s/%s", props.getEndpoint().toString().replaceAll("/+$", ""),
+                    props.getBucket(), key);
+        }
+        return String.format("https://%s.s3.%s.amazonaws.com/%s", props.getBucket(), props.getRegion(), key);
+    }
+}
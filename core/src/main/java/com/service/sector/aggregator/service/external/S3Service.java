@@ -0,0 +1,52 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.S3Properties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Synchronous S3 operations behind direct uploads: presigned PUT URLs and the
+ * staged objects clients upload with them. Stored photos go through
+ * {@link BlobStore}.
+ */
+@Service
+@RequiredArgsConstructor
+public class S3Service {
+
+    private final S3Client s3;
+    private final S3Presigner presigner;
+    private final S3Properties props;
+
+    /**
+     * URL the client can PUT one object to within {@code ttl}, without
+     * credentials; nothing but the key is signed.
+     */
+    public String presignPut(String key, Duration ttl) {
+        return presigner.presignPutObject(PutObjectPresignRequest.builder()
+                        .signatureDuration(ttl)
+                        .putObjectRequest(PutObjectRequest.builder().bucket(props.getBucket()).key(key).build())
+                        .build())
+                .url()
+                .toString();
+    }
+
+    /** All objects under {@code prefix}, in key order. */
+    public List<S3Object> list(String prefix) {
+        return s3.listObjectsV2Paginator(ListObjectsV2Request.builder()
+                        .bucket(props.getBucket())
+                        .prefix(prefix)
+                        .build())
+                .contents()
+                .stream()
+                .toList();
+    }
+}
@@ -0,0 +1,123 @@
+package com.service.sector.aggregator.service.impl;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Growable output stream over chunks from a {@link DirectBufferPool}. Unlike
+ * {@code ByteArrayOutputStream} it never copies on growth and never needs one
+ * contiguous array; the content can be read back any number of times with
+ * {@link #newInputStream()} or handed to NIO as-is with {@link #contents()}
+ * (the S3 client re-reads the body on retries).
+ * <p>
+ * Not thread-safe: written by one thread, then read. {@link #release()} returns
+ * the chunks to the pool; the buffer must not be used afterwards.
+ */
+public final class ChunkedBuffer extends OutputStream {
+
+    private final DirectBufferPool pool;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private ByteBuffer current;
+    private long size;
+
+    ChunkedBuffer(DirectBufferPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void write(int b) {
+        writableChunk().put((byte) b);
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        while (len > 0) {
+            ByteBuffer chunk = writableChunk();
+            int n = Math.min(len, chunk.remaining());
+            chunk.put(b, off, n);
+            off += n;
+            len -= n;
+            size += n;
+        }
+    }
+
+    /** Number of bytes written. */
+    public long size() {
+        return size;
+    }
+
+    /** A fresh stream over everything written so far. */
+    public InputStream newInputStream() {
+        return new ChunkInputStream();
+    }
+
+    /**
+     * Read-only views of the written chunks, positioned at their start; the
+     * bytes are shared, not copied. Each call returns new views.
+     */
+    public ByteBuffer[] contents() {
+        return chunks.stream()
+                .map(chunk -> chunk.asReadOnlyBuffer().flip())
+                .toArray(ByteBuffer[]::new);
+    }
+
+    /** Returns all chunks to the pool; safe to call more than once. */
+    public void release() {
+        chunks.forEach(pool::release);
+        chunks.clear();
+        current = null;
+        size = 0;
+    }
+
+    private ByteBuffer writableChunk() {
+        if (current == null || !current.hasRemaining()) {
+            current = pool.acquire();
+            chunks.add(current);
+        }
+        return current;
+    }
+
+    private final class ChunkInputStream extends InputStream {
+
+        private int chunkIndex;
+        private int position;
+        private long remaining = size;
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining == 0) {
+                return -1;
+            }
+            int read = 0;
+            while (len > 0 && remaining > 0) {
+                if (position == pool.chunkSize()) {
+                    chunkIndex++;
+                    position = 0;
+                }
+                int n = (int) Math.min(Math.min(len, pool.chunkSize() - position), remaining);
+                chunks.get(chunkIndex).get(position, b, off, n);
+                position += n;
+                off += n;
+                len -= n;
+                remaining -= n;
+                read += n;
+            }
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of fixed-size direct buffers backing {@link ChunkedBuffer}s, so encoded
+ * photos live off-heap and their memory is reused between requests.
+ * <p>
+ * Chunks are {@code workspace.photos.buffer-chunk-size} bytes. A free chunk is
+ * handed out when available, otherwise a new one is allocated; at most
+ * {@code workspace.photos.buffer-pool-size} bytes of released chunks are kept,
+ * the rest is left to the garbage collector. Total usage is bounded by the
+ * pipeline's concurrency limits rather than by the pool, so a burst never
+ * blocks on buffers.
+ * <p>
+ * Metrics: {@code photo.buffers.in.use} and {@code photo.buffers.pooled}, both in bytes.
+ */
+@Component
+public class DirectBufferPool {
+
+    private final int chunkSize;
+    private final int maxPooledChunks;
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+
+    public DirectBufferPool(PhotoProperties props, MeterRegistry meterRegistry) {
+        this.chunkSize = (int) props.getBufferChunkSize().toBytes();
+        this.maxPooledChunks = (int) (props.getBufferPoolSize().toBytes() / chunkSize);
+
+        Gauge.builder("photo.buffers.in.use", inUse, n -> (double) n.get() * chunkSize)
+                .description("Bytes of pooled direct buffers holding photos being processed")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("photo.buffers.pooled", pooled, n -> (double) n.get() * chunkSize)
+                .description("Bytes of free direct buffers kept for reuse")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /** A new, empty buffer; {@link ChunkedBuffer#release()} must be called when done. */
+    public ChunkedBuffer newBuffer() {
+        return new ChunkedBuffer(this);
+    }
+
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    ByteBuffer acquire() {
+        inUse.incrementAndGet();
+        ByteBuffer chunk = free.poll();
+        if (chunk == null) {
+            return ByteBuffer.allocateDirect(chunkSize);
+        }
+        pooled.decrementAndGet();
+        return chunk.clear();
+    }
+
+    void release(ByteBuffer chunk) {
+        inUse.decrementAndGet();
+        if (pooled.incrementAndGet() <= maxPooledChunks) {
+            free.offer(chunk);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+}
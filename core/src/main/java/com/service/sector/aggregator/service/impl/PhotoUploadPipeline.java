@@ -0,0 +1,273 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.data.entity.PhotoBlob;
+import com.service.sector.aggregator.data.repositories.PhotoBlobRepository;
+import com.service.sector.aggregator.service.external.BlobStore;
+import com.service.sector.aggregator.service.external.ImageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compresses and uploads the photos of one request concurrently, each on its
+ * own virtual thread.
+ * <p>
+ * Storage is content addressed: every upload is hashed (SHA-256 of the
+ * original bytes) first, and a photo whose {@link PhotoBlob} already holds all
+ * configured variants is neither compressed nor uploaded again. New photos are
+ * decoded once and encoded in each configured size
+ * ({@code workspace.photos.variants}), stored under
+ * {@code photos/<sha256>/<variant>.jpg}. References are counted with
+ * {@link #retain} / {@link #release}; unreferenced blobs, including those of
+ * failed requests, are deleted by the image worker's {@code PhotoBlobSweepJob}.
+ * <p>
+ * Photos are streamed: the multipart part (spooled to disk by the servlet
+ * container) is decoded straight from its input stream, the result is encoded
+ * into pooled direct buffers and handed to the {@link BlobStore} from there,
+ * so no photo is held in a heap array. A photo's part is only decoded once it
+ * gets a compression permit.
+ * <p>
+ * Compression is CPU bound and limited to {@code workspace.photos.compress-concurrency}
+ * (default: core count), uploads are limited separately by
+ * {@code workspace.photos.upload-concurrency}; both limits are shared by all
+ * requests. The variants of a photo are uploaded at the same time and
+ * asynchronously: an upload permit is held from the start of an upload until
+ * the store completes it, not by a waiting thread. The buffers are returned to
+ * the pool only once no upload reads them any more. Results keep the order of the input, and the first failure
+ * cancels the photos still in progress.
+ * <p>
+ * Metrics: {@code photo.dedup.lookups{result=hit|miss}} and
+ * {@code photo.dedup.bytes.saved}.
+ */
+@Component
+public class PhotoUploadPipeline {
+
+    private final ImageService imageSrv;
+    private final BlobStore blobStore;
+    private final DirectBufferPool bufferPool;
+    private final PhotoBlobRepository blobRepo;
+    private final List<String> variantNames;
+    private final List<PhotoProperties.Variant> variants;
+    private final String primaryVariant;
+    private final Semaphore compressPermits;
+    private final Semaphore uploadPermits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter dedupHits;
+    private final Counter dedupMisses;
+    private final Counter bytesSaved;
+
+    public PhotoUploadPipeline(ImageService imageSrv, BlobStore blobStore, DirectBufferPool bufferPool,
+                               PhotoBlobRepository blobRepo, PhotoProperties props, MeterRegistry meterRegistry) {
+        this.imageSrv = imageSrv;
+        this.blobStore = blobStore;
+        this.bufferPool = bufferPool;
+        this.blobRepo = blobRepo;
+        this.variantNames = List.copyOf(props.getVariants().keySet());
+        this.variants = List.copyOf(props.getVariants().values());
+        this.primaryVariant = props.primaryVariant();
+        this.compressPermits = new Semaphore(props.effectiveCompressConcurrency());
+        this.uploadPermits = new Semaphore(props.getUploadConcurrency());
+        this.dedupHits = Counter.builder("photo.dedup.lookups").tag("result", "hit")
+                .description("Uploaded photos looked up by content hash")
+                .register(meterRegistry);
+        this.dedupMisses = Counter.builder("photo.dedup.lookups").tag("result", "miss")
+                .description("Uploaded photos looked up by content hash")
+                .register(meterRegistry);
+        this.bytesSaved = Counter.builder("photo.dedup.bytes.saved")
+                .description("Encoded bytes not uploaded because the photo was already stored")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Makes sure every photo is stored. Nothing is referenced yet: the caller
+     * must {@link #retain} the result in the transaction that saves the photos.
+     * Each source is read twice (hash, then compress), so it must hand out a
+     * fresh stream per call, as multipart parts and staged S3 objects do.
+     *
+     * @return the stored photos, in the order of {@code photos}
+     * @throws IOException if any photo could not be read or compressed
+     */
+    public List<StoredPhoto> process(List<? extends InputStreamSource> photos) throws IOException {
+        List<String> hashes = runAll(photos.stream()
+                .map(photo -> (Callable<String>) () -> sha256(photo))
+                .toList());
+
+        Map<String, StoredPhoto> stored = new HashMap<>();
+        for (PhotoBlob blob : blobRepo.findAllById(new HashSet<>(hashes))) {
+            if (blob.getRefCount() > 0 && blob.hasVariants(variantNames)) {
+                stored.put(blob.getSha256(), storedPhoto(blob.getSha256(), blob.getStoredBytes()));
+            }
+        }
+
+        // a photo repeated within the request is only stored once
+        Map<String, InputStreamSource> missing = new LinkedHashMap<>();
+        for (int i = 0; i < photos.size(); i++) {
+            if (stored.containsKey(hashes.get(i))) {
+                dedupHits.increment();
+                bytesSaved.increment(stored.get(hashes.get(i)).storedBytes());
+            } else {
+                dedupMisses.increment();
+                missing.putIfAbsent(hashes.get(i), photos.get(i));
+            }
+        }
+        missing.keySet().forEach(blobRepo::touch);
+
+        runAll(missing.entrySet().stream()
+                .map(e -> (Callable<StoredPhoto>) () -> compressAndUpload(e.getValue(), e.getKey()))
+                .toList())
+                .forEach(photo -> stored.put(photo.sha256(), photo));
+
+        return hashes.stream().map(stored::get).toList();
+    }
+
+    /** Adds a reference per photo, in one batch; call in the transaction that saves them. */
+    public void retain(List<StoredPhoto> photos) {
+        String names = String.join(",", variantNames);
+        blobRepo.retainAll(photos.stream()
+                .map(photo -> PhotoBlob.builder()
+                        .sha256(photo.sha256())
+                        .variants(names)
+                        .storedBytes(photo.storedBytes())
+                        .build())
+                .toList());
+    }
+
+    /** Drops a reference per hash; call in the transaction that deletes the photos. */
+    public void release(List<String> sha256s) {
+        sha256s.forEach(blobRepo::release);
+    }
+
+    /**
+     * Runs the tasks concurrently and returns their results in order; the
+     * first failure cancels the others.
+     */
+    private <T> List<T> runAll(List<Callable<T>> tasks) throws IOException {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        tasks.forEach(task -> futures.add(completion.submit(task)));
+
+        try {
+            // fail fast: the first failed photo cancels the others
+            for (int done = 0; done < futures.size(); done++) {
+                Future<T> finished = completion.take();
+                if (finished.state() == Future.State.FAILED) {
+                    throw finished.exceptionNow();
+                }
+            }
+            return futures.stream().map(Future::resultNow).toList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while processing photos");
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IOException("Failed to process photo", e);
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    private StoredPhoto compressAndUpload(InputStreamSource photo, String sha256) throws IOException, InterruptedException {
+        List<ChunkedBuffer> encoded = variantNames.stream().map(variant -> bufferPool.newBuffer()).toList();
+        List<CompletableFuture<Void>> uploads = new ArrayList<>(encoded.size());
+        try {
+            compressPermits.acquire();
+            try (InputStream original = photo.getInputStream()) {
+                imageSrv.compress(original, variants, encoded);
+            } finally {
+                compressPermits.release();
+            }
+
+            for (int i = 0; i < variantNames.size(); i++) {
+                uploadPermits.acquire();
+                try {
+                    uploads.add(blobStore.put(variantKey(sha256, variantNames.get(i)), encoded.get(i).contents(),
+                                    MediaType.IMAGE_JPEG_VALUE)
+                            .whenComplete((done, e) -> uploadPermits.release()));
+                } catch (RuntimeException e) {
+                    uploadPermits.release();
+                    throw e;
+                }
+            }
+            long storedBytes = encoded.stream().mapToLong(ChunkedBuffer::size).sum();
+            await(CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)));
+            return storedPhoto(sha256, storedBytes);
+        } finally {
+            // also on failure or interruption: uploads already started still read the buffers
+            CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new))
+                    .whenComplete((done, e) -> encoded.forEach(ChunkedBuffer::release));
+        }
+    }
+
+    private static void await(CompletableFuture<?> uploads) throws IOException, InterruptedException {
+        try {
+            uploads.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException c && c.getCause() != null
+                    ? c.getCause() : e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException("Failed to store photo", cause);
+        }
+    }
+
+    private StoredPhoto storedPhoto(String sha256, long storedBytes) {
+        Map<String, String> urls = variantNames.stream().collect(Collectors.toMap(
+                Function.identity(), variant -> blobStore.urlOf(variantKey(sha256, variant)),
+                (a, b) -> a, LinkedHashMap::new));
+        return new StoredPhoto(sha256, urls.get(primaryVariant), urls, storedBytes);
+    }
+
+    /** Storage key of one variant of a blob. */
+    public static String variantKey(String sha256, String variant) {
+        return "photos/" + sha256 + "/" + variant + ".jpg";
+    }
+
+    private static String sha256(InputStreamSource photo) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(photo.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @param sha256      content hash of the uploaded file
+     * @param url         URL of the largest variant
+     * @param variantUrls URL per variant name, in configuration order
+     * @param storedBytes total size of the stored variants
+     */
+    public record StoredPhoto(String sha256, String url, Map<String, String> variantUrls, long storedBytes) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.data.dto.PhotoUploadSlots;
+import com.service.sector.aggregator.service.external.BlobStore;
+import com.service.sector.aggregator.service.external.S3Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
+
+/**
+ * Original photos waiting for their {@code PhotoJobWorker}, staged in the
+ * {@link BlobStore} as they were uploaded.
+ * <p>
+ * Each upload gets a random id; photo {@code i} is the object
+ * {@code uploads/<userId>/<uploadId>/<i>}. Multipart photos are copied there
+ * by {@link #stage}. Direct uploads put them there themselves through
+ * presigned URLs, so the bytes never pass through the application nodes
+ * (this needs the s3 store); once confirmed, {@link #keys} lists them and
+ * checks them against {@code workspace.photos.max-upload-size}. Staged objects
+ * are deleted when their photo is done; those never confirmed are left to a
+ * bucket lifecycle rule expiring {@code uploads/}.
+ * <p>
+ * Copies run through pooled direct buffers and are sent asynchronously; at
+ * most {@code workspace.photos.upload-concurrency} photos per node are in
+ * flight, which bounds the buffer memory a burst of uploads takes.
+ */
+@Component
+public class StagedPhotoUploads {
+
+    private static final Logger log = LoggerFactory.getLogger(StagedPhotoUploads.class);
+
+    private final S3Service s3Srv;
+    private final BlobStore blobStore;
+    private final DirectBufferPool bufferPool;
+    private final PhotoProperties props;
+    private final Semaphore stagePermits;
+
+    public StagedPhotoUploads(S3Service s3Srv, BlobStore blobStore, DirectBufferPool bufferPool,
+                              PhotoProperties props) {
+        this.s3Srv = s3Srv;
+        this.blobStore = blobStore;
+        this.bufferPool = bufferPool;
+        this.props = props;
+        this.stagePermits = new Semaphore(props.getUploadConcurrency());
+    }
+
+    /** Presigned PUT URLs for {@code count} photos of {@code userId}. */
+    public PhotoUploadSlots issue(Long userId, int count) {
+        String uploadId = UUID.randomUUID().toString();
+        List<String> urls = IntStream.range(0, count)
+                .mapToObj(slot -> s3Srv.presignPut(prefix(userId, uploadId) + slot, props.getUploadUrlTtl()))
+                .toList();
+        return new PhotoUploadSlots(uploadId, Instant.now().plus(props.getUploadUrlTtl()), urls);
+    }
+
+    /**
+     * Stages the photos as a new upload of {@code userId}; returns once all
+     * are stored. If one fails, those already stored are discarded.
+     *
+     * @return their keys, in the order of {@code photos}
+     */
+    public List<String> stage(Long userId, List<? extends InputStreamSource> photos) throws IOException {
+        String prefix = prefix(userId, UUID.randomUUID().toString());
+        List<String> keys = IntStream.range(0, photos.size()).mapToObj(slot -> prefix + slot).toList();
+        List<CompletableFuture<Void>> puts = new ArrayList<>(photos.size());
+        try {
+            for (int i = 0; i < photos.size(); i++) {
+                puts.add(stage(keys.get(i), photos.get(i)));
+            }
+            await(CompletableFuture.allOf(puts.toArray(CompletableFuture[]::new)));
+            return keys;
+        } catch (IOException | RuntimeException e) {
+            // once the puts still running have finished, so none lands after the delete
+            CompletableFuture.allOf(puts.toArray(CompletableFuture[]::new))
+                    .whenComplete((done, failure) -> discard(keys));
+            throw e;
+        }
+    }
+
+    /**
+     * Keys of the photos of a confirmed direct upload, in slot order; nothing
+     * is read yet.
+     */
+    public List<String> keys(Long userId, String uploadId) {
+        List<S3Object> staged = list(userId, uploadId);
+        long maxSize = props.getMaxUploadSize().toBytes();
+        if (staged.stream().anyMatch(object -> object.size() > maxSize)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Photo larger than " + props.getMaxUploadSize());
+        }
+        return staged.stream()
+                .sorted(Comparator.comparingInt(StagedPhotoUploads::slotOf))
+                .map(S3Object::key)
+                .toList();
+    }
+
+    /**
+     * Deletes staged objects. Best effort: leftovers expire with the
+     * lifecycle rule.
+     */
+    public void discard(List<String> keys) {
+        try {
+            blobStore.delete(keys);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete {} staged photo(s): {}", keys.size(), e.toString());
+        }
+    }
+
+    /** Copies one photo into a buffer and starts storing it; the buffer and permit go when the put completes. */
+    private CompletableFuture<Void> stage(String key, InputStreamSource photo) throws IOException {
+        try {
+            stagePermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while staging photos");
+        }
+        ChunkedBuffer buffer = bufferPool.newBuffer();
+        try {
+            try (InputStream in = photo.getInputStream()) {
+                in.transferTo(buffer);
+            }
+            return blobStore.put(key, buffer.contents(), MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                    .whenComplete((done, e) -> {
+                        buffer.release();
+                        stagePermits.release();
+                    });
+        } catch (IOException | RuntimeException e) {
+            buffer.release();
+            stagePermits.release();
+            throw e;
+        }
+    }
+
+    private static void await(CompletableFuture<?> puts) throws IOException {
+        try {
+            puts.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while staging photos");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException c && c.getCause() != null
+                    ? c.getCause() : e.getCause();
+            throw new IOException("Failed to stage photo", cause);
+        }
+    }
+
+    private List<S3Object> list(Long userId, String uploadId) {
+        // only ids issued here, so the prefix never reaches outside the user's uploads
+        if (!isUuid(uploadId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+        }
+        return s3Srv.list(prefix(userId, uploadId));
+    }
+
+    private static boolean isUuid(String id) {
+        try {
+            return UUID.fromString(id).toString().equals(id);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String prefix(Long userId, String uploadId) {
+        return "uploads/" + userId + "/" + uploadId + "/";
+    }
+
+    private static int slotOf(S3Object object) {
+        return Integer.parseInt(object.key().substring(object.key().lastIndexOf('/') + 1));
+    }
+}
@@ -0,0 +1,86 @@
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.service.impl.ChunkedBuffer;
+import com.service.sector.aggregator.service.impl.DirectBufferPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DirectBufferPool} and {@link ChunkedBuffer}.
+ */
+class DirectBufferPoolTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DirectBufferPool pool;
+
+    @BeforeEach
+    void setUp() {
+        PhotoProperties props = new PhotoProperties();
+        props.setBufferChunkSize(DataSize.ofBytes(16));
+        props.setBufferPoolSize(DataSize.ofBytes(64));     // keeps 4 free chunks
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new DirectBufferPool(props, meterRegistry);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    @Test
+    void content_roundTripsAcrossChunkBoundaries() throws IOException {
+        byte[] data = new byte[100];
+        new Random(1).nextBytes(data);
+
+        ChunkedBuffer buffer = pool.newBuffer();
+        buffer.write(data[0]);
+        buffer.write(data, 1, 40);
+        buffer.write(data, 41, 59);
+
+        assertEquals(100, buffer.size());
+        assertEquals(7 * 16, gauge("photo.buffers.in.use"));
+        try (InputStream in = buffer.newInputStream()) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+        // every stream starts from the beginning, e.g. for S3 retries
+        try (InputStream in = buffer.newInputStream()) {
+            assertEquals(data[0] & 0xff, in.read());
+            assertEquals(99, in.available());
+        }
+        buffer.release();
+        assertEquals(0, gauge("photo.buffers.in.use"));
+    }
+
+    @Test
+    void emptyBuffer_readsAsEndOfStream() throws IOException {
+        ChunkedBuffer buffer = pool.newBuffer();
+
+        assertEquals(0, buffer.size());
+        assertEquals(-1, buffer.newInputStream().read());
+        buffer.release();
+    }
+
+    @Test
+    void releasedChunks_areReusedUpToPoolSize() {
+        ChunkedBuffer big = pool.newBuffer();
+        big.write(new byte[16 * 6], 0, 16 * 6);
+        big.release();
+        assertEquals(64, gauge("photo.buffers.pooled"), "only 4 of 6 chunks kept");
+
+        ChunkedBuffer next = pool.newBuffer();
+        next.write(new byte[20], 0, 20);
+        assertEquals(32, gauge("photo.buffers.pooled"), "two pooled chunks taken");
+        next.release();
+        next.release();                                  // second release is a no-op
+        assertEquals(64, gauge("photo.buffers.pooled"));
+        assertEquals(0, gauge("photo.buffers.in.use"));
+    }
+}
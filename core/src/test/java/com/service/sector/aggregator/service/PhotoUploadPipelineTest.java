@@ -0,0 +1,297 @@
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.data.entity.PhotoBlob;
+import com.service.sector.aggregator.data.repositories.PhotoBlobRepository;
+import com.service.sector.aggregator.service.external.BlobStore;
+import com.service.sector.aggregator.service.external.ImageService;
+import com.service.sector.aggregator.service.impl.DirectBufferPool;
+import com.service.sector.aggregator.service.impl.PhotoUploadPipeline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PhotoUploadPipeline}.
+ */
+class PhotoUploadPipelineTest {
+
+    private ImageService imageSrv;
+    private BlobStore blobStore;
+    private PhotoBlobRepository blobRepo;
+    private PhotoProperties props;
+    private SimpleMeterRegistry meterRegistry;
+    private DirectBufferPool bufferPool;
+    private PhotoUploadPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        imageSrv = mock(ImageService.class);
+        blobStore = mock(BlobStore.class);
+        blobRepo = mock(PhotoBlobRepository.class);
+        when(blobStore.urlOf(anyString())).thenAnswer(inv -> "url-" + inv.getArgument(0));
+        when(blobStore.put(anyString(), any(ByteBuffer[].class), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        props = new PhotoProperties();
+        props.setCompressConcurrency(2);
+        props.setUploadConcurrency(3);
+        props.setVariants(new LinkedHashMap<>());
+        props.getVariants().put("small", new PhotoProperties.Variant(100, 0.8f));
+        props.getVariants().put("large", new PhotoProperties.Variant(1000, 0.9f));
+        meterRegistry = new SimpleMeterRegistry();
+        bufferPool = new DirectBufferPool(props, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    private PhotoUploadPipeline newPipeline() {
+        return new PhotoUploadPipeline(imageSrv, blobStore, bufferPool, blobRepo, props, meterRegistry);
+    }
+
+    /** Writes the input unchanged into every variant's output. */
+    private static Answer<Void> copyInputToOutputs() {
+        return inv -> {
+            byte[] original = inv.<InputStream>getArgument(0).readAllBytes();
+            for (OutputStream out : inv.<List<OutputStream>>getArgument(2)) {
+                out.write(original);
+            }
+            return null;
+        };
+    }
+
+    private static List<MultipartFile> photos(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> (MultipartFile) new MockMultipartFile("photo" + i, "photo" + i + ".jpg",
+                        "image/jpeg", new byte[]{(byte) i}))
+                .toList();
+    }
+
+    private static String sha256(int content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(new byte[]{(byte) content}));
+    }
+
+    private double counter(String name, String... tags) {
+        return meterRegistry.get(name).tags(tags).counter().count();
+    }
+
+    private double buffersInUse() {
+        return meterRegistry.get("photo.buffers.in.use").gauge().value();
+    }
+
+    private static long remaining(ByteBuffer[] content) {
+        return Arrays.stream(content).mapToLong(ByteBuffer::remaining).sum();
+    }
+
+    @Test
+    void results_keepInputOrder_evenWhenUploadsFinishOutOfOrder() throws Exception {
+        doAnswer(copyInputToOutputs()).when(imageSrv).compress(any(InputStream.class), anyList(), anyList());
+        when(blobStore.put(anyString(), any(ByteBuffer[].class), anyString())).thenAnswer(inv -> {
+            int index = inv.<ByteBuffer[]>getArgument(1)[0].get(0);
+            // first photo finishes last
+            return new CompletableFuture<Void>().completeOnTimeout(null, 10L * (10 - index), TimeUnit.MILLISECONDS);
+        });
+        pipeline = newPipeline();
+
+        List<PhotoUploadPipeline.StoredPhoto> stored = pipeline.process(photos(10));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(sha256(i), stored.get(i).sha256());
+            assertEquals("url-photos/" + sha256(i) + "/large.jpg", stored.get(i).url());
+            assertEquals(2, stored.get(i).storedBytes());
+        }
+        assertEquals(List.of("small", "large"), List.copyOf(stored.get(3).variantUrls().keySet()));
+        assertEquals("url-photos/" + sha256(3) + "/small.jpg", stored.get(3).variantUrls().get("small"));
+        verify(blobStore).put(eq("photos/" + sha256(3) + "/large.jpg"),
+                argThat(content -> remaining(content) == 1), eq("image/jpeg"));
+        verify(blobRepo).touch(sha256(3));
+        assertEquals(10, counter("photo.dedup.lookups", "result", "miss"));
+        assertEquals(0.0, buffersInUse(), "buffers not released");
+    }
+
+    @Test
+    void storedContent_isNeitherCompressedNorUploadedAgain() throws Exception {
+        doAnswer(copyInputToOutputs()).when(imageSrv).compress(any(InputStream.class), anyList(), anyList());
+        when(blobRepo.findAllById(anySet())).thenReturn(List.of(
+                PhotoBlob.builder().sha256(sha256(0)).refCount(2).variants("small,large").storedBytes(700).build(),
+                // stored before "large" was configured: has to be processed again
+                PhotoBlob.builder().sha256(sha256(1)).refCount(1).variants("small").storedBytes(100).build(),
+                // unreferenced, may be swept any moment
+                PhotoBlob.builder().sha256(sha256(2)).refCount(0).variants("small,large").storedBytes(700).build()));
+        pipeline = newPipeline();
+
+        List<PhotoUploadPipeline.StoredPhoto> stored = pipeline.process(photos(3));
+
+        assertEquals("url-photos/" + sha256(0) + "/large.jpg", stored.get(0).url());
+        assertEquals(700, stored.get(0).storedBytes());
+        verify(blobStore, never()).put(startsWith("photos/" + sha256(0)), any(ByteBuffer[].class), anyString());
+        verify(blobRepo, never()).touch(sha256(0));
+        verify(blobRepo).touch(sha256(1));
+        verify(blobRepo).touch(sha256(2));
+        verify(imageSrv, times(2)).compress(any(InputStream.class), anyList(), anyList());
+        assertEquals(1, counter("photo.dedup.lookups", "result", "hit"));
+        assertEquals(2, counter("photo.dedup.lookups", "result", "miss"));
+        assertEquals(700, counter("photo.dedup.bytes.saved"));
+    }
+
+    @Test
+    void samePhotoTwiceInOneRequest_isStoredOnce() throws Exception {
+        doAnswer(copyInputToOutputs()).when(imageSrv).compress(any(InputStream.class), anyList(), anyList());
+        pipeline = newPipeline();
+        List<MultipartFile> photos = List.of(photos(1).getFirst(), photos(1).getFirst());
+
+        List<PhotoUploadPipeline.StoredPhoto> stored = pipeline.process(photos);
+
+        assertEquals(stored.get(0), stored.get(1));
+        verify(imageSrv, times(1)).compress(any(InputStream.class), anyList(), anyList());
+        verify(blobRepo, times(1)).touch(sha256(0));
+    }
+
+    @Test
+    void retainAndRelease_countReferencesPerPhoto() throws Exception {
+        pipeline = newPipeline();
+        PhotoUploadPipeline.StoredPhoto photo =
+                new PhotoUploadPipeline.StoredPhoto(sha256(0), "url", java.util.Map.of(), 42);
+
+        pipeline.retain(List.of(photo, photo));
+        pipeline.release(List.of(sha256(0)));
+
+        verify(blobRepo).retainAll(argThat(blobs -> blobs.size() == 2 && blobs.stream().allMatch(blob ->
+                blob.getSha256().equals(photo.sha256()) && blob.getVariants().equals("small,large")
+                        && blob.getStoredBytes() == 42)));
+        verify(blobRepo).release(sha256(0));
+    }
+
+    @Test
+    void concurrency_isCappedSeparatelyForCompressAndUpload() throws IOException {
+        AtomicInteger compressing = new AtomicInteger();
+        AtomicInteger uploading = new AtomicInteger();
+        AtomicInteger compressPeak = new AtomicInteger();
+        AtomicInteger uploadPeak = new AtomicInteger();
+        doAnswer(inv -> {
+            compressPeak.accumulateAndGet(compressing.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            compressing.decrementAndGet();
+            return copyInputToOutputs().answer(inv);
+        }).when(imageSrv).compress(any(InputStream.class), anyList(), anyList());
+        when(blobStore.put(anyString(), any(ByteBuffer[].class), anyString())).thenAnswer(inv -> {
+            uploadPeak.accumulateAndGet(uploading.incrementAndGet(), Math::max);
+            return CompletableFuture.runAsync(uploading::decrementAndGet,
+                    CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+        });
+        pipeline = newPipeline();
+
+        pipeline.process(photos(12));
+
+        assertTrue(compressPeak.get() <= 2, "compress peak " + compressPeak.get());
+        assertTrue(uploadPeak.get() <= 3, "upload peak " + uploadPeak.get());
+        assertTrue(uploadPeak.get() > 1, "uploads should overlap");
+    }
+
+    @Test
+    void firstFailure_cancelsRemainingPhotos() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        doAnswer(inv -> {
+            if (inv.<InputStream>getArgument(0).read() == 0) {
+                started.await();                    // fail only once another photo is in flight
+                throw new IOException("broken image");
+            }
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return null;
+        }).when(imageSrv).compress(any(InputStream.class), anyList(), anyList());
+        pipeline = newPipeline();
+
+        IOException e = assertThrows(IOException.class, () -> pipeline.process(photos(3)));
+
+        assertEquals("broken image", e.getMessage());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "in-flight photo was not cancelled");
+        verify(blobStore, never()).put(anyString(), any(ByteBuffer[].class), anyString());
+        // nothing is retained, the touched blobs are left to the sweep
+        verify(blobRepo, never()).retainAll(anyList());
+        verify(blobStore, never()).delete(anyList());
+    }
+
+    @Test
+    void failedUpload_failsThePhoto_andReleasesPermitsAndBuffers() throws Exception {
+        doAnswer(copyInputToOutputs()).when(imageSrv).compress(any(InputStream.class), anyList(), anyList());
+        when(blobStore.put(contains("/large"), any(ByteBuffer[].class), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("store unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        props.setUploadConcurrency(2);
+        pipeline = newPipeline();
+
+        IOException e = assertThrows(IOException.class, () -> pipeline.process(photos(1)));
+
+        assertEquals("store unavailable", e.getMessage());
+        assertEquals(0.0, buffersInUse(), "buffers not released");
+        // both upload permits are back, otherwise the next photo would wait forever
+        assertEquals(1, assertTimeoutPreemptively(java.time.Duration.ofSeconds(5),
+                () -> pipeline.process(photos(2).subList(1, 2))).size());
+    }
+
+    @Test
+    void cancelledPhoto_keepsItsBuffersUntilItsUploadsFinish() throws Exception {
+        CompletableFuture<Void> upload = new CompletableFuture<>();
+        CountDownLatch uploadsStarted = new CountDownLatch(2);
+        doAnswer(inv -> {
+            byte[] original = inv.<InputStream>getArgument(0).readAllBytes();
+            if (original[0] == 0) {
+                uploadsStarted.await();             // fail only once the other photo is uploading
+                throw new IOException("broken image");
+            }
+            for (OutputStream out : inv.<List<OutputStream>>getArgument(2)) {
+                out.write(original);
+            }
+            return null;
+        }).when(imageSrv).compress(any(InputStream.class), anyList(), anyList());
+        when(blobStore.put(anyString(), any(ByteBuffer[].class), anyString())).thenAnswer(inv -> {
+            uploadsStarted.countDown();
+            return upload;
+        });
+        pipeline = newPipeline();
+
+        assertThrows(IOException.class, () -> pipeline.process(photos(2)));
+
+        // the store may still be reading them
+        assertTrue(buffersInUse() > 0, "buffers released while uploads were in flight");
+        upload.complete(null);
+        for (int i = 0; i < 100 && buffersInUse() > 0; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(0.0, buffersInUse(), "buffers not released");
+    }
+}
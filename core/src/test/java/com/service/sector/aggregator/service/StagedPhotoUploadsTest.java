@@ -0,0 +1,149 @@
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.data.dto.PhotoUploadSlots;
+import com.service.sector.aggregator.service.external.BlobStore;
+import com.service.sector.aggregator.service.external.S3Service;
+import com.service.sector.aggregator.service.impl.DirectBufferPool;
+import com.service.sector.aggregator.service.impl.StagedPhotoUploads;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link StagedPhotoUploads}.
+ */
+class StagedPhotoUploadsTest {
+
+    private final String uploadId = UUID.randomUUID().toString();
+    private final String prefix = "uploads/7/" + uploadId + "/";
+    private S3Service s3Srv;
+    private BlobStore blobStore;
+    private StagedPhotoUploads uploads;
+
+    @BeforeEach
+    void setUp() {
+        s3Srv = mock(S3Service.class);
+        blobStore = mock(BlobStore.class);
+        PhotoProperties props = new PhotoProperties();
+        props.setUploadUrlTtl(Duration.ofMinutes(5));
+        uploads = new StagedPhotoUploads(s3Srv, blobStore, new DirectBufferPool(props, new SimpleMeterRegistry()),
+                props);
+    }
+
+    private static S3Object object(String key, long size) {
+        return S3Object.builder().key(key).size(size).build();
+    }
+
+    @Test
+    void issue_presignsOneUrlPerSlotUnderTheUsersPrefix() {
+        when(s3Srv.presignPut(anyString(), any())).thenAnswer(inv -> "https://signed/" + inv.getArgument(0));
+
+        PhotoUploadSlots slots = uploads.issue(7L, 3);
+
+        String id = slots.uploadId();
+        assertEquals(id, UUID.fromString(id).toString());
+        assertEquals(List.of("https://signed/uploads/7/" + id + "/0", "https://signed/uploads/7/" + id + "/1",
+                "https://signed/uploads/7/" + id + "/2"), slots.urls());
+        verify(s3Srv, times(3)).presignPut(anyString(), eq(Duration.ofMinutes(5)));
+        assertTrue(slots.expiresAt().isAfter(Instant.now().plusSeconds(290)));
+    }
+
+    @Test
+    void stage_storesEachPhotoUnderANewUpload() throws Exception {
+        Map<String, String> stored = new ConcurrentHashMap<>();
+        when(blobStore.put(anyString(), any(ByteBuffer[].class), anyString())).thenAnswer(inv -> {
+            StringBuilder content = new StringBuilder();
+            for (ByteBuffer buffer : inv.<ByteBuffer[]>getArgument(1)) {
+                content.append(StandardCharsets.UTF_8.decode(buffer.duplicate()));
+            }
+            stored.put(inv.getArgument(0), content.toString());
+            return CompletableFuture.completedFuture(null);
+        });
+
+        List<String> keys = uploads.stage(7L, List.of(resource("first"), resource("second"), resource("third")));
+
+        assertEquals(3, keys.size());
+        assertTrue(keys.getFirst().matches("uploads/7/[0-9a-f-]{36}/0"), keys.getFirst());
+        assertEquals(keys.getFirst().replaceAll("0$", "2"), keys.get(2));
+        assertEquals("second", stored.get(keys.get(1)));
+        verify(blobStore, never()).delete(anyList());
+    }
+
+    @Test
+    void stage_failedPut_discardsThePhotosStoredSoFar() {
+        when(blobStore.put(anyString(), any(ByteBuffer[].class), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("disk full")));
+
+        IOException e = assertThrows(IOException.class,
+                () -> uploads.stage(7L, List.of(resource("first"), resource("second"))));
+
+        assertEquals("disk full", e.getCause().getMessage());
+        verify(blobStore).delete(argThat(keys -> keys.size() == 2));
+    }
+
+    @Test
+    void keys_returnsStagedKeysInSlotOrder() {
+        // S3 lists keys lexicographically
+        when(s3Srv.list(prefix)).thenReturn(List.of(
+                object(prefix + "0", 10), object(prefix + "1", 10), object(prefix + "10", 10), object(prefix + "2", 10)));
+
+        List<String> keys = uploads.keys(7L, uploadId);
+
+        assertEquals(List.of(prefix + "0", prefix + "1", prefix + "2", prefix + "10"), keys);
+        verifyNoInteractions(blobStore);      // nothing is read until processing
+    }
+
+    @Test
+    void keys_rejectsOversizedPhotos() {
+        when(s3Srv.list(prefix)).thenReturn(List.of(object(prefix + "0", 10), object(prefix + "1", 11 * 1024 * 1024)));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> uploads.keys(7L, uploadId));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    @Test
+    void keys_idThatIsNotIssuedHere_isNotFound() {
+        for (String id : List.of("../../photos", "1-1-1-1-1", "")) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> uploads.keys(7L, id));
+            assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+        }
+        verifyNoInteractions(s3Srv);
+    }
+
+    @Test
+    void discard_deletesStagedObjects_andIgnoresStorageErrors() {
+        uploads.discard(List.of(prefix + "0", prefix + "1"));
+        verify(blobStore).delete(List.of(prefix + "0", prefix + "1"));
+
+        doThrow(S3Exception.builder().message("boom").build()).when(blobStore).delete(anyList());
+        assertDoesNotThrow(() -> uploads.discard(List.of(prefix + "0")));
+    }
+
+    private static InputStreamSource resource(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
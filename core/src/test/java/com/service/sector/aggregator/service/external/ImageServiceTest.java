@@ -0,0 +1,298 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ImageService}.
+ */
+class ImageServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ImageService service = new ImageService(new PhotoProperties(), meterRegistry);
+
+    private static ImageService withBudget(int pixels) {
+        PhotoProperties props = new PhotoProperties();
+        props.setDecodePixelBudget(pixels);
+        return new ImageService(props, new SimpleMeterRegistry());
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    /** Random pixels: compresses badly, so quality makes a real difference. */
+    private static BufferedImage noise(int width, int height) {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random rnd = new Random(7);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                img.setRGB(x, y, rnd.nextInt(0xffffff));
+            }
+        }
+        return img;
+    }
+
+    private static byte[] encode(BufferedImage img, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, format, out);
+        return out.toByteArray();
+    }
+
+    /** Inserts a segment right after the JFIF (APP0) segment, which must come first. */
+    private static byte[] withSegment(byte[] jpeg, int marker, byte[] payload) {
+        int at = 4 + (((jpeg[4] & 0xFF) << 8) | (jpeg[5] & 0xFF));
+        byte[] result = new byte[jpeg.length + 4 + payload.length];
+        System.arraycopy(jpeg, 0, result, 0, at);
+        result[at] = (byte) 0xFF;
+        result[at + 1] = (byte) marker;
+        result[at + 2] = (byte) ((payload.length + 2) >> 8);
+        result[at + 3] = (byte) (payload.length + 2);
+        System.arraycopy(payload, 0, result, at + 4, payload.length);
+        System.arraycopy(jpeg, at, result, at + 4 + payload.length, jpeg.length - at);
+        return result;
+    }
+
+    /** APP1 payload with a big-endian EXIF IFD holding only the orientation tag. */
+    private static byte[] exifOrientation(int orientation) {
+        return new byte[]{'E', 'x', 'i', 'f', 0, 0,
+                'M', 'M', 0, 42, 0, 0, 0, 8,                    // TIFF header, IFD at 8
+                0, 1,                                           // one entry
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0};                                    // no next IFD
+    }
+
+    private static BufferedImage read(ByteArrayOutputStream out) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    void compress_writesOneJpegPerVariant_fittingItsMaxSize() throws IOException {
+        List<ByteArrayOutputStream> outs = List.of(new ByteArrayOutputStream(), new ByteArrayOutputStream());
+
+        service.compress(new ByteArrayInputStream(png(800, 400)),
+                List.of(new PhotoProperties.Variant(200, 0.8f), new PhotoProperties.Variant(640, 0.9f)), outs);
+
+        BufferedImage thumb = read(outs.get(0));
+        BufferedImage card = read(outs.get(1));
+        assertEquals(200, thumb.getWidth());
+        assertEquals(100, thumb.getHeight());
+        assertEquals(640, card.getWidth());
+        assertEquals(320, card.getHeight());
+        // JPEG signature
+        assertEquals((byte) 0xFF, outs.get(0).toByteArray()[0]);
+        assertEquals((byte) 0xD8, outs.get(0).toByteArray()[1]);
+    }
+
+    @Test
+    void compress_neverUpscalesSmallPhotos() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.compress(new ByteArrayInputStream(png(120, 90)), List.of(new PhotoProperties.Variant(2000, 0.9f)),
+                List.of(out));
+
+        BufferedImage full = read(out);
+        assertEquals(120, full.getWidth());
+        assertEquals(90, full.getHeight());
+    }
+
+    @Test
+    void compress_subsamplesLargeSources_toAtLeastTheLargestVariant() throws IOException {
+        ByteArrayOutputStream small = new ByteArrayOutputStream();
+        ByteArrayOutputStream large = new ByteArrayOutputStream();
+
+        // 5000 / 2 = 2500 px is decoded, then scaled to 1200
+        service.compress(new ByteArrayInputStream(png(5000, 2500)),
+                List.of(new PhotoProperties.Variant(300, 0.8f), new PhotoProperties.Variant(1200, 0.9f)),
+                List.of(small, large));
+
+        assertEquals(300, read(small).getWidth());
+        assertEquals(1200, read(large).getWidth());
+        assertEquals(600, read(large).getHeight());
+        assertEquals(0.0, meterRegistry.get("photo.decode.pixels.in.use").gauge().value());
+    }
+
+    @Test
+    void compress_photoLargerThanBudget_isDecodedAlone() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        withBudget(1000).compress(new ByteArrayInputStream(png(400, 300)),
+                List.of(new PhotoProperties.Variant(2000, 0.9f)), List.of(out));
+
+        assertEquals(400, read(out).getWidth());
+    }
+
+    @Test
+    void compress_waitsForPixelBudget_andCanBeInterrupted() throws Exception {
+        ImageService limited = withBudget(120_000);
+        byte[] photo = png(400, 300);
+        CountDownLatch decoding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // an output that blocks while the first photo still holds its pixels
+        OutputStream blocking = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                decoding.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> first = executor.submit(() -> {
+                limited.compress(new ByteArrayInputStream(photo), List.of(new PhotoProperties.Variant(2000, 0.9f)),
+                        List.of(blocking));
+                return null;
+            });
+            assertTrue(decoding.await(5, TimeUnit.SECONDS));
+
+            CountDownLatch interrupted = new CountDownLatch(1);
+            Thread second = Thread.ofVirtual().start(() -> {
+                try {
+                    limited.compress(new ByteArrayInputStream(photo), List.of(new PhotoProperties.Variant(2000, 0.9f)),
+                            List.of(new ByteArrayOutputStream()));
+                } catch (InterruptedIOException e) {
+                    interrupted.countDown();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(100);
+            assertTrue(second.isAlive(), "second photo should wait for the budget");
+
+            second.interrupt();
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS), "waiting photo was not interrupted");
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void compress_rejectsUnknownFormats() {
+        InputStream notAnImage = new ByteArrayInputStream(new byte[]{1, 2, 3, 4});
+
+        IOException e = assertThrows(IOException.class, () -> service.compress(notAnImage,
+                List.of(new PhotoProperties.Variant(2000, 0.9f)), List.of(new ByteArrayOutputStream())));
+        assertEquals("Unsupported image format", e.getMessage());
+    }
+
+    @Test
+    void compress_smallJpegWithinBudget_isStoredAsUploadedWithoutMetadata() throws IOException {
+        byte[] original = encode(noise(300, 200), "jpg");
+        byte[] upload = withSegment(withSegment(original, 0xFE, "comment".getBytes()), 0xE1, exifOrientation(1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.compress(new ByteArrayInputStream(upload), List.of(new PhotoProperties.Variant(2000, 0.9f)),
+                List.of(out));
+
+        assertArrayEquals(original, out.toByteArray());
+        assertEquals(1.0, meterRegistry.get("photo.encode.passthrough").counter().count());
+        assertEquals(0, meterRegistry.get("photo.encode.attempts").summary().count());
+    }
+
+    @Test
+    void compress_passthroughForSomeVariants_encodesTheOthers() throws IOException {
+        byte[] original = encode(noise(300, 200), "jpg");
+        List<ByteArrayOutputStream> outs = List.of(new ByteArrayOutputStream(), new ByteArrayOutputStream());
+
+        service.compress(new ByteArrayInputStream(original),
+                List.of(new PhotoProperties.Variant(100, 0.8f), new PhotoProperties.Variant(2000, 0.9f)), outs);
+
+        assertEquals(100, read(outs.get(0)).getWidth());
+        assertArrayEquals(original, outs.get(1).toByteArray());
+    }
+
+    @Test
+    void compress_rotatedJpeg_isReencodedUpright() throws IOException {
+        byte[] upload = withSegment(encode(noise(300, 200), "jpg"), 0xE1, exifOrientation(6));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.compress(new ByteArrayInputStream(upload), List.of(new PhotoProperties.Variant(2000, 0.9f)),
+                List.of(out));
+
+        BufferedImage full = read(out);
+        assertEquals(200, full.getWidth());
+        assertEquals(300, full.getHeight());
+        assertEquals(0.0, meterRegistry.get("photo.encode.passthrough").counter().count());
+    }
+
+    @Test
+    void compress_overByteTarget_lowersQualityUntilItFits() throws IOException {
+        byte[] png = encode(noise(400, 300), "png");
+        ByteArrayOutputStream nominal = new ByteArrayOutputStream();
+        service.compress(new ByteArrayInputStream(png),
+                List.of(new PhotoProperties.Variant(2000, 0.9f, DataSize.ofMegabytes(10))), List.of(nominal));
+        long target = nominal.size() * 2L / 3;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.compress(new ByteArrayInputStream(png),
+                List.of(new PhotoProperties.Variant(2000, 0.9f, DataSize.ofBytes(target))), List.of(out));
+
+        assertTrue(out.size() <= target, out.size() + " > " + target);
+        assertTrue(out.size() > target * 3 / 4, "quality lowered further than needed: " + out.size());
+        assertEquals(400, read(out).getWidth());
+        assertEquals(6.0, meterRegistry.get("photo.encode.attempts").summary().max());
+    }
+
+    @Test
+    void compress_unreachableByteTarget_storesMinimumQuality() throws IOException {
+        byte[] png = encode(noise(400, 300), "png");
+        PhotoProperties.Variant tiny = new PhotoProperties.Variant(2000, 0.9f, DataSize.ofBytes(100));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.compress(new ByteArrayInputStream(png), List.of(tiny), List.of(out));
+
+        assertEquals(400, read(out).getWidth());
+        assertEquals(7.0, meterRegistry.get("photo.encode.attempts").summary().max());
+    }
+
+    @Test
+    void compress_transparentPng_becomesOpaqueJpeg() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.compress(new ByteArrayInputStream(encode(new BufferedImage(50, 40, BufferedImage.TYPE_INT_ARGB), "png")),
+                List.of(new PhotoProperties.Variant(2000, 0.9f)), List.of(out));
+
+        BufferedImage jpeg = read(out);
+        assertFalse(jpeg.getColorModel().hasAlpha());
+        assertEquals(0xFFFFFF, jpeg.getRGB(10, 10) & 0xFFFFFF);
+    }
+
+    @Test
+    void stripMetadata_keepsImageSegments() throws IOException {
+        byte[] original = encode(noise(30, 20), "jpg");
+        byte[] icc = new byte[]{'I', 'C', 'C', '_', 'P', 'R', 'O', 'F', 'I', 'L', 'E', 0, 1, 1};
+
+        byte[] stripped = ImageService.stripMetadata(
+                withSegment(withSegment(original, 0xE2, icc), 0xED, "photoshop".getBytes()));
+
+        assertArrayEquals(withSegment(original, 0xE2, icc), stripped);
+        assertThrows(IOException.class, () -> ImageService.stripMetadata(Arrays.copyOf(original, 8)));
+    }
+}
@@ -0,0 +1,110 @@
+package com.service.sector.aggregator.service.external;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LocalBlobStore}.
+ */
+class LocalBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    private LocalBlobStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalBlobStore(root, null);
+    }
+
+    private static ByteBuffer[] buffers(String... parts) {
+        return Arrays.stream(parts)
+                .map(part -> ByteBuffer.wrap(part.getBytes(StandardCharsets.UTF_8)))
+                .toArray(ByteBuffer[]::new);
+    }
+
+    @Test
+    void put_writesAllBuffersToTheKeysPath() throws Exception {
+        ByteBuffer[] content = buffers("hello ", "", "world");
+
+        store.put("photos/abc/full.jpg", content, "image/jpeg").get();
+
+        assertEquals("hello world", Files.readString(root.resolve("photos/abc/full.jpg")));
+        assertEquals(6, content[0].remaining(), "caller's buffers were consumed");
+        try (var files = Files.list(root.resolve("photos/abc"))) {
+            assertEquals(List.of(root.resolve("photos/abc/full.jpg")), files.toList(), "temporary file left behind");
+        }
+    }
+
+    @Test
+    void put_replacesExistingObject() throws Exception {
+        store.put("a.jpg", buffers("old content"), "image/jpeg").get();
+
+        store.put("a.jpg", buffers("new"), "image/jpeg").get();
+
+        assertEquals("new", Files.readString(root.resolve("a.jpg")));
+    }
+
+    @Test
+    void put_manyConcurrently() throws Exception {
+        List<CompletableFuture<Void>> puts = IntStream.range(0, 50)
+                .mapToObj(i -> store.put("p/" + i + ".jpg", buffers("photo " + i), "image/jpeg"))
+                .toList();
+
+        CompletableFuture.allOf(puts.toArray(CompletableFuture[]::new)).get();
+
+        assertEquals("photo 42", Files.readString(root.resolve("p/42.jpg")));
+    }
+
+    @Test
+    void put_keyOutsideRoot_failsFuture() {
+        CompletableFuture<Void> put = store.put("../escape.jpg", buffers("x"), "image/jpeg");
+
+        ExecutionException e = assertThrows(ExecutionException.class, put::get);
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertFalse(Files.exists(root.resolveSibling("escape.jpg")));
+    }
+
+    @Test
+    void open_streamsStoredObject() throws Exception {
+        store.put("uploads/7/u/0", buffers("original ", "photo"), "application/octet-stream").get();
+
+        try (InputStream in = store.open("uploads/7/u/0")) {
+            assertEquals("original photo", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertThrows(NoSuchFileException.class, () -> store.open("uploads/7/u/1"));
+        assertThrows(IllegalArgumentException.class, () -> store.open("../escape.jpg"));
+    }
+
+    @Test
+    void delete_removesObjects_andIgnoresMissingOnes() throws Exception {
+        store.put("photos/abc/thumb.jpg", buffers("x"), "image/jpeg").get();
+
+        store.delete(List.of("photos/abc/thumb.jpg", "photos/abc/missing.jpg"));
+
+        assertFalse(Files.exists(root.resolve("photos/abc/thumb.jpg")));
+    }
+
+    @Test
+    void urlOf_usesBaseUrl_orFileUri() {
+        assertEquals(root.toUri().toString().replaceAll("/+$", "") + "/photos/a.jpg", store.urlOf("photos/a.jpg"));
+        assertEquals("http://localhost:8080/files/photos/a.jpg",
+                new LocalBlobStore(root, "http://localhost:8080/files/").urlOf("photos/a.jpg"));
+    }
+}
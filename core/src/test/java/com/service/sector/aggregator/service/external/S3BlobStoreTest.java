@@ -0,0 +1,163 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.S3Properties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link S3BlobStore}.
+ */
+class S3BlobStoreTest {
+
+    @Mock
+    private S3AsyncClient s3;
+
+    private S3Properties props;
+
+    private S3BlobStore store;
+
+    private static final String BUCKET = "workplace-photos";
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        props = new S3Properties();
+        store = new S3BlobStore(s3, props);
+        when(s3.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("dummy").build()));
+        when(s3.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+    }
+
+    private static byte[] read(AsyncRequestBody body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.subscribe(buffer -> {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            out.writeBytes(bytes);
+        }).join();
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("put() sends the buffers as one object of their combined length")
+    void put_sendsAllBuffers() throws Exception {
+        ByteBuffer[] content = {
+                ByteBuffer.wrap("hello ".getBytes(StandardCharsets.UTF_8)),
+                ByteBuffer.wrap("world".getBytes(StandardCharsets.UTF_8))};
+
+        store.put("photos/a/full.jpg", content, "image/jpeg").get();
+
+        ArgumentCaptor<PutObjectRequest> reqCap = ArgumentCaptor.forClass(PutObjectRequest.class);
+        ArgumentCaptor<AsyncRequestBody> bodyCap = ArgumentCaptor.forClass(AsyncRequestBody.class);
+        verify(s3).putObject(reqCap.capture(), bodyCap.capture());
+
+        PutObjectRequest req = reqCap.getValue();
+        assertAll(
+                () -> assertEquals(BUCKET, req.bucket()),
+                () -> assertEquals("photos/a/full.jpg", req.key()),
+                () -> assertEquals("image/jpeg", req.contentType()),
+                () -> assertEquals(11L, req.contentLength())
+        );
+        // a retry reads the same bytes again, and the caller's buffers are left as they were
+        assertEquals("hello world", new String(read(bodyCap.getValue()), StandardCharsets.UTF_8));
+        assertEquals("hello world", new String(read(bodyCap.getValue()), StandardCharsets.UTF_8));
+        assertEquals(6, content[0].remaining());
+    }
+
+    @Test
+    @DisplayName("put() completes exceptionally when S3 rejects the upload")
+    void put_s3Exception_failsFuture() {
+        when(s3.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().message("boom").build()));
+
+        CompletableFuture<Void> put = store.put("err.jpg", new ByteBuffer[]{ByteBuffer.allocate(1)}, "image/jpeg");
+
+        ExecutionException e = assertThrows(ExecutionException.class, put::get);
+        assertInstanceOf(S3Exception.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("open() streams the object from the photo bucket")
+    void open_streamsObject() throws Exception {
+        when(s3.getObject(any(GetObjectRequest.class), any(AsyncResponseTransformer.class)))
+                .thenReturn(CompletableFuture.completedFuture(new ResponseInputStream<>(
+                        GetObjectResponse.builder().build(),
+                        AbortableInputStream.create(new ByteArrayInputStream(new byte[]{1, 2})))));
+
+        try (InputStream in = store.open("uploads/7/u/0")) {
+            assertArrayEquals(new byte[]{1, 2}, in.readAllBytes());
+        }
+        verify(s3).getObject(argThat((GetObjectRequest req) -> req.bucket().equals(BUCKET)
+                && req.key().equals("uploads/7/u/0")), any(AsyncResponseTransformer.class));
+    }
+
+    @Test
+    @DisplayName("open() fails with an IOException when the object cannot be fetched")
+    void open_missingObject_ioException() {
+        when(s3.getObject(any(GetObjectRequest.class), any(AsyncResponseTransformer.class)))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().message("gone").build()));
+
+        IOException e = assertThrows(IOException.class, () -> store.open("uploads/7/u/0"));
+        assertInstanceOf(NoSuchKeyException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("delete() splits more than 1000 keys into several quiet requests")
+    void delete_chunksLargeBatches() {
+        List<String> keys = IntStream.range(0, 2500).mapToObj(i -> i + ".jpg").toList();
+
+        store.delete(keys);
+
+        ArgumentCaptor<DeleteObjectsRequest> reqCap = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3, times(3)).deleteObjects(reqCap.capture());
+        assertEquals(List.of(1000, 1000, 500),
+                reqCap.getAllValues().stream().map(req -> req.delete().objects().size()).toList());
+        assertTrue(reqCap.getAllValues().stream().allMatch(req -> req.bucket().equals(BUCKET) && req.delete().quiet()));
+    }
+
+    @Test
+    @DisplayName("delete() propagates S3 exceptions unwrapped")
+    void delete_s3Exception_propagated() {
+        when(s3.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().message("boom").build()));
+
+        assertThrows(S3Exception.class, () -> store.delete(List.of("err.jpg")));
+    }
+
+    @Test
+    @DisplayName("urlOf() points at the regional bucket, or at a configured endpoint")
+    void urlOf_regionalOrEndpoint() {
+        assertEquals("https://" + BUCKET + ".s3.eu-north-1.amazonaws.com/photos/a.jpg", store.urlOf("photos/a.jpg"));
+
+        props.setEndpoint(URI.create("http://localhost:9000/"));
+
+        assertEquals("http://localhost:9000/" + BUCKET + "/photos/a.jpg", store.urlOf("photos/a.jpg"));
+    }
+}
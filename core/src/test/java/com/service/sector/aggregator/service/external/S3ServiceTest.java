@@ -0,0 +1,88 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.S3Properties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link S3Service}.
+ */
+class S3ServiceTest {
+
+    @Mock
+    private S3Client s3;
+
+    private S3Properties props;
+
+    private S3Service service;
+
+    private static final String BUCKET = "workplace-photos";
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        props = new S3Properties();
+        service = new S3Service(s3, mock(S3Presigner.class), props);
+    }
+
+    @Test
+    @DisplayName("list() returns every object under the prefix across pages")
+    void list_followsPages() {
+        when(s3.listObjectsV2Paginator(any(ListObjectsV2Request.class)))
+                .thenAnswer(inv -> new ListObjectsV2Iterable(s3, inv.getArgument(0)));
+        when(s3.listObjectsV2(any(ListObjectsV2Request.class))).thenReturn(
+                ListObjectsV2Response.builder().isTruncated(true).nextContinuationToken("t")
+                        .contents(S3Object.builder().key("u/0").size(10L).build()).build(),
+                ListObjectsV2Response.builder().isTruncated(false)
+                        .contents(S3Object.builder().key("u/1").size(20L).build()).build());
+
+        List<S3Object> objects = service.list("u/");
+
+        assertEquals(List.of("u/0", "u/1"), objects.stream().map(S3Object::key).toList());
+        ArgumentCaptor<ListObjectsV2Request> reqCap = ArgumentCaptor.forClass(ListObjectsV2Request.class);
+        verify(s3, times(2)).listObjectsV2(reqCap.capture());
+        assertEquals("u/", reqCap.getAllValues().getFirst().prefix());
+        assertEquals("t", reqCap.getAllValues().get(1).continuationToken());
+    }
+
+    @Test
+    @DisplayName("presignPut() addresses a local S3-compatible endpoint")
+    void presignPut_localEndpoint() {
+        props.setEndpoint(URI.create("http://localhost:9000/"));
+        props.setPathStyleAccess(true);
+        S3Presigner presigner = S3Presigner.builder()
+                .region(Region.EU_NORTH_1)
+                .endpointOverride(props.getEndpoint())
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("key", "secret")))
+                .build();
+        service = new S3Service(s3, presigner, props);
+
+        String url = service.presignPut("uploads/1/abc/0", Duration.ofMinutes(15));
+
+        assertTrue(url.startsWith("http://localhost:9000/" + BUCKET + "/uploads/1/abc/0?"), url);
+        assertTrue(url.contains("X-Amz-Expires=900"), url);
+        assertTrue(url.contains("X-Amz-Signature="), url);
+        verifyNoInteractions(s3);
+    }
+}
@@ -0,0 +1,17 @@
+package com.service.sector.aggregator;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Processes the queued workspace photos, apart from the web nodes: no API,
+ * only the photo jobs, the blob sweep and the actuator endpoints.
+ */
+@SpringBootApplication
+public class ImageWorkerApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ImageWorkerApplication.class, args);
+	}
+
+}
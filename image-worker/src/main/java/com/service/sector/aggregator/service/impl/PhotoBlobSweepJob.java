@@ -0,0 +1,88 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.data.entity.PhotoBlob;
+import com.service.sector.aggregator.data.repositories.PhotoBlobRepository;
+import com.service.sector.aggregator.service.external.BlobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Deletes photo blobs that have been unreferenced for longer than
+ * {@code workspace.photos.blob-grace-period}: blobs of deleted workspaces and
+ * of uploads whose request failed.
+ * <p>
+ * Each batch of {@code workspace.photos.blob-sweep-batch-size} blobs is handled
+ * in one transaction: the rows are locked ({@code SKIP LOCKED}, so nodes
+ * share the work), their stored objects deleted, then the rows. An upload of the
+ * same content that starts meanwhile waits on the row lock in
+ * {@link PhotoBlobRepository#touch} and so re-uploads after the delete, never
+ * before it.
+ * <p>
+ * Metric: {@code photo.blob.swept}.
+ */
+@Component
+public class PhotoBlobSweepJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoBlobSweepJob.class);
+
+    private final PhotoBlobRepository blobRepo;
+    private final BlobStore blobStore;
+    private final TransactionTemplate tx;
+    private final PhotoProperties props;
+    private final Counter swept;
+
+    public PhotoBlobSweepJob(PhotoBlobRepository blobRepo, BlobStore blobStore, TransactionTemplate tx,
+                             PhotoProperties props, MeterRegistry meterRegistry) {
+        this.blobRepo = blobRepo;
+        this.blobStore = blobStore;
+        this.tx = tx;
+        this.props = props;
+        this.swept = Counter.builder("photo.blob.swept")
+                .description("Unreferenced photo blobs deleted from the store")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${workspace.photos.blob-sweep-interval:10m}",
+               initialDelayString = "${workspace.photos.blob-sweep-interval:10m}")
+    public void sweep() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(props.getBlobGracePeriod());
+        int total = 0;
+        int deleted;
+        do {
+            Integer batch = tx.execute(status -> sweepBatch(cutoff));
+            deleted = batch == null ? 0 : batch;
+            total += deleted;
+        } while (deleted == props.getBlobSweepBatchSize());
+        if (total > 0) {
+            log.info("Deleted {} unreferenced photo blob(s)", total);
+        }
+    }
+
+    private int sweepBatch(OffsetDateTime cutoff) {
+        List<PhotoBlob> blobs = blobRepo.lockUnreferenced(cutoff, props.getBlobSweepBatchSize());
+        if (blobs.isEmpty()) {
+            return 0;
+        }
+        // an interrupted upload may have stored variants that were never recorded on the row
+        Set<String> configured = props.getVariants().keySet();
+        blobStore.delete(blobs.stream()
+                .flatMap(blob -> Stream.concat(blob.variantNames().stream(), configured.stream())
+                        .distinct()
+                        .map(variant -> PhotoUploadPipeline.variantKey(blob.getSha256(), variant)))
+                .toList());
+        blobRepo.deleteAllInBatch(blobs);
+        swept.increment(blobs.size());
+        return blobs.size();
+    }
+}
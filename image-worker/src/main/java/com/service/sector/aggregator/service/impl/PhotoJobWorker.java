@@ -0,0 +1,221 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.data.entity.PhotoJob;
+import com.service.sector.aggregator.data.entity.WorkspacePhoto;
+import com.service.sector.aggregator.data.enums.PhotoStatus;
+import com.service.sector.aggregator.data.repositories.PhotoJobRepository;
+import com.service.sector.aggregator.service.external.BlobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Compresses and stores the photos saved {@link PhotoStatus#PROCESSING}, on
+ * the image-worker nodes, so web requests only stage the originals and never
+ * share a JVM with the image work.
+ * <p>
+ * Each poll claims as many due {@link PhotoJob}s as this node has free slots
+ * ({@code workspace.photos.job-concurrency}) in one short transaction: the
+ * rows are locked with {@code SKIP LOCKED}, so nodes never claim the same
+ * job, and leased for {@code workspace.photos.job-lease}, so the jobs of a
+ * node that dies are picked up again. Each job then runs on its own virtual
+ * thread through the {@link PhotoUploadPipeline}, without a transaction.
+ * <p>
+ * On success the photo is marked {@link PhotoStatus#READY} with its URLs,
+ * its blob referenced and the job deleted, in one transaction that locks the
+ * job first: a workspace deleted meanwhile has taken the lock and removed
+ * the job, and the result is dropped. A failed attempt is retried after
+ * {@code workspace.photos.job-retry-backoff}, doubled per attempt up to
+ * {@code job-max-retry-backoff}; after {@code job-max-attempts} the photo is
+ * marked {@link PhotoStatus#FAILED}. Either way the staged original is
+ * deleted once its job is gone.
+ * <p>
+ * Metrics: {@code photo.jobs.in.flight}, {@code photo.jobs.queued} (all jobs
+ * not done yet, the signal to scale workers on),
+ * {@code photo.jobs.completed{outcome=ready|retry|failed}} and {@code photo.job.duration}.
+ */
+@Component
+public class PhotoJobWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoJobWorker.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final PhotoJobRepository jobRepo;
+    private final PhotoUploadPipeline photoPipeline;
+    private final BlobStore blobStore;
+    private final StagedPhotoUploads stagedUploads;
+    private final TransactionTemplate tx;
+    private final PhotoProperties props;
+    private final Semaphore slots;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter ready;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer duration;
+
+    public PhotoJobWorker(PhotoJobRepository jobRepo, PhotoUploadPipeline photoPipeline, BlobStore blobStore,
+                          StagedPhotoUploads stagedUploads, TransactionTemplate tx, PhotoProperties props,
+                          MeterRegistry meterRegistry) {
+        this.jobRepo = jobRepo;
+        this.photoPipeline = photoPipeline;
+        this.blobStore = blobStore;
+        this.stagedUploads = stagedUploads;
+        this.tx = tx;
+        this.props = props;
+        this.slots = new Semaphore(props.getJobConcurrency());
+        Gauge.builder("photo.jobs.in.flight", slots, s -> props.getJobConcurrency() - s.availablePermits())
+                .description("Photo jobs this node is processing")
+                .register(meterRegistry);
+        Gauge.builder("photo.jobs.queued", jobRepo, PhotoJobRepository::count)
+                .description("Photo jobs waiting or running on any node")
+                .register(meterRegistry);
+        this.ready = completed(meterRegistry, "ready");
+        this.retried = completed(meterRegistry, "retry");
+        this.failed = completed(meterRegistry, "failed");
+        this.duration = Timer.builder("photo.job.duration")
+                .description("Time one attempt of a photo job takes, from claim to result")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Claims due jobs up to the free slots and starts them; returns how many were started. */
+    @Scheduled(fixedDelayString = "${workspace.photos.job-poll-interval:1s}")
+    public int poll() {
+        int free = slots.drainPermits();
+        List<Claim> claimed = List.of();
+        try {
+            if (free > 0) {
+                List<Claim> due = tx.execute(status -> claim(free));
+                claimed = due == null ? List.of() : due;
+            }
+        } finally {
+            slots.release(free - claimed.size());
+        }
+        for (Claim job : claimed) {
+            executor.execute(() -> {
+                try {
+                    run(job);
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+        return claimed.size();
+    }
+
+    private List<Claim> claim(int limit) {
+        OffsetDateTime leaseEnd = OffsetDateTime.now().plus(props.getJobLease());
+        return jobRepo.lockDue(limit).stream()
+                .map(job -> {
+                    job.setAttempts(job.getAttempts() + 1);
+                    job.setLockedUntil(leaseEnd);
+                    return new Claim(job.getId(), job.getSourceKey());
+                })
+                .toList();
+    }
+
+    /** One attempt of a claimed job. */
+    private void run(Claim job) {
+        Timer.Sample sample = Timer.start();
+        try {
+            InputStreamSource original = () -> blobStore.open(job.sourceKey());
+            PhotoUploadPipeline.StoredPhoto stored = photoPipeline.process(List.of(original)).getFirst();
+            complete(job, stored);
+        } catch (Exception e) {
+            fail(job, e);
+        } finally {
+            sample.stop(duration);
+        }
+    }
+
+    private void complete(Claim claim, PhotoUploadPipeline.StoredPhoto stored) {
+        boolean saved = Boolean.TRUE.equals(tx.execute(status -> jobRepo.lockById(claim.jobId())
+                .map(job -> {
+                    WorkspacePhoto photo = job.getPhoto();
+                    photo.setBlobSha256(stored.sha256());
+                    photo.setFilePath(stored.url());
+                    photo.getVariants().putAll(stored.variantUrls());
+                    photo.setStatus(PhotoStatus.READY);
+                    photoPipeline.retain(List.of(stored));
+                    jobRepo.delete(job);
+                    return true;
+                })
+                .orElse(false)));
+        if (saved) {
+            ready.increment();
+        } else {
+            // its workspace was deleted; the unreferenced blob is swept
+            log.debug("Photo job {} is gone, result dropped", claim.jobId());
+        }
+        stagedUploads.discard(List.of(claim.sourceKey()));
+    }
+
+    private void fail(Claim claim, Exception error) {
+        String message = abbreviate(error.toString());
+        Boolean gaveUp = tx.execute(status -> jobRepo.lockById(claim.jobId())
+                .map(job -> {
+                    job.setLastError(message);
+                    if (job.getAttempts() >= props.getJobMaxAttempts()) {
+                        job.getPhoto().setStatus(PhotoStatus.FAILED);
+                        jobRepo.delete(job);
+                        return true;
+                    }
+                    job.setRunAt(OffsetDateTime.now().plus(backoff(job.getAttempts())));
+                    job.setLockedUntil(null);
+                    return false;
+                })
+                .orElse(null));
+        if (gaveUp == null || gaveUp) {
+            if (gaveUp != null) {
+                failed.increment();
+                log.error("Photo job {} failed for good: {}", claim.jobId(), message, error);
+            }
+            stagedUploads.discard(List.of(claim.sourceKey()));
+        } else {
+            retried.increment();
+            log.warn("Photo job {} failed, will retry: {}", claim.jobId(), message);
+        }
+    }
+
+    /** Delay before the attempt following attempt {@code attempts}. */
+    private Duration backoff(int attempts) {
+        Duration delay = props.getJobRetryBackoff().multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return delay.compareTo(props.getJobMaxRetryBackoff()) > 0 ? props.getJobMaxRetryBackoff() : delay;
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH - 1) + "…";
+    }
+
+    private static Counter completed(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("photo.jobs.completed")
+                .description("Photo job attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /** A job claimed by this node. */
+    private record Claim(Long jobId, String sourceKey) {
+    }
+}
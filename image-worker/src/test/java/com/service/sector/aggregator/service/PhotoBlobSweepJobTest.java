@@ -0,0 +1,94 @@
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.data.entity.PhotoBlob;
+import com.service.sector.aggregator.data.repositories.PhotoBlobRepository;
+import com.service.sector.aggregator.service.external.BlobStore;
+import com.service.sector.aggregator.service.impl.PhotoBlobSweepJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PhotoBlobSweepJob}.
+ */
+class PhotoBlobSweepJobTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PhotoBlobRepository blobRepo;
+    private BlobStore blobStore;
+    private PhotoBlobSweepJob job;
+
+    @BeforeEach
+    void setUp() {
+        blobRepo = mock(PhotoBlobRepository.class);
+        blobStore = mock(BlobStore.class);
+        PhotoProperties props = new PhotoProperties();
+        props.setBlobSweepBatchSize(2);
+        props.setBlobGracePeriod(Duration.ofHours(1));
+        props.setVariants(new LinkedHashMap<>());
+        props.getVariants().put("small", new PhotoProperties.Variant(100, 0.8f));
+        props.getVariants().put("large", new PhotoProperties.Variant(1000, 0.9f));
+        job = new PhotoBlobSweepJob(blobRepo, blobStore, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                props, meterRegistry);
+    }
+
+    private static List<PhotoBlob> blobs(int count, String variants) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> PhotoBlob.builder().sha256("blob" + i).variants(variants).build())
+                .toList();
+    }
+
+    @Test
+    void sweep_deletesObjectsAndRowsInBatchesUntilShortBatch() {
+        List<PhotoBlob> full = blobs(2, "small,large");
+        List<PhotoBlob> last = List.of(PhotoBlob.builder().sha256("blob9").variants("small,medium").build());
+        when(blobRepo.lockUnreferenced(any(), eq(2))).thenReturn(full, last);
+
+        job.sweep();
+
+        verify(blobRepo, times(2)).lockUnreferenced(argThat(cutoff ->
+                cutoff.isBefore(OffsetDateTime.now().minusMinutes(59))), eq(2));
+        verify(blobStore).delete(List.of(
+                "photos/blob0/small.jpg", "photos/blob0/large.jpg",
+                "photos/blob1/small.jpg", "photos/blob1/large.jpg"));
+        // recorded variants that are no longer configured are deleted too
+        verify(blobStore).delete(List.of(
+                "photos/blob9/small.jpg", "photos/blob9/medium.jpg", "photos/blob9/large.jpg"));
+        verify(blobRepo).deleteAllInBatch(full);
+        verify(blobRepo).deleteAllInBatch(last);
+        assertEquals(3.0, meterRegistry.get("photo.blob.swept").counter().count());
+    }
+
+    @Test
+    void sweep_unrecordedUpload_deletesConfiguredVariants() {
+        when(blobRepo.lockUnreferenced(any(), anyInt())).thenReturn(blobs(1, null));
+
+        job.sweep();
+
+        verify(blobStore).delete(List.of("photos/blob0/small.jpg", "photos/blob0/large.jpg"));
+    }
+
+    @Test
+    void sweep_nothingUnreferenced_touchesNothing() {
+        when(blobRepo.lockUnreferenced(any(), anyInt())).thenReturn(List.of());
+
+        job.sweep();
+
+        verifyNoInteractions(blobStore);
+        verify(blobRepo, never()).deleteAllInBatch(anyIterable());
+        assertEquals(0.0, meterRegistry.get("photo.blob.swept").counter().count());
+    }
+}
@@ -0,0 +1,203 @@
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.data.entity.PhotoJob;
+import com.service.sector.aggregator.data.entity.WorkspacePhoto;
+import com.service.sector.aggregator.data.enums.PhotoStatus;
+import com.service.sector.aggregator.data.repositories.PhotoJobRepository;
+import com.service.sector.aggregator.service.external.BlobStore;
+import com.service.sector.aggregator.service.impl.PhotoJobWorker;
+import com.service.sector.aggregator.service.impl.PhotoUploadPipeline;
+import com.service.sector.aggregator.service.impl.StagedPhotoUploads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PhotoJobWorker}.
+ */
+class PhotoJobWorkerTest {
+
+    private static final String SOURCE = "uploads/7/u/0";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PhotoJobRepository jobRepo;
+    private PhotoUploadPipeline photoPipeline;
+    private BlobStore blobStore;
+    private StagedPhotoUploads stagedUploads;
+    private PhotoProperties props;
+    private PhotoJobWorker worker;
+
+    private final PhotoUploadPipeline.StoredPhoto stored = new PhotoUploadPipeline.StoredPhoto("a".repeat(64),
+            "https://s3.example.com/full.jpg",
+            Map.of("thumb", "https://s3.example.com/thumb.jpg", "full", "https://s3.example.com/full.jpg"), 300);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jobRepo = mock(PhotoJobRepository.class);
+        photoPipeline = mock(PhotoUploadPipeline.class);
+        blobStore = mock(BlobStore.class);
+        stagedUploads = mock(StagedPhotoUploads.class);
+        props = new PhotoProperties();
+        props.setJobConcurrency(2);
+        when(blobStore.open(SOURCE)).thenAnswer(inv -> new ByteArrayInputStream(new byte[]{1, 2, 3}));
+        worker = new PhotoJobWorker(jobRepo, photoPipeline, blobStore, stagedUploads,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), props, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    private PhotoJob job(int attempts) {
+        WorkspacePhoto photo = WorkspacePhoto.builder().id(10L).status(PhotoStatus.PROCESSING).build();
+        PhotoJob job = PhotoJob.builder().id(1L).photo(photo).sourceKey(SOURCE).attempts(attempts).build();
+        when(jobRepo.lockDue(anyInt())).thenReturn(List.of(job), List.of());
+        when(jobRepo.lockById(1L)).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    /** Waits until every job started by {@code poll()} has finished. */
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get("photo.jobs.in.flight").gauge().value() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, meterRegistry.get("photo.jobs.in.flight").gauge().value());
+    }
+
+    private double completed(String outcome) {
+        return meterRegistry.get("photo.jobs.completed").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void poll_processesTheStagedOriginal_andMarksThePhotoReady() throws Exception {
+        PhotoJob job = job(0);
+        when(photoPipeline.process(anyList())).thenAnswer(inv -> {
+            InputStreamSource original = inv.<List<InputStreamSource>>getArgument(0).getFirst();
+            try (InputStream in = original.getInputStream()) {
+                assertArrayEquals(new byte[]{1, 2, 3}, in.readAllBytes());
+            }
+            return List.of(stored);
+        });
+
+        assertEquals(1, worker.poll());
+        awaitIdle();
+
+        // claimed with a lease
+        verify(jobRepo).lockDue(2);
+        assertEquals(1, job.getAttempts());
+        assertTrue(job.getLockedUntil().isAfter(OffsetDateTime.now().plusMinutes(4)));
+
+        WorkspacePhoto photo = job.getPhoto();
+        assertEquals(PhotoStatus.READY, photo.getStatus());
+        assertEquals("a".repeat(64), photo.getBlobSha256());
+        assertEquals("https://s3.example.com/full.jpg", photo.getFilePath());
+        assertEquals(stored.variantUrls(), photo.getVariants());
+        verify(photoPipeline).retain(List.of(stored));
+        verify(jobRepo).delete(job);
+        verify(stagedUploads).discard(List.of(SOURCE));
+        assertEquals(1, completed("ready"));
+    }
+
+    @Test
+    void poll_failedAttempt_isRetriedAfterBackoff() throws Exception {
+        PhotoJob job = job(2);
+        when(photoPipeline.process(anyList())).thenThrow(new IOException("Malformed JPEG"));
+
+        worker.poll();
+        awaitIdle();
+
+        // third attempt failed: 10s doubled twice
+        assertEquals(3, job.getAttempts());
+        assertTrue(job.getRunAt().isAfter(OffsetDateTime.now().plusSeconds(35)), job.getRunAt().toString());
+        assertTrue(job.getRunAt().isBefore(OffsetDateTime.now().plusSeconds(41)), job.getRunAt().toString());
+        assertNull(job.getLockedUntil());
+        assertTrue(job.getLastError().contains("Malformed JPEG"), job.getLastError());
+        assertEquals(PhotoStatus.PROCESSING, job.getPhoto().getStatus());
+        verify(jobRepo, never()).delete(any());
+        verify(photoPipeline, never()).retain(anyList());
+        verifyNoInteractions(stagedUploads);
+        assertEquals(1, completed("retry"));
+    }
+
+    @Test
+    void poll_backoffIsCappedAtTheMaximum() throws Exception {
+        props.setJobMaxAttempts(100);
+        PhotoJob job = job(30);
+        when(photoPipeline.process(anyList())).thenThrow(new IOException("Store unavailable"));
+
+        worker.poll();
+        awaitIdle();
+
+        assertTrue(job.getRunAt().isBefore(OffsetDateTime.now().plusMinutes(10).plusSeconds(1)));
+        assertTrue(job.getRunAt().isAfter(OffsetDateTime.now().plusMinutes(9)));
+    }
+
+    @Test
+    void poll_lastAttemptFails_marksThePhotoFailed() throws Exception {
+        PhotoJob job = job(4);
+        when(photoPipeline.process(anyList())).thenThrow(new IOException("Unsupported image format"));
+
+        worker.poll();
+        awaitIdle();
+
+        assertEquals(PhotoStatus.FAILED, job.getPhoto().getStatus());
+        verify(jobRepo).delete(job);
+        verify(stagedUploads).discard(List.of(SOURCE));
+        assertEquals(1, completed("failed"));
+    }
+
+    @Test
+    void poll_jobDeletedMeanwhile_dropsTheResult() throws Exception {
+        PhotoJob job = job(0);
+        when(jobRepo.lockById(1L)).thenReturn(Optional.empty());
+        when(photoPipeline.process(anyList())).thenReturn(List.of(stored));
+
+        worker.poll();
+        awaitIdle();
+
+        assertEquals(PhotoStatus.PROCESSING, job.getPhoto().getStatus());
+        verify(photoPipeline, never()).retain(anyList());
+        verify(jobRepo, never()).delete(any());
+        // the blob stays unreferenced and is swept; the original is not needed any more
+        verify(stagedUploads).discard(List.of(SOURCE));
+        assertEquals(0, completed("ready"));
+    }
+
+    @Test
+    void poll_claimsOnlyUpToTheFreeSlots() throws Exception {
+        props.setJobConcurrency(0);
+        worker = new PhotoJobWorker(jobRepo, photoPipeline, blobStore, stagedUploads,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), props, new SimpleMeterRegistry());
+
+        assertEquals(0, worker.poll());
+
+        verify(jobRepo, never()).lockDue(anyInt());
+    }
+
+    @Test
+    void queuedJobs_areReportedForScaling() {
+        when(jobRepo.count()).thenReturn(12L);
+
+        assertEquals(12, meterRegistry.get("photo.jobs.queued").gauge().value());
+    }
+}
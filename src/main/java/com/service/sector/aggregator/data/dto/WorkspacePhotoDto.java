@@ -1,6 +0,0 @@
-package com.service.sector.aggregator.data.dto;
-
-public record WorkspacePhotoDto(
-        Long id, String url, short order
-) {
-}
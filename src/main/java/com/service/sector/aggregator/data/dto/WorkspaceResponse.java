@@ -1,5 +0,0 @@
-package com.service.sector.aggregator.data.dto;
-
-import java.util.List;
-
-public record WorkspaceResponse(Long id, String name, String city, List<String> photoUrls) {}
\ No newline at end of file
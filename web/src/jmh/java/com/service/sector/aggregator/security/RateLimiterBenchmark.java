@@ -0,0 +1,71 @@
+package com.service.sector.aggregator.security;
+
+import com.service.sector.aggregator.config.RateLimitProperties;
+import com.service.sector.aggregator.exceptions.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link RateLimiter#check} on the auth path, with 4 threads:
+ * <ul>
+ *     <li>{@code allowed} - many distinct clients, every request passes;</li>
+ *     <li>{@code rejected} - one client flooding, almost every request gets 429
+ *     (all threads CAS the same bucket).</li>
+ * </ul>
+ * Run with {@code ./gradlew jmh -PjmhInclude=RateLimiterBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter generous;
+    private RateLimiter strict;
+    private String[] phones;
+    private String[] ips;
+
+    @Setup
+    public void setUp() {
+        generous = limiter(new RateLimitProperties.Bucket(1_000_000, Duration.ofMillis(1)));
+        strict = limiter(new RateLimitProperties.Bucket(1, Duration.ofHours(1)));
+        phones = new String[CLIENTS];
+        ips = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            phones[i] = "+1555" + (1_000_000 + i);
+            ips[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    private static RateLimiter limiter(RateLimitProperties.Bucket bucket) {
+        RateLimitProperties props = new RateLimitProperties();
+        props.setEndpoints(Map.of(RateLimiter.LOGIN, new RateLimitProperties.Endpoint(bucket, bucket)));
+        return new RateLimiter(props, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void allowed() {
+        int i = ThreadLocalRandom.current().nextInt(CLIENTS);
+        generous.check(RateLimiter.LOGIN, phones[i], ips[i]);
+    }
+
+    @Benchmark
+    public Object rejected() {
+        try {
+            strict.check(RateLimiter.LOGIN, phones[0], ips[0]);
+            return null;
+        } catch (RateLimitExceededException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.service.sector.aggregator.security;
+
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.data.repositories.RevokedTokenRepository;
+import com.service.sector.aggregator.data.repositories.UserTokenRevocationRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link TokenRevocationList#isRevoked} for a token that is not
+ * revoked (the common case) while 100k other tokens and 10k users are, and
+ * for a revoked one. Repositories are no-op proxies, so nothing but the
+ * in-memory check is measured.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhInclude=TokenRevocationBenchmark};
+ * {@code gc.alloc.rate.norm} should be ~0 for {@code notRevoked}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenRevocationBenchmark {
+
+    private TokenRevocationList revocations;
+    private AuthenticatedUser valid;
+    private AuthenticatedUser revoked;
+
+    @Setup
+    public void setUp() {
+        revocations = new TokenRevocationList(noop(RevokedTokenRepository.class),
+                noop(UserTokenRevocationRepository.class), new JwtProperties(), new SimpleMeterRegistry());
+        for (int i = 0; i < 100_000; i++) {
+            revocations.revoke((long) i, claims(UUID.randomUUID().toString(), i));
+        }
+        for (long user = 100_000; user < 110_000; user++) {
+            revocations.revokeAll(user);
+        }
+        valid = new AuthenticatedUser(42L, claims(UUID.randomUUID().toString(), 42));
+        revoked = new AuthenticatedUser(43L, claims(UUID.randomUUID().toString(), 43));
+        revocations.revoke(43L, revoked.claims());
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return revocations.isRevoked(valid);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return revocations.isRevoked(revoked);
+    }
+
+    private static Claims claims(String jti, long userId) {
+        Instant now = Instant.now();
+        return Jwts.claims()
+                .id(jti)
+                .subject(Long.toString(userId))
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(72, ChronoUnit.HOURS)))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T noop(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Class<?> returns = method.getReturnType();
+            if (returns == List.class) {
+                return List.of();
+            }
+            return returns == int.class ? 0 : null;
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.data.entity.AppUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign / verify throughput of {@link JwtService} compared with the previous
+ * implementation that decoded the secret and built a parser on every call.
+ * <p>
+ * Run with {@code ./gradlew jmh}; the GC profiler is enabled in
+ * {@code build.gradle}, so {@code gc.alloc.rate.norm} shows bytes per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private JwtProperties props;
+    private JwtService jwtService;
+    private AppUser user;
+    private String bearer;
+
+    @Setup
+    public void setUp() {
+        props = new JwtProperties();
+        jwtService = new JwtService(props);
+        user = AppUser.builder()
+                .id(42L)
+                .phone("+1234567890")
+                .realName("John Doe")
+                .build();
+        bearer = "Bearer " + jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String sign_cached() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Jws<Claims> verify_cached() {
+        return jwtService.getClaims(bearer);
+    }
+
+    @Benchmark
+    public String sign_legacy() {
+        Instant now = Instant.now();
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(props.getSecret()));
+        return Jwts.builder()
+                .subject(user.getId().toString())
+                .claim("uid", user.getId())
+                .claim("phone", user.getPhone())
+                .claim("name", user.getRealName())
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(props.getTtl())))
+                .signWith(key, Jwts.SIG.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public Jws<Claims> verify_legacy() {
+        String token = bearer.replace("Bearer ", "");
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(props.getSecret()));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+    }
+}
@@ -0,0 +1,104 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.config.OtpProperties;
+import com.service.sector.aggregator.data.dto.AppUserRequest;
+import com.service.sector.aggregator.data.dto.AppUserResponse;
+import com.service.sector.aggregator.data.entity.AppUser;
+import com.service.sector.aggregator.data.entity.Role;
+import com.service.sector.aggregator.data.enums.RoleName;
+import com.service.sector.aggregator.data.repositories.AppUserRepository;
+import com.service.sector.aggregator.data.repositories.RoleRepository;
+import com.service.sector.aggregator.service.RoleRegistry;
+import com.service.sector.aggregator.service.external.JwtService;
+import com.service.sector.aggregator.service.external.SmsOtpService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput of {@link UserServiceImpl#register} with repositories stubbed by
+ * proxies that charge {@link #ROUND_TRIP_NANOS} per call, standing in for a
+ * database round trip:
+ * <ul>
+ *     <li>{@code registry} - customer role from the startup-loaded {@link RoleRegistry};</li>
+ *     <li>{@code lookup} - previous behaviour, {@code findByRoleName} on every registration.</li>
+ * </ul>
+ * Run with {@code ./gradlew jmh -PjmhInclude=UserRegistrationBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserRegistrationBenchmark {
+
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final AtomicLong ids = new AtomicLong();
+    private UserServiceImpl registry;
+    private UserServiceImpl lookup;
+
+    @Setup
+    public void setUp() {
+        List<Role> seeded = Arrays.stream(RoleName.values())
+                .map(name -> Role.builder().id((long) name.ordinal() + 1).roleName(name).build())
+                .toList();
+        RoleRepository roleRepo = stub(RoleRepository.class, (method, args) -> switch (method) {
+            case "findAll" -> seeded;
+            case "findByRoleName" -> seeded.stream().filter(r -> r.getRoleName() == args[0]).findFirst();
+            default -> throw new UnsupportedOperationException(method);
+        });
+        AppUserRepository userRepo = stub(AppUserRepository.class, (method, args) -> switch (method) {
+            case "existsByPhone" -> false;
+            case "save" -> {
+                ((AppUser) args[0]).setId(ids.incrementAndGet());
+                yield args[0];
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+
+        RoleRegistry roleRegistry = new RoleRegistry(roleRepo);
+        RoleRegistry perCallLookup = new RoleRegistry(roleRepo) {
+            @Override
+            public Role get(RoleName name) {
+                return roleRepo.findByRoleName(name).orElseThrow();
+            }
+        };
+        InMemoryOtpStore otpStore = new InMemoryOtpStore(new OtpProperties());
+        JwtService jwtService = new JwtService(new JwtProperties());
+
+        // token revocation is not used by register()
+        registry = new UserServiceImpl(userRepo, roleRegistry, otpStore, jwtService, new SmsOtpService(null), null, null);
+        lookup = new UserServiceImpl(userRepo, perCallLookup, otpStore, jwtService, new SmsOtpService(null), null, null);
+    }
+
+    @Benchmark
+    public AppUserResponse registry() {
+        return registry.register(new AppUserRequest("+1555" + (1_000_000 + ids.get() % 1_000_000), "John Doe"));
+    }
+
+    @Benchmark
+    public AppUserResponse lookup() {
+        return lookup.register(new AppUserRequest("+1555" + (1_000_000 + ids.get() % 1_000_000), "John Doe"));
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            return handler.handle(method.getName(), args);
+        });
+    }
+}
@@ -0,0 +1,223 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.data.entity.AppUser;
+import com.service.sector.aggregator.data.entity.Workspace;
+import com.service.sector.aggregator.data.entity.WorkspacePhoto;
+import com.service.sector.aggregator.data.enums.PhotoStatus;
+import com.service.sector.aggregator.data.enums.WorkspaceStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import liquibase.integration.spring.SpringLiquibase;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Latency of the database write of one create-workspace request: the
+ * workspace, {@code photoCount} photos with three variant rows each, and one
+ * blob reference per photo, committed in one transaction.
+ * <ul>
+ *     <li>{@code unbatched} - one round trip per row, as with the previous
+ *     {@code IDENTITY} ids and per-photo reference updates;</li>
+ *     <li>{@code batched} - pooled sequence ids, {@code hibernate.jdbc.batch_size}
+ *     with ordered inserts, {@code reWriteBatchedInserts} and the reference
+ *     updates sent as one JDBC batch.</li>
+ * </ul>
+ * Needs a PostgreSQL database ({@code -Dbench.db.url}, {@code -Dbench.db.user},
+ * {@code -Dbench.db.password}; default a local {@code aggregator_bench});
+ * the schema is migrated with the application's changelog and the rows
+ * written are removed afterwards. The round trips saved grow with the
+ * network latency to the database, so run it against a remote one as well.
+ * The insert statements Hibernate prepared per write (one per JDBC batch or
+ * row) are printed at the end of each trial.
+ * Run with {@code ./gradlew jmh -PjmhInclude=WorkspaceWriteBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkspaceWriteBenchmark {
+
+    private static final String RETAIN = "INSERT INTO photo_blob (sha256, ref_count, variants, stored_bytes) "
+            + "VALUES (?, 1, ?, ?) "
+            + "ON CONFLICT (sha256) DO UPDATE SET ref_count = photo_blob.ref_count + 1, released_at = NULL, "
+            + "variants = EXCLUDED.variants, stored_bytes = EXCLUDED.stored_bytes";
+
+    @Param({"unbatched", "batched"})
+    public String mode;
+
+    @Param({"3", "15"})
+    public int photoCount;
+
+    private HikariDataSource dataSource;
+    private EntityManagerFactory emf;
+    private Long ownerId;
+    private List<String> blobHashes;
+    private long writes;
+
+    @Setup
+    public void setUp() throws Exception {
+        boolean batched = mode.equals("batched");
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5432/aggregator_bench"));
+        dataSource.setUsername(System.getProperty("bench.db.user", "postgres"));
+        dataSource.setPassword(System.getProperty("bench.db.password", "postgres"));
+        dataSource.addDataSourceProperty("reWriteBatchedInserts", batched);
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        Map<String, Object> jpa = new HashMap<>();
+        // entity listeners take constructor arguments, as under Spring Boot
+        jpa.put(AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(new DefaultListableBeanFactory()));
+        jpa.put(AvailableSettings.STATEMENT_BATCH_SIZE, batched ? 50 : 0);
+        jpa.put(AvailableSettings.ORDER_INSERTS, batched);
+        jpa.put(AvailableSettings.GENERATE_STATISTICS, true);
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(AppUser.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(jpa);
+        factory.afterPropertiesSet();
+        emf = factory.getObject();
+
+        ownerId = inTransaction(em -> {
+            AppUser owner = AppUser.builder().realName("Benchmark landlord").build();
+            em.persist(owner);
+            return owner.getId();
+        });
+        blobHashes = new ArrayList<>(photoCount);
+        for (int i = 0; i < photoCount; i++) {
+            blobHashes.add(sha256("workspace-write-benchmark-" + i));
+        }
+        emf.unwrap(SessionFactory.class).getStatistics().clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        long statements = emf.unwrap(SessionFactory.class).getStatistics().getPrepareStatementCount();
+        System.out.printf("%n%s, %d photos: %.1f insert statements prepared by Hibernate per write%n",
+                mode, photoCount, (double) statements / Math.max(1, writes));
+        inTransaction(em -> {
+            // photos and their variants go with the workspaces (ON DELETE CASCADE)
+            em.createNativeQuery("DELETE FROM workspace WHERE owner_id = :owner")
+                    .setParameter("owner", ownerId).executeUpdate();
+            em.createNativeQuery("DELETE FROM app_user WHERE id = :owner")
+                    .setParameter("owner", ownerId).executeUpdate();
+            em.createNativeQuery("DELETE FROM photo_blob WHERE sha256 IN (:hashes)")
+                    .setParameter("hashes", blobHashes).executeUpdate();
+            return null;
+        });
+        emf.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Long createWorkspace() {
+        writes++;
+        return inTransaction(em -> {
+            Workspace ws = workspace(em.getReference(AppUser.class, ownerId));
+            em.persist(ws);
+            em.flush();
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(RETAIN)) {
+                    for (String sha256 : blobHashes) {
+                        ps.setString(1, sha256);
+                        ps.setString(2, "thumb,card,full");
+                        ps.setLong(3, 300_000);
+                        if (mode.equals("batched")) {
+                            ps.addBatch();
+                        } else {
+                            ps.executeUpdate();
+                        }
+                    }
+                    if (mode.equals("batched")) {
+                        ps.executeBatch();
+                    }
+                }
+            });
+            return ws.getId();
+        });
+    }
+
+    private Workspace workspace(AppUser owner) {
+        Workspace ws = Workspace.builder()
+                .owner(owner)
+                .name("Benchmark studio")
+                .city("Minsk")
+                .address("Nezavisimosti 1")
+                .kind("hair chair")
+                .openTime(LocalTime.of(9, 0))
+                .closeTime(LocalTime.of(21, 0))
+                .workingDaysMask((short) 62)
+                .minRentMinutes(60)
+                .pricePerHour(new BigDecimal("15.00"))
+                .status(WorkspaceStatus.APPROVED)
+                .createdAt(OffsetDateTime.now())
+                .updatedAt(OffsetDateTime.now())
+                .build();
+        for (int i = 0; i < photoCount; i++) {
+            Map<String, String> variants = new LinkedHashMap<>();
+            for (String variant : List.of("thumb", "card", "full")) {
+                variants.put(variant, "https://example/photos/" + blobHashes.get(i) + "/" + variant + ".jpg");
+            }
+            ws.getPhotos().add(WorkspacePhoto.builder()
+                    .workspace(ws)
+                    .filePath(variants.get("full"))
+                    .variants(variants)
+                    .status(PhotoStatus.READY)
+                    .order((short) i)
+                    .createdAt(OffsetDateTime.now())
+                    .build());
+        }
+        return ws;
+    }
+
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            T result = work.apply(em);
+            em.getTransaction().commit();
+            return result;
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+
+    private static String sha256(String text) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.service.sector.aggregator.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "security.jwt")
+public class JwtProperties {
+
+    /**
+     * HMAC secret key (Base-64 encoded).
+     */
+    private String secret = "KzBo5txZb9hS2XVue3X1M2vU0zP5b1bzYzdVZq07JRc=";
+
+    /**
+     * How long a freshly generated access-token is valid.
+     */
+    private Duration ttl = Duration.ofHours(72);
+
+    /**
+     * How long before expiration the filter should proactively refresh
+     * the token.
+     */
+    private Duration refreshThreshold = Duration.ofHours(24);
+
+    /**
+     * Maximum number of verified tokens kept in memory so repeated requests
+     * with the same token skip signature verification.
+     */
+    private long verifiedCacheSize = 10_000;
+
+    /**
+     * How long a user's admin flag is trusted before it is read from the
+     * database again; bounds how long a demoted admin keeps access.
+     */
+    private Duration adminAuthorityTtl = Duration.ofSeconds(30);
+
+    /**
+     * How long a token minted by the refresh filter is handed out again to
+     * further requests of the same user instead of minting a new one.
+     */
+    private Duration refreshReuseWindow = Duration.ofSeconds(30);
+
+    /**
+     * How often revocations recorded by other nodes are pulled into memory;
+     * bounds how long a logged-out token is still accepted elsewhere.
+     */
+    private Duration revocationRefreshInterval = Duration.ofSeconds(5);
+
+    /**
+     * How often the in-memory revocation list is rebuilt from scratch, which
+     * drops expired entries and re-sizes the bloom filter.
+     */
+    private Duration revocationRebuildInterval = Duration.ofHours(1);
+
+    /**
+     * Revoked tokens the bloom filter is sized for (at a 0.1% false-positive
+     * rate); it is rebuilt larger when exceeded.
+     */
+    private int revocationBloomCapacity = 100_000;
+}
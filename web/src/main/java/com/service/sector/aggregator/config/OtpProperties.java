@@ -0,0 +1,48 @@
+package com.service.sector.aggregator.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "security.otp")
+public class OtpProperties {
+
+    /**
+     * Backend for issued SMS codes: "memory" (default, no SQL on the login
+     * path) or "jpa" (durable auth_codes table, survives restarts and is
+     * shared between nodes).
+     */
+    private String store = "memory";
+
+    /**
+     * How long an issued code can be used to log in.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Within this window after issuing, another code request for the same
+     * phone re-uses the pending code and does not send a new SMS.
+     */
+    private Duration reuseWindow = Duration.ofSeconds(30);
+
+    /**
+     * Wrong guesses allowed before the pending code is discarded.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * How often expired codes are deleted from auth_codes.
+     */
+    private Duration purgeInterval = Duration.ofMinutes(5);
+
+    /**
+     * Rows deleted per statement by the purge job; keeps every delete short.
+     */
+    private int purgeBatchSize = 1_000;
+}
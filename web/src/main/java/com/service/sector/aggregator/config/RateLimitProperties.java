@@ -0,0 +1,82 @@
+package com.service.sector.aggregator.config;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Switches throttling of the auth endpoints off entirely, e.g. for load tests.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound of phones / client addresses tracked per endpoint; idle
+     * buckets are dropped as soon as they would be full again anyway.
+     */
+    private long maxKeys = 100_000;
+
+    /**
+     * Addresses or CIDR ranges of the load balancers / proxies in front of
+     * the app, whose {@code X-Forwarded-For} entries are believed; empty
+     * (default) means the socket address is the client.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /**
+     * Policy per endpoint ("request-code", "login"); endpoints without an
+     * entry are not throttled.
+     */
+    private Map<String, Endpoint> endpoints = new HashMap<>(Map.of(
+            "request-code", new Endpoint(new Bucket(3, Duration.ofMinutes(1)),
+                                         new Bucket(20, Duration.ofSeconds(3))),
+            "login", new Endpoint(new Bucket(10, Duration.ofSeconds(30)),
+                                  new Bucket(30, Duration.ofSeconds(2)))));
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Endpoint {
+
+        /** Bucket per phone number in the request body. */
+        private Bucket phone = new Bucket();
+
+        /** Bucket per client IP address. */
+        private Bucket ip = new Bucket();
+
+        public Endpoint(Bucket phone, Bucket ip) {
+            this.phone = phone;
+            this.ip = ip;
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Bucket {
+
+        /** Requests allowed in a burst. */
+        private int capacity = 10;
+
+        /** Time it takes to regain one request after the burst is used up. */
+        private Duration refillPeriod = Duration.ofSeconds(1);
+
+        public Bucket(int capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.service.sector.aggregator.config;
 
+import com.service.sector.aggregator.filter.AdminJwtFilter;
 import com.service.sector.aggregator.filter.RefreshingJwtFilter;
+import com.service.sector.aggregator.security.AdminAuthorityCache;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -26,11 +29,14 @@ public class SecurityConfig {
     @Bean
     @Order(1)
     SecurityFilterChain adminChain(HttpSecurity http,
-                                   RefreshingJwtFilter refreshingJwtFilter) throws Exception {
+                                   RefreshingJwtFilter refreshingJwtFilter,
+                                   AdminAuthorityCache adminAuthorityCache) throws Exception {
         http
                 .securityMatcher("/api/admin/**")
                 .cors(Customizer.withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
+                .addFilterBefore(refreshingJwtFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(new AdminJwtFilter(adminAuthorityCache), RefreshingJwtFilter.class)
                 .authorizeHttpRequests(auth -> auth
                         .anyRequest().permitAll());
 
@@ -48,12 +54,24 @@ public class SecurityConfig {
         http
                 .cors(Customizer.withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
+                .addFilterBefore(refreshingJwtFilter, UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests(auth -> auth
                         .anyRequest().permitAll());
 
         return http.build();
     }
 
+    /**
+     * The filter is a bean only so it can be injected into the chains above;
+     * keep Boot from also registering it as a plain servlet filter.
+     */
+    @Bean
+    FilterRegistrationBean<RefreshingJwtFilter> refreshingJwtFilterRegistration(RefreshingJwtFilter filter) {
+        FilterRegistrationBean<RefreshingJwtFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,56 @@
+package com.service.sector.aggregator.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "sms")
+public class SmsProperties {
+
+    /**
+     * Delivery backend: "sns" (default) or "fake" (in-process stand-in for
+     * local runs and load tests, nothing is sent).
+     */
+    private String sender = "sns";
+
+    /**
+     * Messages waiting for delivery; further requests are rejected when full.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Messages taken from the queue in one go by the dispatcher.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Deliveries in flight at the same time.
+     */
+    private int maxConcurrency = 16;
+
+    /**
+     * Upper bound for a single delivery attempt.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * Delivery attempts per message, including the first one.
+     */
+    private int maxAttempts = 4;
+
+    /**
+     * Pause before the first retry; doubled for every further retry.
+     */
+    private Duration initialBackoff = Duration.ofMillis(200);
+
+    /**
+     * Simulated latency of the fake sender.
+     */
+    private Duration fakeLatency = Duration.ofMillis(100);
+}
@@ -7,11 +7,17 @@ import com.service.sector.aggregator.data.dto.auth.LoginRequest;
 import com.service.sector.aggregator.data.entity.AppUser;
 import com.service.sector.aggregator.exceptions.InvalidPhoneNumberException;
 import com.service.sector.aggregator.exceptions.SmsDeliveryException;
+import com.service.sector.aggregator.security.AuthenticatedUser;
+import com.service.sector.aggregator.security.ClientAddressResolver;
+import com.service.sector.aggregator.security.CurrentUser;
+import com.service.sector.aggregator.security.RateLimiter;
 import com.service.sector.aggregator.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -25,6 +31,8 @@ import org.springframework.web.bind.annotation.*;
 public class AppUserController {
 
     private final UserService userService;
+    private final RateLimiter rateLimiter;
+    private final ClientAddressResolver clientAddress;
 
     // ---------------------------------------------------------------------
     // Check Phone
@@ -33,9 +41,11 @@ public class AppUserController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Phone is valid and SMS code is successfully sent"),
             @ApiResponse(responseCode = "400", description = "Phone number is not in valid format"),
+            @ApiResponse(responseCode = "429", description = "Too many code requests for this phone or address"),
             @ApiResponse(responseCode = "500", description = "SMS sending failure(Issue with AWS SNS"),
     })
-    public ResponseEntity<String> requestCode(@Valid @RequestBody PhoneRequest req) {
+    public ResponseEntity<String> requestCode(@Valid @RequestBody PhoneRequest req, HttpServletRequest http) {
+        rateLimiter.check(RateLimiter.REQUEST_CODE, req.phone(), clientAddress.resolve(http));
         try {
             userService.sendCode(req.phone());
         } catch (InvalidPhoneNumberException e) {
@@ -68,14 +78,41 @@ public class AppUserController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Authentication successful"),
             @ApiResponse(responseCode = "409", description = "Provided auth code doesn't match expected"),
-            @ApiResponse(responseCode = "404", description = "User not found")
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "429", description = "Too many login attempts for this phone or address")
     })
     @PostMapping("/login")
-    public ResponseEntity<AppUserResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AppUserResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest http) {
+        rateLimiter.check(RateLimiter.LOGIN, request.phone(), clientAddress.resolve(http));
         AppUserResponse response = userService.login(request);
         return ResponseEntity.ok(response);
     }
 
+    // ---------------------------------------------------------------------
+    // Logout
+    // ---------------------------------------------------------------------
+    @Operation(summary = "Revoke the token used for this request")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Token revoked"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated")
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Parameter(hidden = true) @CurrentUser AuthenticatedUser user) {
+        userService.logout(user);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Revoke all tokens of the current user")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "All tokens revoked"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated")
+    })
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutEverywhere(@Parameter(hidden = true) @CurrentUser Long uid) {
+        userService.logoutEverywhere(uid);
+        return ResponseEntity.noContent().build();
+    }
+
     // ---------------------------------------------------------------------
     // Receive user details
     // ---------------------------------------------------------------------
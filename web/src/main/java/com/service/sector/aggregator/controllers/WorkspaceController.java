@@ -0,0 +1,283 @@
+package com.service.sector.aggregator.controllers;
+
+import com.service.sector.aggregator.data.dto.BecomeLandlordResponse;
+import com.service.sector.aggregator.data.dto.PhotoUploadSlots;
+import com.service.sector.aggregator.data.dto.ResumableUploadStatus;
+import com.service.sector.aggregator.data.dto.WorkspacePhotoDto;
+import com.service.sector.aggregator.data.dto.WorkspaceResponse;
+import com.service.sector.aggregator.data.dto.request.PhotoUploadRequest;
+import com.service.sector.aggregator.data.dto.request.ResumableUploadRequest;
+import com.service.sector.aggregator.data.form.WorkspaceForm;
+import com.service.sector.aggregator.security.CurrentUser;
+import com.service.sector.aggregator.service.WorkspaceService;
+import com.service.sector.aggregator.service.impl.ResumablePhotoUploads;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Workspace CRUD endpoints. Photos are processed in the background: create
+ * requests answer 202 with the photos {@code PROCESSING}, and
+ * {@code GET /landlord/workspaces/{id}/photos} reports their progress.
+ * Photos come as multipart parts, through presigned URLs
+ * ({@code /photo-uploads}) or in resumable chunks ({@code /resumable-uploads}).
+ */
+@Tag(name = "Landlord", description = "Landlord functionality")
+@RestController
+@RequestMapping("/landlord")
+@RequiredArgsConstructor
+public class WorkspaceController {
+
+    /** Offset header of resumable upload chunks, as in the tus protocol. */
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    private final WorkspaceService workspaceService;
+    private final ResumablePhotoUploads resumableUploads;
+
+    @Operation(summary = "Request to become a landlord")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Request created; photos are being processed",
+                    content = @Content(schema = @Schema(implementation = BecomeLandlordResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+    })
+    @PostMapping(value = "/request-landlord", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BecomeLandlordResponse> requestLandlord(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @Valid WorkspaceForm form,
+            @RequestPart("photos") List<MultipartFile> photos) {
+
+        BecomeLandlordResponse response = workspaceService.requestLandlord(uid, form, photos);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @Operation(summary = "Register new workspace")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Workspace created; photos are being processed",
+                    content = @Content(schema = @Schema(implementation = WorkspaceResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content)
+    })
+    @PostMapping(value = "/add-workspace", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<WorkspaceResponse> create(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @Valid WorkspaceForm form,
+            @RequestPart("photos") List<MultipartFile> photos) {
+
+        WorkspaceResponse response = workspaceService.createWorkspace(uid, form, photos);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @Operation(summary = "Get presigned URLs to upload workspace photos directly to storage")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Upload URLs issued",
+                    content = @Content(schema = @Schema(implementation = PhotoUploadSlots.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+    })
+    @PostMapping("/photo-uploads")
+    public ResponseEntity<PhotoUploadSlots> startPhotoUpload(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @Valid @RequestBody PhotoUploadRequest request) {
+
+        PhotoUploadSlots slots = workspaceService.startPhotoUpload(uid, request.count());
+        return ResponseEntity.status(HttpStatus.CREATED).body(slots);
+    }
+
+    @Operation(summary = "Request to become a landlord with directly uploaded photos")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Request created; photos are being processed",
+                    content = @Content(schema = @Schema(implementation = BecomeLandlordResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Upload not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Upload already used", content = @Content)
+    })
+    @PostMapping("/request-landlord/photo-uploads/{uploadId}")
+    public ResponseEntity<BecomeLandlordResponse> requestLandlord(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @PathVariable String uploadId,
+            @Valid @RequestBody WorkspaceForm form) {
+
+        BecomeLandlordResponse response = workspaceService.requestLandlord(uid, form, uploadId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @Operation(summary = "Register new workspace with directly uploaded photos")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Workspace created; photos are being processed",
+                    content = @Content(schema = @Schema(implementation = WorkspaceResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Upload not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Upload already used", content = @Content)
+    })
+    @PostMapping("/add-workspace/photo-uploads/{uploadId}")
+    public ResponseEntity<WorkspaceResponse> create(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @PathVariable String uploadId,
+            @Valid @RequestBody WorkspaceForm form) {
+
+        WorkspaceResponse response = workspaceService.createWorkspace(uid, form, uploadId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @Operation(summary = "Start a resumable photo upload")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Upload started",
+                    content = @Content(schema = @Schema(implementation = ResumableUploadStatus.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+    })
+    @PostMapping("/resumable-uploads")
+    public ResponseEntity<ResumableUploadStatus> startResumableUpload(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @Valid @RequestBody ResumableUploadRequest request) {
+
+        ResumableUploadStatus status = workspaceService.startResumableUpload(uid, request.lengths());
+        return ResponseEntity.status(HttpStatus.CREATED).body(status);
+    }
+
+    @Operation(summary = "Offsets of a resumable upload, to continue after a dropped connection")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Upload status",
+                    content = @Content(schema = @Schema(implementation = ResumableUploadStatus.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Upload not found", content = @Content)
+    })
+    @GetMapping("/resumable-uploads/{uploadId}")
+    public ResumableUploadStatus resumableUploadStatus(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @PathVariable String uploadId) {
+
+        return resumableUploads.status(uid, uploadId);
+    }
+
+    @Operation(summary = "Upload a chunk of one photo of a resumable upload",
+            description = "The body is written from Upload-Offset, which may not be past the bytes received so far; "
+                    + "the response's Upload-Offset is where the next chunk starts.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Chunk stored", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Chunk runs past the photo's length", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Upload not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Offset past the received bytes, or another chunk "
+                    + "of the photo in progress", content = @Content)
+    })
+    @PatchMapping(value = "/resumable-uploads/{uploadId}/photos/{photo}",
+            consumes = {"application/offset+octet-stream", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Void> uploadChunk(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @PathVariable String uploadId,
+            @PathVariable int photo,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            InputStream body) throws IOException {
+
+        long received = resumableUploads.write(uid, uploadId, photo, offset, body);
+        return ResponseEntity.noContent().header(UPLOAD_OFFSET, Long.toString(received)).build();
+    }
+
+    @Operation(summary = "Abandon a resumable upload")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Upload deleted", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Upload not found", content = @Content)
+    })
+    @DeleteMapping("/resumable-uploads/{uploadId}")
+    public ResponseEntity<Void> cancelResumableUpload(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @PathVariable String uploadId) {
+
+        resumableUploads.cancel(uid, uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Request to become a landlord with the photos of a resumable upload")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Request created; photos are being processed",
+                    content = @Content(schema = @Schema(implementation = BecomeLandlordResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Upload not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Upload incomplete or already used", content = @Content)
+    })
+    @PostMapping("/request-landlord/resumable-uploads/{uploadId}")
+    public ResponseEntity<BecomeLandlordResponse> requestLandlordFromResumableUpload(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @PathVariable String uploadId,
+            @Valid @RequestBody WorkspaceForm form) {
+
+        BecomeLandlordResponse response = workspaceService.requestLandlordFromResumableUpload(uid, form, uploadId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @Operation(summary = "Register new workspace with the photos of a resumable upload")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Workspace created; photos are being processed",
+                    content = @Content(schema = @Schema(implementation = WorkspaceResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Upload not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Upload incomplete or already used", content = @Content)
+    })
+    @PostMapping("/add-workspace/resumable-uploads/{uploadId}")
+    public ResponseEntity<WorkspaceResponse> createFromResumableUpload(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @PathVariable String uploadId,
+            @Valid @RequestBody WorkspaceForm form) {
+
+        WorkspaceResponse response = workspaceService.createWorkspaceFromResumableUpload(uid, form, uploadId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @Operation(summary = "Photos of a workspace with their processing status")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Photos in display order",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = WorkspacePhotoDto.class)))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Not the owner", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Workspace not found", content = @Content)
+    })
+    @GetMapping("/workspaces/{id}/photos")
+    public List<WorkspacePhotoDto> photos(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @PathVariable Long id) {
+
+        return workspaceService.getPhotos(uid, id);
+    }
+
+    @Operation(summary = "Delete a workspace with its photos")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Workspace deleted", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Not the owner", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Workspace not found", content = @Content)
+    })
+    @DeleteMapping("/workspaces/{id}")
+    public ResponseEntity<Void> delete(
+            @Parameter(hidden = true) @CurrentUser Long uid,
+            @PathVariable Long id) {
+
+        workspaceService.deleteWorkspace(uid, id);
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.service.sector.aggregator.data.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @param uploadId  passed to the chunk and finalize endpoints
+ * @param expiresAt when the upload is deleted unless finalized
+ * @param lengths   size of each photo, in photo order
+ * @param offsets   bytes of each photo received so far; the next chunk starts there
+ */
+public record ResumableUploadStatus(String uploadId, Instant expiresAt, List<Long> lengths, List<Long> offsets) {
+}
@@ -0,0 +1,14 @@
+package com.service.sector.aggregator.data.dto;
+
+import com.service.sector.aggregator.data.enums.PhotoStatus;
+
+import java.util.Map;
+
+/**
+ * @param url      URL of the largest size; {@code null} until {@code status} is READY
+ * @param variants URL per size, e.g. "thumb", "card", "full"; empty until READY
+ */
+public record WorkspacePhotoDto(
+        Long id, String url, short order, Map<String, String> variants, PhotoStatus status
+) {
+}
@@ -0,0 +1,10 @@
+package com.service.sector.aggregator.data.dto;
+
+import java.util.List;
+
+/**
+ * @param photoUrls URLs of the photos that are ready
+ * @param photos    all photos, with their processing status
+ */
+public record WorkspaceResponse(Long id, String name, String city, List<String> photoUrls,
+                                List<WorkspacePhotoDto> photos) {}
@@ -0,0 +1,12 @@
+package com.service.sector.aggregator.data.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * DTO used when asking for presigned photo upload URLs.
+ *
+ * @param count number of photos to upload (3–15, as a workspace needs)
+ */
+public record PhotoUploadRequest(@Min(3) @Max(15) int count) {
+}
@@ -0,0 +1,15 @@
+package com.service.sector.aggregator.data.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO used when starting a resumable photo upload.
+ *
+ * @param lengths size in bytes of each photo to upload (3–15 photos)
+ */
+public record ResumableUploadRequest(@NotNull @Size(min = 3, max = 15) List<@NotNull @Positive Long> lengths) {
+}
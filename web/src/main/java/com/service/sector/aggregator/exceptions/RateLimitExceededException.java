@@ -0,0 +1,44 @@
+package com.service.sector.aggregator.exceptions;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a client exceeds the request rate of an endpoint;
+ * rendered as 429 with a {@code Retry-After} header (whole seconds).
+ * <p>
+ * Rejections are the common case under a flood, so no stack trace is captured.
+ */
+public class RateLimitExceededException extends ResponseStatusException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(Duration retryAfter) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "Too many requests, retry later");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /** Seconds to wait, rounded up and at least one. */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(getRetryAfterSeconds()));
+        return headers;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
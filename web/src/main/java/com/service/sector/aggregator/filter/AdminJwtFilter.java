@@ -0,0 +1,58 @@
+package com.service.sector.aggregator.filter;
+
+import com.service.sector.aggregator.security.AdminAuthorityCache;
+import com.service.sector.aggregator.security.AuthenticatedUser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Lets only admins through to "/api/admin/*". Runs after {@link RefreshingJwtFilter}
+ * and relies on the principal it stored instead of verifying the token again;
+ * the admin flag comes from {@link AdminAuthorityCache}, so no SQL is issued
+ * while the entry is fresh.
+ */
+@RequiredArgsConstructor
+public class AdminJwtFilter extends OncePerRequestFilter {
+
+    private final AdminAuthorityCache authorityCache;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        // Apply filter only to "/api/admin/*" endpoints
+        String path = request.getRequestURI();
+        if (!path.startsWith("/api/admin")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser principal)) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "Bearer token required");
+            return;
+        }
+
+        Optional<Boolean> isAdmin = authorityCache.isAdmin(principal.userId());
+        if (isAdmin.isEmpty()) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "User not found");
+            return;
+        }
+
+        if (!isAdmin.get()) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "Admin role required");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
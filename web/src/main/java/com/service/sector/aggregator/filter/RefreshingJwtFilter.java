@@ -0,0 +1,156 @@
+package com.service.sector.aggregator.filter;
+
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.security.AuthenticatedUser;
+import com.service.sector.aggregator.security.TokenRefresher;
+import com.service.sector.aggregator.security.TokenRevocationList;
+import com.service.sector.aggregator.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+
+
+/**
+ * Verifies the bearer token (once per request), rejects revoked tokens,
+ * publishes the caller as an {@link AuthenticatedUser} principal and
+ * proactively refreshes tokens that are about to expire.
+ */
+@Component
+public class RefreshingJwtFilter extends OncePerRequestFilter {
+
+    /** Request attribute holding the number of token verifications done for the request. */
+    public static final String VERIFICATIONS_ATTRIBUTE = RefreshingJwtFilter.class.getName() + ".verifications";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRefresher tokenRefresher;
+    private final TokenRevocationList revocationList;
+    private final JwtProperties props;
+    private final DistributionSummary verificationsPerRequest;
+
+    public RefreshingJwtFilter(VerifiedTokenCache tokenCache, TokenRefresher tokenRefresher,
+                               TokenRevocationList revocationList, JwtProperties props,
+                               MeterRegistry meterRegistry) {
+        this.tokenCache = tokenCache;
+        this.tokenRefresher = tokenRefresher;
+        this.revocationList = revocationList;
+        this.props = props;
+        this.verificationsPerRequest = DistributionSummary.builder("auth.token.verifications.per.request")
+                .description("Bearer token verifications performed while serving one request")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req
+            , HttpServletResponse resp, FilterChain chain) throws ServletException, IOException {
+
+        // Extract token (without the "Bearer " prefix)
+        String token = extractToken(req);
+
+        // Bypass if request doesn't have a header
+        if (token == null) {
+            chain.doFilter(req, resp);
+            return;
+        }
+
+        try {
+            Claims claims = verify(req, token).getPayload();
+
+            Instant exp = claims.getExpiration().toInstant();
+
+            // If token already expired - throw 401 Unauthorized exception
+            if (Duration.between(Instant.now(), exp).compareTo(Duration.ZERO) < 0) {
+                resp.sendError(HttpStatus.UNAUTHORIZED.value(), "Auth token expired");
+                return;
+            }
+
+            // Revoked (logged out) tokens are rejected and never refreshed
+            AuthenticatedUser principal = AuthenticatedUser.of(claims);
+            if (revocationList.isRevoked(principal)) {
+                resp.sendError(HttpStatus.UNAUTHORIZED.value(), "Auth token revoked");
+                return;
+            }
+
+            authenticate(req, principal);
+
+            // Check if token expires soon; parallel requests share one refreshed token
+            if (Duration.between(Instant.now(), exp).compareTo(props.getRefreshThreshold()) < 0) {
+                Long userId = claims.get("uid", Long.class);
+                String newToken = tokenRefresher.refresh(userId);
+                resp.setHeader("X-New-Token", newToken);      // or overwrite “Authorization”
+                resp.setHeader("Access-Control-Expose-Headers", "X-New-Token");
+            }
+        } catch (Exception e) {
+            SecurityContextHolder.clearContext();
+            resp.sendError(HttpStatus.UNAUTHORIZED.value(), "Auth token expired");
+            return;
+        }
+
+        try {
+            chain.doFilter(req, resp);
+        } finally {
+            verificationsPerRequest.record(verificationCount(req));
+        }
+    }
+
+    /**
+     * Verifies the token (or takes it from the verified-token cache) and counts
+     * the lookup on the request, so tests and the
+     * {@code auth.token.verifications.per.request} metric can prove it happens
+     * exactly once.
+     */
+    private Jws<Claims> verify(HttpServletRequest req, String token) {
+        req.setAttribute(VERIFICATIONS_ATTRIBUTE, verificationCount(req) + 1);
+        return tokenCache.getClaims(token);
+    }
+
+    private static int verificationCount(HttpServletRequest req) {
+        Object count = req.getAttribute(VERIFICATIONS_ATTRIBUTE);
+        return count instanceof Integer i ? i : 0;
+    }
+
+    private static void authenticate(HttpServletRequest req, AuthenticatedUser principal) {
+        UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, Collections.emptyList());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+    }
+
+    /**
+     * Returns the raw JWT from the <code>"Bearer &lt;jwt&gt;"</code> header or
+     * {@code null} when no token is present.
+     */
+    private String extractToken(HttpServletRequest req) {
+
+        /* 1) HEADER -------------------------------------------------------- */
+        String header = req.getHeader(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.isNotBlank(header) && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.service.sector.aggregator.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.data.repositories.AppUserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * In-process cache of {@code AppUser.isAdmin}, so admin endpoints do not read
+ * the user (and its EAGER roles) on every request.
+ * <p>
+ * Entries live for {@code security.jwt.admin-authority-ttl}; changes made
+ * through JPA invalidate the entry at once via {@code AppUserAuthorityListener}.
+ */
+@Component
+public class AdminAuthorityCache implements AppUserCache {
+
+    private static final long MAX_ENTRIES = 10_000;
+
+    /** Empty value = no such user. */
+    private final LoadingCache<Long, Optional<Boolean>> cache;
+
+    public AdminAuthorityCache(AppUserRepository userRepo, JwtProperties props, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(props.getAdminAuthorityTtl())
+                .recordStats()
+                .build(userRepo::findAdminFlagById);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "admin.authority");
+    }
+
+    /**
+     * @return admin flag of the user, or empty when the user does not exist
+     */
+    public Optional<Boolean> isAdmin(Long userId) {
+        return cache.get(userId);
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,17 @@
+package com.service.sector.aggregator.security;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Principal stored in the {@link org.springframework.security.core.context.SecurityContext}
+ * once the bearer token of the current request has been verified.
+ *
+ * @param userId id of the {@code AppUser} the token was issued to
+ * @param claims verified token payload
+ */
+public record AuthenticatedUser(Long userId, Claims claims) {
+
+    public static AuthenticatedUser of(Claims claims) {
+        return new AuthenticatedUser(Long.valueOf(claims.getSubject()), claims);
+    }
+}
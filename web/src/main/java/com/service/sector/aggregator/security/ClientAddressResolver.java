@@ -0,0 +1,75 @@
+package com.service.sector.aggregator.security;
+
+import com.service.sector.aggregator.config.RateLimitProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Client IP of a request, the key of the per-address {@link RateLimiter} buckets.
+ * <p>
+ * Behind a load balancer the socket address is the balancer's, so
+ * {@code X-Forwarded-For} is read, but only as far as
+ * {@code security.rate-limit.trusted-proxies} vouch for it: each proxy appends
+ * the address it saw, so entries are taken from the right and the first one
+ * that is not a trusted proxy is the client. Entries left of it were sent by
+ * the client itself and are ignored, so a forged header cannot pick a bucket.
+ */
+@Component
+public class ClientAddressResolver {
+
+    static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientAddressResolver(RateLimitProperties props) {
+        this.trustedProxies = props.getTrustedProxies().stream().map(IpAddressMatcher::new).toList();
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!isTrustedProxy(address)) {
+            return address;
+        }
+        List<String> hops = forwardedFor(request);
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            address = hops.get(i);
+            if (!isTrustedProxy(address)) {
+                return address;
+            }
+        }
+        // only proxies: the leftmost one is as close to the client as it gets
+        return address;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // not an IP literal (e.g. "unknown"), never a proxy
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> forwardedFor(HttpServletRequest request) {
+        List<String> hops = new ArrayList<>();
+        for (String header : Collections.list(request.getHeaders(X_FORWARDED_FOR))) {
+            for (String hop : header.split(",")) {
+                if (StringUtils.hasText(hop)) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        return hops;
+    }
+}
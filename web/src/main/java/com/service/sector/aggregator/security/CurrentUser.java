@@ -0,0 +1,18 @@
+package com.service.sector.aggregator.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a controller parameter to the authenticated caller.
+ * <p>
+ * Supported parameter types are {@link Long} (the user id) and
+ * {@link AuthenticatedUser}. A request without a verified bearer token
+ * is answered with 401.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
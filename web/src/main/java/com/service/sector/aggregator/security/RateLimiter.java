@@ -0,0 +1,88 @@
+package com.service.sector.aggregator.security;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.service.sector.aggregator.config.RateLimitProperties;
+import com.service.sector.aggregator.exceptions.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-process throttling of the unauthenticated auth endpoints, keyed by phone
+ * number and client IP ({@link ClientAddressResolver}), so floods are rejected
+ * before any SQL or SNS call.
+ * <p>
+ * Policies come from {@code security.rate-limit.endpoints.*}; rejections are
+ * counted as {@code auth.rate.limit.rejected{endpoint, key=phone|ip}}.
+ */
+@Component
+public class RateLimiter {
+
+    public static final String REQUEST_CODE = "request-code";
+    public static final String LOGIN = "login";
+
+    private final boolean enabled;
+    private final Map<String, EndpointLimiter> endpoints = new HashMap<>();
+
+    @Autowired
+    public RateLimiter(RateLimitProperties props, MeterRegistry meterRegistry) {
+        this(props, meterRegistry, Ticker.systemTicker());
+    }
+
+    RateLimiter(RateLimitProperties props, MeterRegistry meterRegistry, Ticker ticker) {
+        this.enabled = props.isEnabled();
+        props.getEndpoints().forEach((name, policy) -> endpoints.put(name, new EndpointLimiter(
+                bucket(policy.getPhone(), props.getMaxKeys(), ticker),
+                bucket(policy.getIp(), props.getMaxKeys(), ticker),
+                rejections(meterRegistry, name, "phone"),
+                rejections(meterRegistry, name, "ip"))));
+    }
+
+    /**
+     * Takes one request from the client's budgets for {@code endpoint}; the IP
+     * budget is checked first, so one address cycling through phone numbers
+     * does not drain their budgets.
+     *
+     * @throws RateLimitExceededException when either budget is exhausted
+     */
+    public void check(String endpoint, String phone, String clientIp) {
+        EndpointLimiter limiter = endpoints.get(endpoint);
+        if (!enabled || limiter == null) {
+            return;
+        }
+        reject(limiter.byIp(), clientIp, limiter.ipRejections());
+        reject(limiter.byPhone(), phone, limiter.phoneRejections());
+    }
+
+    private static void reject(TokenBucket bucket, String key, Counter rejections) {
+        if (key == null) {
+            return;
+        }
+        long waitNanos = bucket.tryAcquire(key);
+        if (waitNanos > 0) {
+            rejections.increment();
+            throw new RateLimitExceededException(Duration.ofNanos(waitNanos));
+        }
+    }
+
+    private static TokenBucket bucket(RateLimitProperties.Bucket policy, long maxKeys, Ticker ticker) {
+        return new TokenBucket(policy.getCapacity(), policy.getRefillPeriod(), maxKeys, ticker);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String endpoint, String key) {
+        return Counter.builder("auth.rate.limit.rejected")
+                .description("Auth requests rejected with 429")
+                .tag("endpoint", endpoint)
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    private record EndpointLimiter(TokenBucket byPhone, TokenBucket byIp,
+                                   Counter phoneRejections, Counter ipRejections) {
+    }
+}
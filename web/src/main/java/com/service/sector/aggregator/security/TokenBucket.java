@@ -0,0 +1,59 @@
+package com.service.sector.aggregator.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Lock-free token buckets, one per key, in the GCRA form: a bucket is a single
+ * {@link AtomicLong} holding the "theoretical arrival time" of the next request
+ * and is updated with one CAS, so there is nothing to refill and no lock.
+ * <p>
+ * Buckets live in a size-bounded Caffeine map and expire once idle for a full
+ * burst, i.e. when they would be full again, so dropping them changes nothing.
+ */
+final class TokenBucket {
+
+    private static final Function<String, AtomicLong> NEW_BUCKET = key -> new AtomicLong(Long.MIN_VALUE);
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+
+    TokenBucket(int capacity, Duration refillPeriod, long maxKeys, Ticker ticker) {
+        this.intervalNanos = refillPeriod.toNanos();
+        this.burstNanos = intervalNanos * capacity;
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Takes one token from the bucket of {@code key}.
+     *
+     * @return 0 when the request is allowed, otherwise nanoseconds until it would be
+     */
+    long tryAcquire(String key) {
+        AtomicLong tat = buckets.get(key, NEW_BUCKET);
+        long now = ticker.read();
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long waitNanos = next - now - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.service.sector.aggregator.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.data.entity.AppUser;
+import com.service.sector.aggregator.data.repositories.AppUserRepository;
+import com.service.sector.aggregator.service.external.JwtService;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Mints refreshed tokens with single-flight semantics per user.
+ * <p>
+ * Concurrent refreshes of the same user wait for the one already running,
+ * and the minted token is handed out again for
+ * {@code security.jwt.refresh-reuse-window}, so a burst of parallel requests
+ * costs one user lookup and one signature.
+ */
+@Component
+public class TokenRefresher {
+
+    private static final long MAX_ENTRIES = 10_000;
+
+    private final JwtService jwtService;
+    private final AppUserRepository userRepo;
+    private final Cache<Long, String> recentlyIssued;
+    private final ConcurrentMap<Long, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public TokenRefresher(JwtService jwtService, AppUserRepository userRepo, JwtProperties props) {
+        this.jwtService = jwtService;
+        this.userRepo = userRepo;
+        this.recentlyIssued = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(props.getRefreshReuseWindow())
+                .build();
+    }
+
+    /**
+     * Returns a fresh token for the user, sharing it with concurrent and
+     * recent callers.
+     *
+     * @throws ResponseStatusException 401 if the user no longer exists
+     */
+    public String refresh(Long userId) {
+        String recent = recentlyIssued.getIfPresent(userId);
+        if (recent != null) {
+            return recent;
+        }
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(userId, mine);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            // a previous leader may have finished between the two lookups
+            String token = recentlyIssued.getIfPresent(userId);
+            if (token == null) {
+                token = mint(userId);
+                recentlyIssued.put(userId, token);
+            }
+            mine.complete(token);
+            return token;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(userId, mine);
+        }
+    }
+
+    /** Forgets tokens handed out for the user, e.g. after they were revoked. */
+    public void forget(Long userId) {
+        recentlyIssued.invalidate(userId);
+    }
+
+    private String mint(Long userId) {
+        AppUser appUser = userRepo.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+        return jwtService.generateToken(appUser);
+    }
+
+    private static String await(CompletableFuture<String> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.service.sector.aggregator.security;
+
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.data.entity.RevokedToken;
+import com.service.sector.aggregator.data.entity.UserTokenRevocation;
+import com.service.sector.aggregator.data.repositories.RevokedTokenRepository;
+import com.service.sector.aggregator.data.repositories.UserTokenRevocationRepository;
+import com.service.sector.aggregator.service.external.JwtService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory view of revoked tokens, checked by the filter on every request
+ * without I/O.
+ * <p>
+ * Single tokens (logout) are looked up by {@code jti}: a bloom filter answers
+ * "not revoked" for almost every token, and only its positives consult the
+ * exact set. "Log out everywhere" is a per-user timestamp (millisecond
+ * precision); tokens of that user issued before it are revoked. It is
+ * compared against the token's {@link JwtService#ISSUED_AT_MILLIS} claim, or
+ * {@code iat} for tokens minted without it.
+ * <p>
+ * Revocations are written to the revoked_token / user_token_revocation tables
+ * and applied locally at once; other nodes pick them up within
+ * {@code security.jwt.revocation-refresh-interval}. The whole view is rebuilt
+ * every {@code security.jwt.revocation-rebuild-interval} to drop expired
+ * entries.
+ * <p>
+ * Metrics: {@code auth.revocation.tokens}, {@code auth.revocation.users},
+ * {@code auth.revocation.rejected} and {@code auth.revocation.bloom.false.positives}.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    /** Re-read window on each refresh, covering rows committed after they were stamped. */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepo;
+    private final UserTokenRevocationRepository userRevocationRepo;
+    private final JwtProperties props;
+    private final Counter rejected;
+    private final Counter falsePositives;
+
+    private volatile Snapshot snapshot;
+    private volatile OffsetDateTime lastSync;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepo,
+                               UserTokenRevocationRepository userRevocationRepo,
+                               JwtProperties props, MeterRegistry meterRegistry) {
+        this.revokedTokenRepo = revokedTokenRepo;
+        this.userRevocationRepo = userRevocationRepo;
+        this.props = props;
+        this.rejected = Counter.builder("auth.revocation.rejected")
+                .description("Requests rejected because their token was revoked")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("auth.revocation.bloom.false.positives")
+                .description("Bloom filter hits for tokens that were not revoked")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.tokens", this, list -> list.snapshot.tokens().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.users", this, list -> list.snapshot.users().size())
+                .register(meterRegistry);
+
+        rebuild();
+    }
+
+    /**
+     * @return {@code true} if the token of {@code user} has been revoked
+     */
+    public boolean isRevoked(AuthenticatedUser user) {
+        Snapshot current = snapshot;
+        Claims claims = user.claims();
+
+        if (!current.users().isEmpty()) {
+            Long revokedBefore = current.users().get(user.userId());
+            if (revokedBefore != null && issuedAtMillis(claims) < revokedBefore) {
+                rejected.increment();
+                return true;
+            }
+        }
+
+        String jti = claims.getId();
+        if (jti != null && current.bloom().mightContain(jti)) {
+            if (current.tokens().containsKey(jti)) {
+                rejected.increment();
+                return true;
+            }
+            falsePositives.increment();
+        }
+        return false;
+    }
+
+    /**
+     * Revokes the single token described by {@code claims}. Tokens minted
+     * before {@code jti} was introduced can only be revoked together with all
+     * other tokens of the user.
+     */
+    public void revoke(Long userId, Claims claims) {
+        String jti = claims.getId();
+        if (jti == null) {
+            revokeAll(userId);
+            return;
+        }
+        Instant exp = claims.getExpiration().toInstant();
+        revokedTokenRepo.revoke(jti, userId, exp.atOffset(ZoneOffset.UTC));
+        snapshot.add(jti, exp.getEpochSecond());
+    }
+
+    /** Revokes every token issued to the user so far. */
+    public void revokeAll(Long userId) {
+        Instant revokedBefore = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        userRevocationRepo.revokeAll(userId, revokedBefore.atOffset(ZoneOffset.UTC));
+        snapshot.users().merge(userId, revokedBefore.toEpochMilli(), Math::max);
+    }
+
+    /** Pulls revocations recorded since the last sync, e.g. by other nodes. */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation-refresh-interval:5s}")
+    public void refresh() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime since = lastSync.minus(SYNC_OVERLAP);
+        Snapshot current = snapshot;
+
+        for (RevokedToken token : revokedTokenRepo.findByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+            current.add(token.getJti(), token.getExpiresAt().toEpochSecond());
+        }
+        for (UserTokenRevocation revocation : userRevocationRepo.findByUpdatedAtAfter(since)) {
+            current.users().merge(revocation.getUserId(), epochMillis(revocation), Math::max);
+        }
+        lastSync = now;
+
+        if (current.tokens().size() > current.bloom().capacity()) {
+            rebuild();
+        }
+    }
+
+    /** Replaces the view with a fresh one holding only unexpired revocations. */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation-rebuild-interval:1h}",
+               initialDelayString = "${security.jwt.revocation-rebuild-interval:1h}")
+    public void rebuild() {
+        OffsetDateTime now = OffsetDateTime.now();
+        revokedTokenRepo.deleteExpired(now);
+        userRevocationRepo.deleteOlderThan(now.minus(props.getTtl()));
+
+        var tokens = revokedTokenRepo.findByExpiresAtAfter(now);
+        var users = userRevocationRepo.findAll();
+
+        Snapshot fresh = new Snapshot(
+                BloomFilter.create(Math.max(props.getRevocationBloomCapacity(), 2 * tokens.size()), FALSE_POSITIVE_RATE),
+                new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        for (RevokedToken token : tokens) {
+            fresh.add(token.getJti(), token.getExpiresAt().toEpochSecond());
+        }
+        for (UserTokenRevocation revocation : users) {
+            fresh.users().merge(revocation.getUserId(), epochMillis(revocation), Math::max);
+        }
+        snapshot = fresh;
+        lastSync = now;
+    }
+
+    private static long issuedAtMillis(Claims claims) {
+        if (claims.get(JwtService.ISSUED_AT_MILLIS) instanceof Number millis) {
+            return millis.longValue();
+        }
+        Date iat = claims.getIssuedAt();
+        return iat == null ? Long.MIN_VALUE : iat.getTime();
+    }
+
+    private static long epochMillis(UserTokenRevocation revocation) {
+        return revocation.getRevokedBefore().toInstant().toEpochMilli();
+    }
+
+    /**
+     * @param tokens revoked jti -> its {@code exp} in epoch seconds
+     * @param users  user id -> epoch millisecond before which its tokens are revoked
+     */
+    private record Snapshot(BloomFilter bloom, ConcurrentMap<String, Long> tokens,
+                            ConcurrentMap<Long, Long> users) {
+
+        void add(String jti, long expiresAt) {
+            // exact set first, so a bloom hit always finds the entry
+            tokens.put(jti, expiresAt);
+            bloom.put(jti);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.service.sector.aggregator.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.service.external.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already verified tokens in front of {@link JwtService#getClaims(String)}.
+ * <p>
+ * Entries are keyed by the signature segment of the JWT (an HMAC, so already a
+ * digest of header and payload) and hold the complete token, which is compared
+ * on every hit so a forged token re-using a known signature is still verified.
+ * Each entry expires at the token's {@code exp}; size is capped by
+ * {@code security.jwt.verified-cache-size} with Caffeine's W-TinyLFU eviction.
+ * Hit/miss statistics are published as {@code cache.*{cache=jwt.verified-tokens}}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtService jwtService;
+    private final JwtProperties props;
+    private final Cache<String, Entry> cache;
+
+    public VerifiedTokenCache(JwtService jwtService, JwtProperties props, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.props = props;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getVerifiedCacheSize())
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    /**
+     * Returns the verified claims of {@code token} (raw JWT, without the
+     * "Bearer " prefix), verifying it only on a cache miss.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid
+     */
+    public Jws<Claims> getClaims(String token) {
+        String key = signatureOf(token);
+        String secret = props.getSecret();
+
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && cached.token().equals(token) && cached.secret().equals(secret)) {
+            return cached.jws();
+        }
+
+        Jws<Claims> jws = jwtService.getClaims(token);
+        Date exp = jws.getPayload().getExpiration();
+        if (exp != null) {
+            cache.put(key, new Entry(token, secret, jws, exp.getTime()));
+        }
+        return jws;
+    }
+
+    /** Drops every cached verification, e.g. after a key rotation or revocation. */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String signatureOf(String token) {
+        return token.substring(token.lastIndexOf('.') + 1);
+    }
+
+    private record Entry(String token, String secret, Jws<Claims> jws, long expiresAtMillis) {
+    }
+
+    /** Expires each entry exactly at the token's {@code exp}. */
+    private static final class ExpireAtTokenExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            long millisLeft = entry.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.service.sector.aggregator.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Storage for one-time SMS codes, selected with {@code security.otp.store}.
+ */
+public interface OtpStore {
+
+    /**
+     * Stores a new code for the phone, or returns the pending one if it was
+     * issued within the re-use window.
+     *
+     * @param codeGenerator produces the code; called only when a new one is needed
+     */
+    IssuedOtp issue(String phone, Supplier<String> codeGenerator);
+
+    /**
+     * Verifies the code and, when it matches, removes it so it cannot be used twice.
+     *
+     * @return {@code true} if the code matched a pending, unexpired code
+     */
+    boolean consume(String phone, String code);
+
+    /** Discards any pending code for the phone. */
+    void invalidate(String phone);
+
+    /**
+     * Discards the pending code for the phone, but only while it is still
+     * {@code code}; a newer code issued in the meantime is kept.
+     */
+    void invalidate(String phone, String code);
+
+    /**
+     * @param code  code to deliver
+     * @param fresh {@code false} when a pending code was re-used and has already been sent
+     */
+    record IssuedOtp(String code, boolean fresh) {}
+}
@@ -0,0 +1,40 @@
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.data.entity.Role;
+import com.service.sector.aggregator.data.enums.RoleName;
+import com.service.sector.aggregator.data.repositories.RoleRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The static {@code role} rows (seeded by Liquibase changeset 007), read once
+ * at startup so role assignment needs no query.
+ * <p>
+ * The returned entities are detached; they can be referenced from
+ * {@code AppUser.roles} because the association does not cascade.
+ */
+@Component
+public class RoleRegistry {
+
+    private final Map<RoleName, Role> roles;
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        EnumMap<RoleName, Role> byName = new EnumMap<>(RoleName.class);
+        for (Role role : roleRepository.findAll()) {
+            byName.put(role.getRoleName(), role);
+        }
+        for (RoleName name : RoleName.values()) {
+            if (!byName.containsKey(name)) {
+                throw new IllegalStateException(name + " role not found");
+            }
+        }
+        this.roles = Collections.unmodifiableMap(byName);
+    }
+
+    public Role get(RoleName name) {
+        return roles.get(name);
+    }
+}
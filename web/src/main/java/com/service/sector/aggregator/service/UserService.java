@@ -4,6 +4,7 @@ import com.service.sector.aggregator.data.dto.AppUserRequest;
 import com.service.sector.aggregator.data.dto.AppUserResponse;
 import com.service.sector.aggregator.data.dto.auth.LoginRequest;
 import com.service.sector.aggregator.data.entity.AppUser;
+import com.service.sector.aggregator.security.AuthenticatedUser;
 
 public interface UserService {
     AppUserResponse register(AppUserRequest request);
@@ -13,4 +14,10 @@ public interface UserService {
     void sendCode(String phone);
 
     AppUserResponse getUserDetails(Long userId);
+
+    /** Revokes the token the caller authenticated with. */
+    void logout(AuthenticatedUser user);
+
+    /** Revokes every token issued to the user so far. */
+    void logoutEverywhere(Long userId);
 }
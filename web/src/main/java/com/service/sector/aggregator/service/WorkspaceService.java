@@ -0,0 +1,37 @@
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.data.dto.BecomeLandlordResponse;
+import com.service.sector.aggregator.data.dto.PhotoUploadSlots;
+import com.service.sector.aggregator.data.dto.ResumableUploadStatus;
+import com.service.sector.aggregator.data.dto.WorkspacePhotoDto;
+import com.service.sector.aggregator.data.dto.WorkspaceResponse;
+import com.service.sector.aggregator.data.entity.AppUser;
+import com.service.sector.aggregator.data.entity.Workspace;
+import com.service.sector.aggregator.data.form.WorkspaceForm;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+public interface WorkspaceService {
+    BecomeLandlordResponse requestLandlord(Long userId, WorkspaceForm form, List<MultipartFile> photos);
+    WorkspaceResponse createWorkspace(Long userId, WorkspaceForm form, List<MultipartFile> photos);
+    /** Presigned URLs to upload {@code count} photos straight to storage. */
+    PhotoUploadSlots startPhotoUpload(Long userId, int count);
+    /** Same as the multipart variant, with the photos of a confirmed direct upload. */
+    BecomeLandlordResponse requestLandlord(Long userId, WorkspaceForm form, String uploadId);
+    /** Same as the multipart variant, with the photos of a confirmed direct upload. */
+    WorkspaceResponse createWorkspace(Long userId, WorkspaceForm form, String uploadId);
+    /** Starts a resumable upload of photos of the given lengths. */
+    ResumableUploadStatus startResumableUpload(Long userId, List<Long> lengths);
+    /** Same as the multipart variant, with the photos of a complete resumable upload. */
+    BecomeLandlordResponse requestLandlordFromResumableUpload(Long userId, WorkspaceForm form, String uploadId);
+    /** Same as the multipart variant, with the photos of a complete resumable upload. */
+    WorkspaceResponse createWorkspaceFromResumableUpload(Long userId, WorkspaceForm form, String uploadId);
+    /** Photos of a workspace of {@code userId}, in display order, with their processing status. */
+    List<WorkspacePhotoDto> getPhotos(Long userId, Long workspaceId);
+    /** Deletes a workspace of {@code userId} with its photos. */
+    void deleteWorkspace(Long userId, Long workspaceId);
+    List<Workspace> getWorkspacesByOwner(AppUser owner);
+    List<Workspace> getWorkspacesByOwnerId(Long ownerId);
+}
+
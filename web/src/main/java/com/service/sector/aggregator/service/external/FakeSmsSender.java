@@ -0,0 +1,45 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.SmsProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for SNS ({@code sms.sender=fake}). Nothing leaves the
+ * JVM; every send just waits {@code sms.fake-latency} to mimic a provider
+ * round trip, which makes it usable for local runs and load tests.
+ */
+@Service
+@ConditionalOnProperty(prefix = "sms", name = "sender", havingValue = "fake")
+public class FakeSmsSender implements SmsSender {
+
+    private static final Logger log = LoggerFactory.getLogger(FakeSmsSender.class);
+
+    private final SmsProperties props;
+    private final AtomicLong sent = new AtomicLong();
+
+    public FakeSmsSender(SmsProperties props) {
+        this.props = props;
+    }
+
+    @Override
+    public void send(String phoneE164, String message) {
+        try {
+            Thread.sleep(props.getFakeLatency());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        sent.incrementAndGet();
+        log.debug("Fake SMS to {}: {}", phoneE164, message);
+    }
+
+    /** Number of messages "delivered" so far. */
+    public long sentCount() {
+        return sent.get();
+    }
+}
@@ -0,0 +1,105 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.data.entity.AppUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Very lightweight JWT helper (HS256, short‑lived). No refresh‑token flow yet.
+ * Every token carries a random {@code jti} so it can be revoked on its own.
+ * <p>
+ * The HMAC key and the (immutable, thread-safe) parser are built once and
+ * reused; they are rebuilt only when {@link JwtProperties#getSecret()} changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class JwtService {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Issue time in epoch milliseconds; {@code iat} only has whole seconds,
+     * too coarse to compare against a "log out everywhere" cutoff.
+     */
+    public static final String ISSUED_AT_MILLIS = "iat_ms";
+
+    private final JwtProperties props;
+
+    /** Key material derived from the current secret, swapped atomically on change. */
+    private volatile KeyMaterial keyMaterial;
+
+    public String generateToken(AppUser user) {
+        Instant now = Instant.now();
+        String token = Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(user.getId().toString())
+                .claim("uid", user.getId())
+                .claim("phone", user.getPhone())
+                .claim("name", user.getRealName())
+                .issuedAt(Date.from(now))
+                .claim(ISSUED_AT_MILLIS, now.toEpochMilli())
+                .expiration(Date.from(now.plus(props.getTtl())))
+                .signWith(keyMaterial().key(), Jwts.SIG.HS256)
+                .compact();
+
+        return token;
+    }
+
+    public Long parseUserId(String token) {
+        Jws<Claims> jws = getClaims(token);
+        Claims claims = jws.getPayload();
+        Long userId = Long.valueOf(claims.getSubject());
+        return userId;
+    }
+
+    public Long extractUserId(String bearerToken) {
+        return parseUserId(bearerToken);
+    }
+
+    /**
+     * Verifies the token and returns its claims; accepts the raw JWT or the
+     * complete <code>"Bearer &lt;jwt&gt;"</code> header value.
+     */
+    public Jws<Claims> getClaims(String bearerToken) {
+        return keyMaterial().parser().parseSignedClaims(stripBearer(bearerToken));
+    }
+
+    private static String stripBearer(String token) {
+        return token.startsWith(BEARER_PREFIX) ? token.substring(BEARER_PREFIX.length()) : token;
+    }
+
+    /**
+     * Returns the cached key material, rebuilding it when the configured secret
+     * differs from the one it was derived from. The common case is a single
+     * volatile read plus an identity comparison inside {@link String#equals}.
+     */
+    private KeyMaterial keyMaterial() {
+        String secret = props.getSecret();
+        KeyMaterial current = keyMaterial;
+        if (current == null || !current.secret().equals(secret)) {
+            current = KeyMaterial.of(secret);
+            keyMaterial = current;
+        }
+        return current;
+    }
+
+    private record KeyMaterial(String secret, SecretKey key, JwtParser parser) {
+
+        static KeyMaterial of(String secret) {
+            SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+            return new KeyMaterial(secret, key, Jwts.parser().verifyWith(key).build());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.SmsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Asynchronous SMS delivery pipeline.
+ * <p>
+ * Requests only {@link #enqueue} a message into a bounded queue and return.
+ * A dispatcher thread drains the queue in batches and hands every message to
+ * a virtual thread; at most {@code sms.max-concurrency} deliveries run at
+ * once. Each attempt is bounded by {@code sms.timeout} and failed attempts
+ * are retried with exponential backoff.
+ * <p>
+ * Metrics: {@code sms.queue.depth}, {@code sms.send.latency} (tagged with
+ * outcome), {@code sms.send.retries} and {@code sms.queue.rejected}.
+ */
+@Service
+public class SmsDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(SmsDispatcher.class);
+
+    private final SmsSender sender;
+    private final SmsProperties props;
+    private final BlockingQueue<SmsMessage> queue;
+    private final Semaphore inFlight;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Timer delivered;
+    private final Timer failed;
+    private final Counter retries;
+    private final Counter rejected;
+    private Thread dispatcher;
+
+    public SmsDispatcher(SmsSender sender, SmsProperties props, MeterRegistry meterRegistry) {
+        this.sender = sender;
+        this.props = props;
+        this.queue = new LinkedBlockingQueue<>(props.getQueueCapacity());
+        this.inFlight = new Semaphore(props.getMaxConcurrency());
+
+        Gauge.builder("sms.queue.depth", queue, BlockingQueue::size)
+                .description("SMS messages waiting for delivery")
+                .register(meterRegistry);
+        this.delivered = Timer.builder("sms.send.latency").tag("outcome", "delivered")
+                .description("Time from enqueue to the end of delivery")
+                .register(meterRegistry);
+        this.failed = Timer.builder("sms.send.latency").tag("outcome", "failed")
+                .description("Time from enqueue to the end of delivery")
+                .register(meterRegistry);
+        this.retries = Counter.builder("sms.send.retries").register(meterRegistry);
+        this.rejected = Counter.builder("sms.queue.rejected").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = Thread.ofVirtual().name("sms-dispatcher").start(this::dispatchLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(props.getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues a message for delivery.
+     *
+     * @param onFailure run when the message could not be delivered after all retries
+     * @return {@code false} if the queue is full and the message was dropped
+     */
+    public boolean enqueue(String phoneE164, String message, Runnable onFailure) {
+        boolean accepted = queue.offer(new SmsMessage(phoneE164, message, onFailure, System.nanoTime()));
+        if (!accepted) {
+            rejected.increment();
+        }
+        return accepted;
+    }
+
+    private void dispatchLoop() {
+        List<SmsMessage> batch = new ArrayList<>(props.getBatchSize());
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, props.getBatchSize() - 1);
+                for (SmsMessage message : batch) {
+                    inFlight.acquire();
+                    workers.execute(() -> {
+                        try {
+                            deliver(message);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException | RejectedExecutionException e) {
+            log.debug("SMS dispatcher stopped, {} message(s) left in queue", queue.size() + batch.size());
+        }
+    }
+
+    private void deliver(SmsMessage message) {
+        Duration backoff = props.getInitialBackoff();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attempt(message);
+                delivered.record(System.nanoTime() - message.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                if (attempt >= props.getMaxAttempts()) {
+                    log.warn("SMS to {} failed after {} attempt(s): {}", masked(message.phone()), attempt, e.toString());
+                    failed.record(System.nanoTime() - message.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                    message.onFailure().run();
+                    return;
+                }
+            }
+            retries.increment();
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = backoff.multipliedBy(2);
+        }
+    }
+
+    /** One delivery attempt, abandoned after {@code sms.timeout}. */
+    private void attempt(SmsMessage message) throws Exception {
+        Future<?> send = workers.submit(() -> sender.send(message.phone(), message.message()));
+        try {
+            send.get(props.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            send.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /** Keeps only the last 4 digits, so logs do not hold full phone numbers. */
+    static String masked(String phone) {
+        if (phone == null || phone.length() <= 4) {
+            return "****";
+        }
+        return "*".repeat(phone.length() - 4) + phone.substring(phone.length() - 4);
+    }
+
+    private record SmsMessage(String phone, String message, Runnable onFailure, long enqueuedAtNanos) {
+    }
+}
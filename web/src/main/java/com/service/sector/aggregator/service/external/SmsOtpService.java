@@ -1,33 +1,23 @@
 package com.service.sector.aggregator.service.external;
 import com.service.sector.aggregator.exceptions.InvalidPhoneNumberException;
 import com.service.sector.aggregator.exceptions.SmsDeliveryException;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.sns.SnsClient;
-import software.amazon.awssdk.services.sns.model.*;
 
 import java.security.SecureRandom;
-import java.util.Map;
 
 @Service
-public class SmsOtpService implements AutoCloseable {
+public class SmsOtpService {
     public static final String TEST_PHONE_PREFIX = "+0";
     public static final String DEFAULT_TEST_CODE = "123456";
 
-    private final SnsClient sns;
+    private final SmsDispatcher dispatcher;
     private final SecureRandom rnd = new SecureRandom();
 
-    private static final String SMS_TYPE_ATTRIBUTE = "AWS.SNS.SMS.SMSType";
     private static final int CODE_LENGTH = 6;
     private static final int MAX_CODE = 1_000_000;
 
-    public SmsOtpService(
-            @Value("${aws.sns.region}") Region region
-    ) {
-        sns = SnsClient.builder()
-                .region(region)
-                .build();
+    public SmsOtpService(SmsDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
     }
 
     /** Returns a zero-padded six–digit string, e.g. "034921". */
@@ -40,11 +30,19 @@ public class SmsOtpService implements AutoCloseable {
     }
 
     /**
-     * Sends the code; number must be in E.164, e.g. "+447911123456".
+     * Queues the code for delivery; number must be in E.164, e.g. "+447911123456".
      * @throws InvalidPhoneNumberException if phone number format is invalid
-     * @throws SmsDeliveryException if SMS delivery fails
+     * @throws SmsDeliveryException if the delivery queue is full
      */
     public void send(String phoneE164, String code) {
+        send(phoneE164, code, () -> { });
+    }
+
+    /**
+     * Same as {@link #send(String, String)}; {@code onDeliveryFailure} runs if
+     * the message still cannot be delivered after all retries.
+     */
+    public void send(String phoneE164, String code, Runnable onDeliveryFailure) {
         validatePhoneNumber(phoneE164);
 
         // Skip SMS sending for test numbers
@@ -52,17 +50,8 @@ public class SmsOtpService implements AutoCloseable {
             return;
         }
 
-        try {
-            // Publish directly to phone number
-            PublishRequest publishRequest = PublishRequest.builder()
-                    .phoneNumber(phoneE164)  // Direct to phone number
-                    .message(formatMessage(code))
-                    .messageAttributes(createMessageAttributes())
-                    .build();
-
-            sns.publish(publishRequest);
-        } catch (SnsException e) {
-            throw new SmsDeliveryException("Failed to send SMS: " + e.getMessage(), e);
+        if (!dispatcher.enqueue(phoneE164, formatMessage(code), onDeliveryFailure)) {
+            throw new SmsDeliveryException("Failed to send SMS: delivery queue is full", null);
         }
     }
 
@@ -83,21 +72,4 @@ public class SmsOtpService implements AutoCloseable {
     private String formatMessage(String code) {
         return "Your verification code: " + code;
     }
-
-    private Map<String, MessageAttributeValue> createMessageAttributes() {
-        return Map.of(
-                SMS_TYPE_ATTRIBUTE,
-                MessageAttributeValue.builder()
-                        .stringValue("Transactional")
-                        .dataType("String")
-                        .build()
-        );
-    }
-
-    @Override
-    public void close() {
-        if (sns != null) {
-            sns.close();
-        }
-    }
-}
\ No newline at end of file
+}
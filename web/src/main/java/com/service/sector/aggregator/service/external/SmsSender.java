@@ -0,0 +1,14 @@
+package com.service.sector.aggregator.service.external;
+
+/**
+ * Delivers a text message to a phone number; selected with {@code sms.sender}.
+ */
+public interface SmsSender {
+
+    /**
+     * Sends synchronously; number must be in E.164.
+     *
+     * @throws com.service.sector.aggregator.exceptions.SmsDeliveryException if delivery fails
+     */
+    void send(String phoneE164, String message);
+}
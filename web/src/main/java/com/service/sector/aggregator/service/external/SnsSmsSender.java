@@ -0,0 +1,73 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.SmsProperties;
+import com.service.sector.aggregator.exceptions.SmsDeliveryException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.SnsException;
+
+import java.util.Map;
+
+/**
+ * {@link SmsSender} that publishes directly to the phone number through AWS SNS.
+ */
+@Service
+@ConditionalOnProperty(prefix = "sms", name = "sender", havingValue = "sns", matchIfMissing = true)
+public class SnsSmsSender implements SmsSender, AutoCloseable {
+
+    private static final String SMS_TYPE_ATTRIBUTE = "AWS.SNS.SMS.SMSType";
+
+    private final SnsClient sns;
+
+    @Autowired
+    public SnsSmsSender(@Value("${aws.sns.region}") Region region, SmsProperties props) {
+        this(SnsClient.builder()
+                .region(region)
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .apiCallTimeout(props.getTimeout())
+                        .build())
+                .build());
+    }
+
+    SnsSmsSender(SnsClient sns) {
+        this.sns = sns;
+    }
+
+    @Override
+    public void send(String phoneE164, String message) {
+        try {
+            // Publish directly to phone number
+            PublishRequest publishRequest = PublishRequest.builder()
+                    .phoneNumber(phoneE164)  // Direct to phone number
+                    .message(message)
+                    .messageAttributes(createMessageAttributes())
+                    .build();
+
+            sns.publish(publishRequest);
+        } catch (SnsException e) {
+            throw new SmsDeliveryException("Failed to send SMS: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<String, MessageAttributeValue> createMessageAttributes() {
+        return Map.of(
+                SMS_TYPE_ATTRIBUTE,
+                MessageAttributeValue.builder()
+                        .stringValue("Transactional")
+                        .dataType("String")
+                        .build()
+        );
+    }
+
+    @Override
+    public void close() {
+        sns.close();
+    }
+}
@@ -21,6 +21,7 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +31,7 @@ public class AdminServiceImpl implements AdminService {
     private final WorkspaceRepository workspaceRepo;
 
     @Override
+    @Transactional(readOnly = true)     // workspace photos are loaded lazily
     public List<PendingLandlordDto> getLandlordsByStatus(RoleRequestStatus status) {
         List<AppUser> users = userRepo.findByLandlordRoleStatus(status);
         List<PendingLandlordDto> landlordsToApprove = new ArrayList<>();
@@ -80,6 +82,7 @@ public class AdminServiceImpl implements AdminService {
     private WorkspaceSummaryDto toSummaryDto(Workspace ws) {
         return new WorkspaceSummaryDto(ws.getId(), ws.getName(), ws.getCity(), ws.getAddress(),
                 ws.getPhotos().stream().map(
-                        photo -> new WorkspacePhotoDto(photo.getId(), photo.getFilePath(), photo.getOrder())).toList());
+                        photo -> new WorkspacePhotoDto(photo.getId(), photo.getFilePath(), photo.getOrder(),
+                                Map.copyOf(photo.getVariants()), photo.getStatus())).toList());
     }
 }
\ No newline at end of file
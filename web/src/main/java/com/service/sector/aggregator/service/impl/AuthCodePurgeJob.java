@@ -0,0 +1,110 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.OtpProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+
+/**
+ * Deletes auth_codes rows older than {@code security.otp.ttl}. Runs whatever
+ * {@code security.otp.store} is, so rows left behind by the jpa store are
+ * purged after switching to memory.
+ * <p>
+ * Only one node runs the purge at a time: it holds a session-level Postgres
+ * advisory lock on its own connection for the duration of the run, and nodes
+ * that cannot take the lock skip the round. Rows are deleted in batches of
+ * {@code security.otp.purge-batch-size}, each in its own auto-committed
+ * statement, so no lock is held for long.
+ * <p>
+ * Metrics: {@code otp.purge.rows} and {@code otp.purge.duration}.
+ */
+@Component
+public class AuthCodePurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthCodePurgeJob.class);
+
+    /** Advisory lock key, unique to this job. */
+    static final long LOCK_KEY = 0x61757468_636f6465L;   // "authcode"
+
+    private static final String DELETE_BATCH = """
+            DELETE FROM auth_codes WHERE ctid IN (
+                SELECT ctid FROM auth_codes WHERE created_at < ? LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OtpProperties props;
+    private final Counter purgedRows;
+    private final Timer duration;
+
+    public AuthCodePurgeJob(JdbcTemplate jdbcTemplate, OtpProperties props, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.props = props;
+        this.purgedRows = Counter.builder("otp.purge.rows")
+                .description("Expired auth_codes rows deleted")
+                .register(meterRegistry);
+        this.duration = Timer.builder("otp.purge.duration")
+                .description("Time taken by a purge run that held the lock")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${security.otp.purge-interval:5m}",
+               initialDelayString = "${security.otp.purge-interval:5m}")
+    public void purge() {
+        Integer purged = jdbcTemplate.execute((ConnectionCallback<Integer>) this::purgeHoldingLock);
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired auth code(s)", purged);
+        }
+    }
+
+    /** @return rows deleted, or {@code null} when another node holds the lock */
+    private Integer purgeHoldingLock(Connection con) throws SQLException {
+        if (!advisoryLock(con, "SELECT pg_try_advisory_lock(?)")) {
+            return null;
+        }
+        Timer.Sample sample = Timer.start();
+        try {
+            return deleteExpired(con);
+        } finally {
+            sample.stop(duration);
+            advisoryLock(con, "SELECT pg_advisory_unlock(?)");
+        }
+    }
+
+    private int deleteExpired(Connection con) throws SQLException {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(props.getTtl());
+        int batchSize = props.getPurgeBatchSize();
+        int total = 0;
+        try (PreparedStatement delete = con.prepareStatement(DELETE_BATCH)) {
+            delete.setObject(1, cutoff);
+            delete.setInt(2, batchSize);
+            int deleted;
+            do {
+                deleted = delete.executeUpdate();
+                purgedRows.increment(deleted);
+                total += deleted;
+            } while (deleted == batchSize);
+        }
+        return total;
+    }
+
+    private static boolean advisoryLock(Connection con, String sql) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, LOCK_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.OtpProperties;
+import com.service.sector.aggregator.service.OtpStore;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Default {@link OtpStore}: codes live in a concurrent map and are removed by
+ * a timer when their TTL runs out. Issuing and verifying a code never touches
+ * the database.
+ */
+@Service
+@ConditionalOnProperty(prefix = "security.otp", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private final OtpProperties props;
+    private final ConcurrentMap<String, PendingCode> codes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService expiryTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "otp-expiry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public InMemoryOtpStore(OtpProperties props) {
+        this.props = props;
+    }
+
+    @Override
+    public IssuedOtp issue(String phone, Supplier<String> codeGenerator) {
+        long now = System.currentTimeMillis();
+        PendingCode[] created = new PendingCode[1];
+
+        // keep the pending code while it is still within the re-use window; only generate one otherwise
+        PendingCode current = codes.compute(phone, (p, pending) -> {
+            if (pending != null && pending.reusableAt(now, props)) {
+                return pending;
+            }
+            created[0] = new PendingCode(codeGenerator.get(), now, now + props.getTtl().toMillis());
+            return created[0];
+        });
+
+        if (current != created[0]) {
+            return new IssuedOtp(current.code(), false);
+        }
+        expiryTimer.schedule(() -> codes.remove(phone, current), props.getTtl().toMillis(), TimeUnit.MILLISECONDS);
+        return new IssuedOtp(current.code(), true);
+    }
+
+    @Override
+    public boolean consume(String phone, String code) {
+        PendingCode pending = codes.get(phone);
+        if (pending == null || code == null || pending.expiredAt(System.currentTimeMillis())) {
+            return false;
+        }
+        if (pending.attempts().incrementAndGet() > props.getMaxAttempts()) {
+            codes.remove(phone, pending);
+            return false;
+        }
+        if (!MessageDigest.isEqual(pending.code().getBytes(StandardCharsets.UTF_8),
+                code.getBytes(StandardCharsets.UTF_8))) {
+            return false;
+        }
+        // only one of several concurrent logins with the same code wins
+        return codes.remove(phone, pending);
+    }
+
+    @Override
+    public void invalidate(String phone) {
+        codes.remove(phone);
+    }
+
+    @Override
+    public void invalidate(String phone, String code) {
+        codes.computeIfPresent(phone, (p, pending) -> pending.code().equals(code) ? null : pending);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        expiryTimer.shutdownNow();
+    }
+
+    private record PendingCode(String code, long issuedAtMillis, long expiresAtMillis, AtomicInteger attempts) {
+
+        PendingCode(String code, long issuedAtMillis, long expiresAtMillis) {
+            this(code, issuedAtMillis, expiresAtMillis, new AtomicInteger());
+        }
+
+        boolean expiredAt(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+
+        boolean reusableAt(long nowMillis, OtpProperties props) {
+            return !expiredAt(nowMillis)
+                    && nowMillis - issuedAtMillis < props.getReuseWindow().toMillis()
+                    && attempts.get() < props.getMaxAttempts();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.OtpProperties;
+import com.service.sector.aggregator.data.entity.AuthCode;
+import com.service.sector.aggregator.data.repositories.AuthCodeRepository;
+import com.service.sector.aggregator.service.OtpStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Durable {@link OtpStore} backed by the auth_codes table
+ * ({@code security.otp.store=jpa}); use when codes must survive restarts or
+ * be shared by several nodes. Expired rows are removed by {@link AuthCodePurgeJob}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "security.otp", name = "store", havingValue = "jpa")
+@RequiredArgsConstructor
+public class JpaOtpStore implements OtpStore {
+
+    private final AuthCodeRepository authCodeRepository;
+    private final OtpProperties props;
+
+    @Override
+    @Transactional
+    public IssuedOtp issue(String phone, Supplier<String> codeGenerator) {
+        // keep the pending code while it is still within the re-use window
+        OffsetDateTime now = OffsetDateTime.now();
+        List<AuthCode> pending = authCodeRepository.lockByPhone(phone);
+        if (!pending.isEmpty() && reusableAt(pending.get(0), now)) {
+            return new IssuedOtp(pending.get(0).getCode(), false);
+        }
+
+        String code = codeGenerator.get();
+        authCodeRepository.deleteAllByPhone(phone);
+        authCodeRepository.save(AuthCode.builder().phone(phone).code(code).build());
+        return new IssuedOtp(code, true);
+    }
+
+    /**
+     * One {@code DELETE ... RETURNING} round trip; a code can be consumed only
+     * once. A miss costs a second statement that counts the wrong guess.
+     */
+    @Override
+    @Transactional
+    public boolean consume(String phone, String code) {
+        if (code == null) {
+            return false;
+        }
+        OffsetDateTime issuedAfter = OffsetDateTime.now().minus(props.getTtl());
+        if (!authCodeRepository.consume(phone, code, issuedAfter, props.getMaxAttempts()).isEmpty()) {
+            return true;
+        }
+        authCodeRepository.countFailedAttempt(phone, issuedAfter);
+        return false;
+    }
+
+    @Override
+    @Transactional
+    public void invalidate(String phone) {
+        authCodeRepository.deleteAllByPhone(phone);
+    }
+
+    @Override
+    @Transactional
+    public void invalidate(String phone, String code) {
+        authCodeRepository.deleteByPhoneAndCode(phone, code);
+    }
+
+    private boolean reusableAt(AuthCode pending, OffsetDateTime now) {
+        return pending.getCreatedAt().isAfter(now.minus(props.getTtl()))
+                && pending.getCreatedAt().isAfter(now.minus(props.getReuseWindow()))
+                && pending.getAttempts() < props.getMaxAttempts();
+    }
+}
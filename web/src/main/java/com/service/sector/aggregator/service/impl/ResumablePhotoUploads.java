@@ -0,0 +1,369 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.data.dto.ResumableUploadStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Photo uploads a client sends in chunks and can resume after a dropped
+ * connection, instead of one large multipart request.
+ * <p>
+ * A session ({@link #start}) declares the length of each photo. Each chunk is
+ * written at the offset the client gives, which may not be past the bytes
+ * received so far: a client that lost the acknowledgement simply resends
+ * from an earlier offset ({@link #status} tells it where to continue). Bytes
+ * are written straight from a pooled buffer to
+ * {@code <resumable-spool-dir>/<uploadId>/<photo>} with positional writes,
+ * and the offset advances with every write, so a chunk cut off midway still
+ * counts for what arrived. With {@code workspace.photos.resumable-fsync=chunk}
+ * the file is forced to disk before a chunk is acknowledged.
+ * <p>
+ * Sessions are kept on disk ({@code session.properties} next to the photos)
+ * and survive a restart, offsets being the spooled file sizes. Once every
+ * photo is complete the upload is finalized: its photos are handed to the
+ * workspace service ({@link #photos}) and the session deleted
+ * ({@link #complete}). Sessions not finalized within
+ * {@code workspace.photos.resumable-upload-ttl} are swept.
+ * <p>
+ * Metric: {@code photo.upload.retransmitted}, bytes received more than once
+ * per completed upload.
+ */
+@Component
+public class ResumablePhotoUploads {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumablePhotoUploads.class);
+
+    private static final String SESSION_FILE = "session.properties";
+
+    private final PhotoProperties props;
+    private final DirectBufferPool bufferPool;
+    private final Path spool;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final DistributionSummary retransmitted;
+
+    public ResumablePhotoUploads(PhotoProperties props, DirectBufferPool bufferPool, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.bufferPool = bufferPool;
+        this.spool = props.getResumableSpoolDir().toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(spool);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create spool directory " + spool, e);
+        }
+        this.retransmitted = DistributionSummary.builder("photo.upload.retransmitted")
+                .description("Bytes of a completed resumable upload that were received more than once")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /** Starts an upload of photos of the given lengths for {@code userId}. */
+    public ResumableUploadStatus start(Long userId, List<Long> lengths) throws IOException {
+        long maxSize = props.getMaxUploadSize().toBytes();
+        if (lengths.stream().anyMatch(length -> length > maxSize)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Photo larger than " + props.getMaxUploadSize());
+        }
+        String uploadId = UUID.randomUUID().toString();
+        Session session = new Session(uploadId, userId, Instant.now().plus(props.getResumableUploadTtl()),
+                lengths.stream().mapToLong(Long::longValue).toArray(), spool.resolve(uploadId));
+
+        // written aside and moved in, so a session directory always has a complete session file
+        Path staging = spool.resolve(uploadId + ".new");
+        Files.createDirectories(staging);
+        Properties saved = new Properties();
+        saved.setProperty("user", userId.toString());
+        saved.setProperty("expires", session.expiresAt.toString());
+        saved.setProperty("lengths", Arrays.stream(session.lengths).mapToObj(Long::toString)
+                .collect(Collectors.joining(",")));
+        try (var out = Files.newOutputStream(staging.resolve(SESSION_FILE))) {
+            saved.store(out, null);
+        }
+        Files.move(staging, session.dir, ATOMIC_MOVE);
+        sessions.put(uploadId, session);
+        return session.status();
+    }
+
+    public ResumableUploadStatus status(Long userId, String uploadId) {
+        return find(userId, uploadId).status();
+    }
+
+    /**
+     * Writes a chunk of photo {@code photo} starting at {@code offset}, up to
+     * the end of {@code body}.
+     *
+     * @return the photo's offset afterwards
+     */
+    public long write(Long userId, String uploadId, int photo, long offset, InputStream body) throws IOException {
+        Session session = find(userId, uploadId);
+        if (photo < 0 || photo >= session.lengths.length) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Photo not found");
+        }
+        ReentrantLock lock = session.locks[photo];
+        if (!lock.tryLock()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Another chunk of this photo is being written");
+        }
+        try {
+            long current = session.offsets.get(photo);
+            if (offset < 0 || offset > current) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Upload-Offset " + offset + " does not match the received " + current);
+            }
+            try (FileChannel file = FileChannel.open(session.file(photo), CREATE, WRITE)) {
+                try {
+                    receive(session, photo, offset, Channels.newChannel(body), file);
+                } finally {
+                    if (props.getResumableFsync() == PhotoProperties.Fsync.CHUNK) {
+                        file.force(true);
+                    }
+                }
+            }
+            return session.offsets.get(photo);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The photos of a complete upload, in order, read from the spool.
+     *
+     * @throws ResponseStatusException 409 if a photo is still incomplete
+     */
+    public List<InputStreamSource> photos(Long userId, String uploadId) {
+        Session session = find(userId, uploadId);
+        if (!session.isComplete()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload incomplete");
+        }
+        return IntStream.range(0, session.lengths.length)
+                .mapToObj(photo -> (InputStreamSource) () -> Files.newInputStream(session.file(photo)))
+                .toList();
+    }
+
+    /** Records a finalized upload and deletes its spooled photos. */
+    public void complete(Long userId, String uploadId) {
+        Session session = find(userId, uploadId);
+        long resent = Math.max(0, session.received() - Arrays.stream(session.lengths).sum());
+        retransmitted.record(resent);
+        log.debug("Upload {} complete, {} byte(s) received more than once", uploadId, resent);
+        delete(session);
+    }
+
+    /** Abandons an upload. */
+    public void cancel(Long userId, String uploadId) {
+        delete(find(userId, uploadId));
+    }
+
+    /** Deletes sessions past their expiry, and directories left behind by a crash while starting one. */
+    @Scheduled(fixedDelayString = "${workspace.photos.resumable-sweep-interval:15m}",
+               initialDelayString = "${workspace.photos.resumable-sweep-interval:15m}")
+    public void sweep() {
+        Instant now = Instant.now();
+        FileTime abandoned = FileTime.from(now.minus(props.getResumableUploadTtl()));
+        int deleted = 0;
+        try (Stream<Path> dirs = Files.list(spool)) {
+            for (Path dir : dirs.toList()) {
+                String name = dir.getFileName().toString();
+                Session session = isUuid(name) ? session(name) : null;
+                boolean expired = session != null
+                        ? session.expiresAt.isBefore(now)
+                        : Files.getLastModifiedTime(dir).compareTo(abandoned) < 0;
+                if (expired) {
+                    sessions.remove(name);
+                    FileSystemUtils.deleteRecursively(dir);
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not sweep resumable uploads: {}", e.toString());
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} expired resumable upload(s)", deleted);
+        }
+    }
+
+    /** Copies {@code body} to the file from {@code offset}, advancing the photo's offset with every write. */
+    private void receive(Session session, int photo, long offset, ReadableByteChannel body, FileChannel file)
+            throws IOException {
+        long length = session.lengths[photo];
+        long position = offset;
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            while (true) {
+                buffer.clear();
+                if (position == length) {
+                    // nothing more is expected; one more byte means the chunk overruns the photo
+                    buffer.limit(1);
+                    if (body.read(buffer) > 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk runs past the photo's length");
+                    }
+                    return;
+                }
+                buffer.limit((int) Math.min(buffer.capacity(), length - position));
+                int read = body.read(buffer);
+                if (read < 0) {
+                    return;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    position += file.write(buffer, position);
+                }
+                session.received.addAndGet(photo, read);
+                session.offsets.accumulateAndGet(photo, position, Math::max);
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private Session find(Long userId, String uploadId) {
+        Session session = isUuid(uploadId) ? session(uploadId) : null;
+        // someone else's upload is as unknown as a missing one
+        if (session == null || !session.userId.equals(userId) || session.expiresAt.isBefore(Instant.now())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+        }
+        return session;
+    }
+
+    /**
+     * The session, read back from the spool after a restart; {@code null} if
+     * there is none. Read outside the map, so no other session waits on the
+     * disk; of two concurrent reads the first one cached wins.
+     */
+    private Session session(String uploadId) {
+        Session cached = sessions.get(uploadId);
+        if (cached != null) {
+            return cached;
+        }
+        Session loaded = load(uploadId);
+        if (loaded == null) {
+            return null;
+        }
+        Session current = sessions.putIfAbsent(uploadId, loaded);
+        if (current != null) {
+            return current;
+        }
+        // deleted while it was being read: don't keep it cached
+        if (!Files.exists(loaded.dir.resolve(SESSION_FILE))) {
+            sessions.remove(uploadId, loaded);
+            return null;
+        }
+        return loaded;
+    }
+
+    private Session load(String uploadId) {
+        Path dir = spool.resolve(uploadId);
+        Properties saved = new Properties();
+        try (var in = Files.newInputStream(dir.resolve(SESSION_FILE))) {
+            saved.load(in);
+            Session session = new Session(uploadId, Long.valueOf(saved.getProperty("user")),
+                    Instant.parse(saved.getProperty("expires")),
+                    Arrays.stream(saved.getProperty("lengths").split(",")).mapToLong(Long::parseLong).toArray(),
+                    dir);
+            for (int photo = 0; photo < session.lengths.length; photo++) {
+                long size = Files.exists(session.file(photo)) ? Files.size(session.file(photo)) : 0;
+                session.offsets.set(photo, Math.min(size, session.lengths[photo]));
+                session.received.set(photo, session.offsets.get(photo));
+            }
+            return session;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unreadable resumable upload {}: {}", uploadId, e.toString());
+            return null;
+        }
+    }
+
+    private void delete(Session session) {
+        sessions.remove(session.id);
+        try {
+            FileSystemUtils.deleteRecursively(session.dir);
+        } catch (IOException e) {
+            // swept once expired
+            log.warn("Could not delete resumable upload {}: {}", session.id, e.toString());
+        }
+    }
+
+    private static boolean isUuid(String id) {
+        try {
+            return UUID.fromString(id).toString().equals(id);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static final class Session {
+
+        final String id;
+        final Long userId;
+        final Instant expiresAt;
+        final long[] lengths;
+        final Path dir;
+        final AtomicLongArray offsets;
+        /** Bytes written per photo, counting resent ones each time. */
+        final AtomicLongArray received;
+        /** One chunk at a time per photo. */
+        final ReentrantLock[] locks;
+
+        Session(String id, Long userId, Instant expiresAt, long[] lengths, Path dir) {
+            this.id = id;
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+            this.lengths = lengths;
+            this.dir = dir;
+            this.offsets = new AtomicLongArray(lengths.length);
+            this.received = new AtomicLongArray(lengths.length);
+            this.locks = Stream.generate(ReentrantLock::new).limit(lengths.length).toArray(ReentrantLock[]::new);
+        }
+
+        Path file(int photo) {
+            return dir.resolve(Integer.toString(photo));
+        }
+
+        boolean isComplete() {
+            return IntStream.range(0, lengths.length).allMatch(photo -> offsets.get(photo) == lengths[photo]);
+        }
+
+        long received() {
+            return IntStream.range(0, lengths.length).mapToLong(received::get).sum();
+        }
+
+        ResumableUploadStatus status() {
+            return new ResumableUploadStatus(id, expiresAt, Arrays.stream(lengths).boxed().toList(),
+                    IntStream.range(0, lengths.length).mapToObj(offsets::get).toList());
+        }
+    }
+}
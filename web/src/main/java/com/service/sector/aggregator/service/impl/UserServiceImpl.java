@@ -4,12 +4,14 @@ import com.service.sector.aggregator.data.dto.AppUserRequest;
 import com.service.sector.aggregator.data.dto.AppUserResponse;
 import com.service.sector.aggregator.data.dto.auth.LoginRequest;
 import com.service.sector.aggregator.data.entity.AppUser;
-import com.service.sector.aggregator.data.entity.AuthCode;
 import com.service.sector.aggregator.data.entity.Role;
 import com.service.sector.aggregator.data.enums.RoleName;
 import com.service.sector.aggregator.data.repositories.AppUserRepository;
-import com.service.sector.aggregator.data.repositories.AuthCodeRepository;
-import com.service.sector.aggregator.data.repositories.RoleRepository;
+import com.service.sector.aggregator.security.AuthenticatedUser;
+import com.service.sector.aggregator.security.TokenRefresher;
+import com.service.sector.aggregator.security.TokenRevocationList;
+import com.service.sector.aggregator.service.OtpStore;
+import com.service.sector.aggregator.service.RoleRegistry;
 import com.service.sector.aggregator.service.UserService;
 import com.service.sector.aggregator.service.external.JwtService;
 import com.service.sector.aggregator.service.external.SmsOtpService;
@@ -18,10 +20,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import software.amazon.awssdk.utils.StringUtils;
 
-import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -32,11 +31,13 @@ public class UserServiceImpl implements UserService {
     public static final String DEFAULT_TEST_CODE = "123456";
 
     private final AppUserRepository userRepository;
-    private final RoleRepository roleRepository;
-    private final AuthCodeRepository authCodeRepository;
+    private final RoleRegistry roleRegistry;
+    private final OtpStore otpStore;
 
     private final JwtService jwtService;
     private final SmsOtpService smsOtpService;
+    private final TokenRevocationList revocationList;
+    private final TokenRefresher tokenRefresher;
 
     @Override
     public AppUserResponse register(AppUserRequest request) {
@@ -44,8 +45,7 @@ public class UserServiceImpl implements UserService {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Phone already registered");
         }
 
-        Role customerRole = roleRepository.findByRoleName(RoleName.CUSTOMER)
-                .orElseThrow(() -> new IllegalStateException("Customer role not found"));
+        Role customerRole = roleRegistry.get(RoleName.CUSTOMER);
 
         AppUser user = AppUser.builder()
                 .phone(request.phone())
@@ -53,12 +53,10 @@ public class UserServiceImpl implements UserService {
                 .roles(Set.of(customerRole))
                 .build();
 
-        Optional<AuthCode> authCode = authCodeRepository.findByPhone(request.phone());
-
         userRepository.save(user);
 
         // Cleanup auth code attempts
-        authCode.ifPresent(authCodeRepository::delete);
+        otpStore.invalidate(request.phone());
         String authToken = jwtService.generateToken(user);
 
         return mapToResponse(user, authToken);
@@ -69,39 +67,37 @@ public class UserServiceImpl implements UserService {
         AppUser user = userRepository.findByPhone(request.phone())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No Such user"));
 
-        List<AuthCode> codes = authCodeRepository.findAllByPhone(request.phone());
-
-        if (codes.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid auth code");
-        }
-
-        boolean anyMatch = codes.stream()
-                .anyMatch(c -> StringUtils.equals(c.getCode(), request.code()));
-
-        if (!anyMatch) {
+        // verifies and consumes the code in one step, so it cannot be used twice
+        if (!otpStore.consume(request.phone(), request.code())) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid auth code");
         }
 
-        // at least one code matches – issue token
         String jwt = jwtService.generateToken(user);
-
-        // cleanup: remove EVERY auth-code record for this phone
-        authCodeRepository.deleteAllByPhone(request.phone());
-
         return mapToResponse(user, jwt);
     }
 
+    /**
+     * Not transactional: with the default in-memory {@link OtpStore} issuing a
+     * code needs no database connection at all.
+     */
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     public void sendCode(String phone) {
-        String code;
-        if (!SmsOtpService.isTestPhoneNumber(phone)) {
-            code = smsOtpService.newCode(phone);
-            smsOtpService.send(phone, code);
-        } else {
-            code = DEFAULT_TEST_CODE;
+        OtpStore.IssuedOtp otp = otpStore.issue(phone, () -> SmsOtpService.isTestPhoneNumber(phone)
+                ? DEFAULT_TEST_CODE
+                : smsOtpService.newCode(phone));
+
+        // a re-used code has already been delivered
+        if (!otp.fresh() || SmsOtpService.isTestPhoneNumber(phone)) {
+            return;
+        }
+        // don't keep a code the user never receives, so the next request sends a new one
+        try {
+            smsOtpService.send(phone, otp.code(), () -> otpStore.invalidate(phone, otp.code()));
+        } catch (RuntimeException e) {
+            otpStore.invalidate(phone, otp.code());
+            throw e;
         }
-        authCodeRepository.deleteAllByPhone(phone);
-        authCodeRepository.save(AuthCode.builder().phone(phone).code(code).build());
     }
 
     @Override
@@ -110,6 +106,19 @@ public class UserServiceImpl implements UserService {
         return mapToResponse(user, null);
     }
 
+    @Override
+    public void logout(AuthenticatedUser user) {
+        revocationList.revoke(user.userId(), user.claims());
+        // a token minted by the refresh filter must not be handed out again
+        tokenRefresher.forget(user.userId());
+    }
+
+    @Override
+    public void logoutEverywhere(Long userId) {
+        revocationList.revokeAll(userId);
+        tokenRefresher.forget(userId);
+    }
+
     private boolean isPhoneRegistered(String phone) {
         return userRepository.existsByPhone(phone);
     }
@@ -0,0 +1,371 @@
+package com.service.sector.aggregator.service.impl;
+
+import com.service.sector.aggregator.data.dto.BecomeLandlordResponse;
+import com.service.sector.aggregator.data.dto.PhotoUploadSlots;
+import com.service.sector.aggregator.data.dto.ResumableUploadStatus;
+import com.service.sector.aggregator.data.dto.WorkspacePhotoDto;
+import com.service.sector.aggregator.data.dto.WorkspaceResponse;
+import com.service.sector.aggregator.data.entity.AppUser;
+import com.service.sector.aggregator.data.entity.PhotoJob;
+import com.service.sector.aggregator.data.entity.Workspace;
+import com.service.sector.aggregator.data.entity.WorkspacePhoto;
+import com.service.sector.aggregator.data.enums.PhotoStatus;
+import com.service.sector.aggregator.data.enums.RoleRequestStatus;
+import com.service.sector.aggregator.data.enums.WorkspaceStatus;
+import com.service.sector.aggregator.data.form.WorkspaceForm;
+import com.service.sector.aggregator.data.repositories.AppUserRepository;
+import com.service.sector.aggregator.data.repositories.PhotoJobRepository;
+import com.service.sector.aggregator.data.repositories.WorkspaceRepository;
+import com.service.sector.aggregator.service.WorkspaceService;
+import com.service.sector.aggregator.service.external.DateTimeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Workspace creation runs in three steps so neither a database connection
+ * nor the request waits while photos are compressed and stored:
+ * <ol>
+ *     <li>read and check the user;</li>
+ *     <li>stage the original photos ({@link StagedPhotoUploads}, no transaction);</li>
+ *     <li>a short transaction inserting the workspace, its photos
+ *     ({@link PhotoStatus#PROCESSING}) and a {@link PhotoJob} per photo.</li>
+ * </ol>
+ * The response (202) lists the photos with their status; the
+ * {@code PhotoJobWorker}s of the image-worker app complete them. If step 3 fails, the photos staged in step 2 are
+ * discarded; a direct upload's own objects are kept, so it can be confirmed again.
+ * The time spent in step 3 is recorded as {@code workspace.connection.hold{operation}}.
+ * <p>
+ * Photos come as multipart parts or from a {@link ResumablePhotoUploads}
+ * session, both staged here, or from a direct upload, whose staged objects
+ * are used as they are. An upload makes one workspace: its id is stored on
+ * the workspace (unique), and using it again is rejected with 409.
+ */
+@Service
+public class WorkspaceServiceImpl implements WorkspaceService {
+
+    private final PhotoUploadPipeline photoPipeline;
+    private final StagedPhotoUploads stagedUploads;
+    private final ResumablePhotoUploads resumableUploads;
+    private final DateTimeService dtSrv;
+    private final AppUserRepository userRepo;
+    private final WorkspaceRepository workspaceRepo;
+    private final PhotoJobRepository jobRepo;
+    private final TransactionTemplate tx;
+    private final Timer requestLandlordHold;
+    private final Timer createWorkspaceHold;
+
+    public WorkspaceServiceImpl(PhotoUploadPipeline photoPipeline, StagedPhotoUploads stagedUploads,
+                                ResumablePhotoUploads resumableUploads, DateTimeService dtSrv, AppUserRepository userRepo, WorkspaceRepository workspaceRepo,
+                                PhotoJobRepository jobRepo, TransactionTemplate tx, MeterRegistry meterRegistry) {
+        this.photoPipeline = photoPipeline;
+        this.stagedUploads = stagedUploads;
+        this.resumableUploads = resumableUploads;
+        this.dtSrv = dtSrv;
+        this.userRepo = userRepo;
+        this.workspaceRepo = workspaceRepo;
+        this.jobRepo = jobRepo;
+        this.tx = tx;
+        this.requestLandlordHold = connectionHoldTimer(meterRegistry, "request-landlord");
+        this.createWorkspaceHold = connectionHoldTimer(meterRegistry, "create-workspace");
+    }
+
+    @Override
+    public BecomeLandlordResponse requestLandlord(Long userId, WorkspaceForm form, List<MultipartFile> photos) {
+        return requestLandlord(userId, form,
+                Photos.staged(null, () -> stagedUploads.stage(userId, requirePhotoCount(photos))));
+    }
+
+    @Override
+    public BecomeLandlordResponse requestLandlord(Long userId, WorkspaceForm form, String uploadId) {
+        return requestLandlord(userId, form,
+                Photos.direct(uploadId, () -> requirePhotoCount(stagedUploads.keys(userId, uploadId))));
+    }
+
+    @Override
+    public WorkspaceResponse createWorkspace(Long userId, WorkspaceForm form, List<MultipartFile> photos) {
+        return createWorkspace(userId, form,
+                Photos.staged(null, () -> stagedUploads.stage(userId, requirePhotoCount(photos))));
+    }
+
+    @Override
+    public WorkspaceResponse createWorkspace(Long userId, WorkspaceForm form, String uploadId) {
+        return createWorkspace(userId, form,
+                Photos.direct(uploadId, () -> requirePhotoCount(stagedUploads.keys(userId, uploadId))));
+    }
+
+    @Override
+    public PhotoUploadSlots startPhotoUpload(Long userId, int count) {
+        findUser(userId);
+        return stagedUploads.issue(userId, count);
+    }
+
+    @Override
+    public ResumableUploadStatus startResumableUpload(Long userId, List<Long> lengths) {
+        findUser(userId);
+        try {
+            return resumableUploads.start(userId, lengths);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to start upload", e);
+        }
+    }
+
+    @Override
+    public BecomeLandlordResponse requestLandlordFromResumableUpload(Long userId, WorkspaceForm form,
+                                                                     String uploadId) {
+        BecomeLandlordResponse response = requestLandlord(userId, form, Photos.staged(uploadId,
+                () -> stagedUploads.stage(userId, requirePhotoCount(resumableUploads.photos(userId, uploadId)))));
+        // kept until now, so a failed request can be finalized again
+        resumableUploads.complete(userId, uploadId);
+        return response;
+    }
+
+    @Override
+    public WorkspaceResponse createWorkspaceFromResumableUpload(Long userId, WorkspaceForm form, String uploadId) {
+        WorkspaceResponse response = createWorkspace(userId, form, Photos.staged(uploadId,
+                () -> stagedUploads.stage(userId, requirePhotoCount(resumableUploads.photos(userId, uploadId)))));
+        resumableUploads.complete(userId, uploadId);
+        return response;
+    }
+
+    /** {@code photos} are only staged once the user has been checked. */
+    private BecomeLandlordResponse requestLandlord(Long userId, WorkspaceForm form, Photos photos) {
+        // 1. Fail before staging anything if the user is unknown or the upload already used
+        AppUser user = findUser(userId);
+        requireUnusedUpload(photos);
+
+        // 2. Stage the photos of the first workspace
+        Workspace ws = buildWorkspace(user, form, photos);
+        List<String> sources = stage(photos.staging());
+
+        // 3. Update workspace owner status to waiting approval == request to become a workspace owner
+        AppUser owner = inTransaction(requestLandlordHold, photos, sources, () -> {
+            AppUser current = findUser(userId);
+            current.setLandlordRoleStatus(RoleRequestStatus.WAITING_APPROVAL);
+            userRepo.save(current);
+            ws.setOwner(current);
+            saveWithPhotoJobs(ws, sources);
+            return current;
+        });
+
+        return new BecomeLandlordResponse(owner.getId(), owner.getRealName(), owner.getLandlordRoleStatus(),
+                toResponse(ws));
+    }
+
+    private WorkspaceResponse createWorkspace(Long userId, WorkspaceForm form, Photos photos) {
+        // 1. Authenticated user
+        AppUser owner = findUser(userId);
+
+        // 2. Check if user is an approved workspace owner.
+        if (owner.getLandlordRoleStatus() != RoleRequestStatus.APPROVED) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User is not approved as a landlord");
+        }
+
+        requireUnusedUpload(photos);
+
+        // 3. build Workspace and stage its photos
+        Workspace ws = buildWorkspace(owner, form, photos);
+        // 4. if the user is an approved landlord- all his new workspaces are approved by default
+        ws.setStatus(WorkspaceStatus.APPROVED);
+        List<String> sources = stage(photos.staging());
+
+        // 5. insert workspace, photos and their jobs
+        inTransaction(createWorkspaceHold, photos, sources, () -> {
+            saveWithPhotoJobs(ws, sources);
+            return ws;
+        });
+
+        return toResponse(ws);
+    }
+
+    @Override
+    public List<WorkspacePhotoDto> getPhotos(Long userId, Long workspaceId) {
+        return tx.execute(status -> findOwnWorkspace(userId, workspaceId).getPhotos().stream()
+                .map(WorkspaceServiceImpl::toDto)
+                .toList());
+    }
+
+    @Override
+    public void deleteWorkspace(Long userId, Long workspaceId) {
+        List<String> pendingSources = tx.execute(status -> {
+            Workspace ws = findOwnWorkspace(userId, workspaceId);
+            // a worker completing one of its photos now either finishes first or finds its job gone
+            List<String> sources = jobRepo.lockByWorkspaceId(workspaceId).stream()
+                    .map(PhotoJob::getSourceKey)
+                    .toList();
+            // blobs no other photo uses are deleted from S3 by the sweep
+            photoPipeline.release(ws.getPhotos().stream()
+                    .map(WorkspacePhoto::getBlobSha256)
+                    .filter(Objects::nonNull)
+                    .toList());
+            workspaceRepo.delete(ws); // cascade removes photos and their jobs
+            return sources;
+        });
+        if (pendingSources != null && !pendingSources.isEmpty()) {
+            stagedUploads.discard(pendingSources);
+        }
+    }
+
+    @Override
+    public List<Workspace> getWorkspacesByOwner(AppUser owner) {
+        return workspaceRepo.findAllByOwner(owner);
+    }
+
+    @Override
+    public List<Workspace> getWorkspacesByOwnerId(Long ownerId) {
+        return workspaceRepo.findAllByOwnerId(ownerId);
+    }
+
+    private AppUser findUser(Long userId) {
+        return userRepo.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+    }
+
+    private Workspace findOwnWorkspace(Long userId, Long workspaceId) {
+        Workspace ws = workspaceRepo.findById(workspaceId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Workspace not found"));
+        if (!ws.getOwner().getId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not the owner of this workspace");
+        }
+        return ws;
+    }
+
+    /** Rejects an upload that has already made a workspace. */
+    private void requireUnusedUpload(Photos photos) {
+        if (photos.uploadId() != null && workspaceRepo.existsByUploadId(photos.uploadId())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload already used");
+        }
+    }
+
+    /**
+     * Runs {@code work} in a short transaction, recording how long it held the
+     * connection; if it fails, nothing refers to the staged {@code sources} and
+     * those this request copied are discarded. A concurrent request that used
+     * the same upload first surfaces as 409.
+     */
+    private <T> T inTransaction(Timer holdTimer, Photos photos, List<String> sources, Supplier<T> work) {
+        try {
+            return holdTimer.record(() -> tx.execute(status -> work.get()));
+        } catch (RuntimeException e) {
+            if (photos.copied()) {
+                stagedUploads.discard(sources);
+            }
+            if (e instanceof DataIntegrityViolationException && photos.uploadId() != null
+                    && workspaceRepo.existsByUploadId(photos.uploadId())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload already used", e);
+            }
+            throw e;
+        }
+    }
+
+    private Workspace buildWorkspace(AppUser owner, WorkspaceForm form, Photos photos) {
+        return Workspace.builder()
+                .owner(owner)
+                .uploadId(photos.uploadId())
+                .name(form.name())
+                .city(form.city())
+                .address(form.address())
+                .kind(form.kind())
+                .description(form.description())
+                .openTime(form.openTime())
+                .closeTime(form.closeTime())
+                .workingDaysMask(dtSrv.toMask(form.workingDays()))
+                .minRentMinutes(form.minRentMinutes())
+                .pricePerHour(form.pricePerHour())
+                .status(WorkspaceStatus.UNDER_REVIEW)
+                .createdAt(OffsetDateTime.now())
+                .updatedAt(OffsetDateTime.now())
+                .build();
+    }
+
+    private static <T extends List<?>> T requirePhotoCount(T photos) {
+        if (photos.size() < 3 || photos.size() > 15)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "3–15 photos required");
+        return photos;
+    }
+
+    private static List<String> stage(Staging photos) {
+        try {
+            return photos.keys();
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to store workspace photos", e);
+        }
+    }
+
+    /**
+     * Saves {@code ws} with one {@link PhotoStatus#PROCESSING} photo and one
+     * job per staged source, in order; call in a transaction.
+     */
+    private void saveWithPhotoJobs(Workspace ws, List<String> sources) {
+        List<PhotoJob> jobs = IntStream.range(0, sources.size())
+                .mapToObj(i -> {
+                    WorkspacePhoto photo = WorkspacePhoto.builder()
+                            .workspace(ws)
+                            .status(PhotoStatus.PROCESSING)
+                            .order((short) i)
+                            .createdAt(OffsetDateTime.now())
+                            .build();
+                    ws.getPhotos().add(photo);
+                    return PhotoJob.builder().photo(photo).sourceKey(sources.get(i)).build();
+                })
+                .toList();
+        workspaceRepo.save(ws); // cascade will save photos
+        jobRepo.saveAll(jobs);
+    }
+
+    private static WorkspaceResponse toResponse(Workspace ws) {
+        return new WorkspaceResponse(ws.getId(), ws.getName(), ws.getCity(),
+                ws.getPhotos().stream()
+                        .filter(p -> p.getStatus() == PhotoStatus.READY)
+                        .map(WorkspacePhoto::getFilePath)
+                        .toList(),
+                ws.getPhotos().stream().map(WorkspaceServiceImpl::toDto).toList());
+    }
+
+    private static WorkspacePhotoDto toDto(WorkspacePhoto p) {
+        return new WorkspacePhotoDto(p.getId(), p.getFilePath(), p.getOrder(), p.getVariants(), p.getStatus());
+    }
+
+    private static Timer connectionHoldTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("workspace.connection.hold")
+                .description("Time a workspace request holds a database transaction open")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /** Stages the photos of a request; returns their keys in order. */
+    @FunctionalInterface
+    private interface Staging {
+        List<String> keys() throws IOException;
+    }
+
+    /**
+     * The photos of a request.
+     *
+     * @param uploadId upload they come from, {@code null} for multipart photos
+     * @param copied   whether {@code staging} copies them, so the copies are this request's to discard
+     */
+    private record Photos(String uploadId, boolean copied, Staging staging) {
+
+        static Photos staged(String uploadId, Staging staging) {
+            return new Photos(uploadId, true, staging);
+        }
+
+        /** A direct upload's staged objects, used as they are. */
+        static Photos direct(String uploadId, Staging staging) {
+            return new Photos(uploadId, false, staging);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.service.sector.aggregator.filter;
+
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.data.entity.AppUser;
+import com.service.sector.aggregator.data.repositories.AppUserRepository;
+import com.service.sector.aggregator.data.repositories.RevokedTokenRepository;
+import com.service.sector.aggregator.data.repositories.UserTokenRevocationRepository;
+import com.service.sector.aggregator.security.AuthenticatedUser;
+import com.service.sector.aggregator.security.CurrentUser;
+import com.service.sector.aggregator.security.CurrentUserArgumentResolver;
+import com.service.sector.aggregator.security.TokenRefresher;
+import com.service.sector.aggregator.security.TokenRevocationList;
+import com.service.sector.aggregator.security.VerifiedTokenCache;
+import com.service.sector.aggregator.service.external.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RefreshingJwtFilter}.
+ */
+class RefreshingJwtFilterTest {
+
+    private static final String TEST_SECRET =
+            "dGhpcy1pcy1hLXRlc3QtbG9uZy1zZWNyZXQtb2YtMzItYnl0ZXMhIQ==";
+
+    private JwtService jwtService;
+    private AppUserRepository userRepo;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationList revocationList;
+    private RefreshingJwtFilter filter;
+    private AppUser user;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties props = new JwtProperties();
+        props.setSecret(TEST_SECRET);
+        props.setTtl(Duration.ofHours(1));
+        props.setRefreshThreshold(Duration.ofMinutes(10));
+
+        jwtService = spy(new JwtService(props));
+        userRepo = mock(AppUserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        VerifiedTokenCache tokenCache = new VerifiedTokenCache(jwtService, props, meterRegistry);
+        TokenRefresher tokenRefresher = new TokenRefresher(jwtService, userRepo, props);
+        revocationList = new TokenRevocationList(mock(RevokedTokenRepository.class),
+                mock(UserTokenRevocationRepository.class), props, meterRegistry);
+        filter = new RefreshingJwtFilter(tokenCache, tokenRefresher, revocationList, props, meterRegistry);
+
+        user = AppUser.builder().id(42L).phone("+1234567890").realName("John Doe").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validToken_isVerifiedOnce_andResolvedByController() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("POST", "/landlord/add-workspace");
+        req.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(user));
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+
+        // what a controller parameter annotated with @CurrentUser would receive
+        MethodParameter param = new MethodParameter(
+                Handler.class.getDeclaredMethod("handle", Long.class), 0);
+        AtomicReference<Object> resolvedUid = new AtomicReference<>();
+        FilterChain chain = (request, response) -> {
+            resolvedUid.set(new CurrentUserArgumentResolver()
+                    .resolveArgument(param, null, new ServletWebRequest(req), null));
+        };
+
+        filter.doFilter(req, resp, chain);
+
+        assertEquals(42L, resolvedUid.get());
+        assertEquals(1, req.getAttribute(RefreshingJwtFilter.VERIFICATIONS_ATTRIBUTE));
+        verify(jwtService, times(1)).getClaims(anyString());
+        assertEquals(1.0, meterRegistry.get("auth.token.verifications.per.request").summary().max());
+    }
+
+    @Test
+    void validToken_principalCarriesVerifiedClaims() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/users/42");
+        req.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(user));
+
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        filter.doFilter(req, new MockHttpServletResponse(),
+                (request, response) -> seen.set(SecurityContextHolder.getContext().getAuthentication()));
+
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class, seen.get().getPrincipal());
+        assertEquals(42L, principal.userId());
+        assertEquals("+1234567890", principal.claims().get("phone", String.class));
+    }
+
+    @Test
+    void noHeader_passesThroughWithoutAuthentication() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/masters/list");
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(req, new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+        verify(jwtService, never()).getClaims(anyString());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void invalidToken_returns401() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/landlord/add-workspace");
+        req.addHeader(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt");
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(req, resp, chain);
+
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), resp.getStatus());
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    void revokedToken_returns401_andOtherTokensStillPass() throws Exception {
+        String revoked = jwtService.generateToken(user);
+        String other = jwtService.generateToken(user);
+        revocationList.revoke(42L, jwtService.getClaims(revoked).getPayload());
+
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/users/42");
+        req.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + revoked);
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+        filter.doFilter(req, resp, chain);
+
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), resp.getStatus());
+        verify(chain, never()).doFilter(any(), any());
+
+        MockHttpServletRequest otherReq = new MockHttpServletRequest("GET", "/api/users/42");
+        otherReq.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + other);
+        filter.doFilter(otherReq, new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+    }
+
+    /** Stand-in for a controller method taking the current user id. */
+    @SuppressWarnings("unused")
+    private static class Handler {
+        void handle(@CurrentUser Long uid) {
+        }
+    }
+}
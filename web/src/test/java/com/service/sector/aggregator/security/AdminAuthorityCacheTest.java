@@ -0,0 +1,58 @@
+package com.service.sector.aggregator.security;
+
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.data.repositories.AppUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link AdminAuthorityCache}.
+ */
+class AdminAuthorityCacheTest {
+
+    private AppUserRepository userRepo;
+    private AdminAuthorityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepo = mock(AppUserRepository.class);
+        cache = new AdminAuthorityCache(userRepo, new JwtProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void repeatedChecks_hitDatabaseOnce() {
+        when(userRepo.findAdminFlagById(1L)).thenReturn(Optional.of(true));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Optional.of(true), cache.isAdmin(1L));
+        }
+
+        verify(userRepo, times(1)).findAdminFlagById(1L);
+    }
+
+    @Test
+    void invalidate_picksUpDemotion() {
+        when(userRepo.findAdminFlagById(1L)).thenReturn(Optional.of(true), Optional.of(false));
+
+        assertEquals(Optional.of(true), cache.isAdmin(1L));
+        cache.invalidate(1L);
+
+        assertEquals(Optional.of(false), cache.isAdmin(1L));
+    }
+
+    @Test
+    void unknownUser_isCachedAsEmpty() {
+        when(userRepo.findAdminFlagById(99L)).thenReturn(Optional.empty());
+
+        assertTrue(cache.isAdmin(99L).isEmpty());
+        assertTrue(cache.isAdmin(99L).isEmpty());
+
+        verify(userRepo, times(1)).findAdminFlagById(99L);
+    }
+}
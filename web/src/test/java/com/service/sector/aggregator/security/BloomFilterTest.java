@@ -0,0 +1,43 @@
+package com.service.sector.aggregator.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BloomFilter}.
+ */
+class BloomFilterTest {
+
+    @Test
+    void insertedKeys_areAlwaysFound() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.001);
+        String[] keys = new String[1_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = UUID.randomUUID().toString();
+            filter.put(keys[i]);
+        }
+
+        for (String key : keys) {
+            assertTrue(filter.mightContain(key));
+        }
+    }
+
+    @Test
+    void falsePositiveRate_staysNearTarget() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
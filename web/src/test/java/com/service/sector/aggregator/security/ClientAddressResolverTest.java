@@ -0,0 +1,92 @@
+package com.service.sector.aggregator.security;
+
+import com.service.sector.aggregator.config.RateLimitProperties;
+import com.service.sector.aggregator.exceptions.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ClientAddressResolver}.
+ */
+class ClientAddressResolverTest {
+
+    private static final String ALB = "10.0.3.17";
+
+    private RateLimitProperties props;
+    private ClientAddressResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        props = new RateLimitProperties();
+        props.setTrustedProxies(List.of("127.0.0.1", "10.0.0.0/8"));
+        resolver = new ClientAddressResolver(props);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String... forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        for (String header : forwardedFor) {
+            request.addHeader(ClientAddressResolver.X_FORWARDED_FOR, header);
+        }
+        return request;
+    }
+
+    @Test
+    void directClient_isTheSocketAddress_evenWithAForwardedHeader() {
+        assertEquals("203.0.113.5", resolver.resolve(request("203.0.113.5", "198.51.100.1")));
+    }
+
+    @Test
+    void behindTheLoadBalancer_isTheAddressItForwarded() {
+        assertEquals("203.0.113.5", resolver.resolve(request(ALB, "203.0.113.5")));
+    }
+
+    @Test
+    void forgedEntriesLeftOfTheClient_areIgnored() {
+        assertEquals("203.0.113.5", resolver.resolve(request(ALB, "198.51.100.1, unknown, 203.0.113.5")));
+    }
+
+    @Test
+    void chainOfTrustedProxies_isWalkedFromTheRight() {
+        assertEquals("203.0.113.5", resolver.resolve(request("127.0.0.1", "198.51.100.1, 203.0.113.5", ALB)));
+    }
+
+    @Test
+    void onlyProxies_givesTheLeftmost() {
+        assertEquals("10.1.1.1", resolver.resolve(request(ALB, "10.1.1.1, 10.2.2.2")));
+        assertEquals(ALB, resolver.resolve(request(ALB)));
+    }
+
+    @Test
+    void noTrustedProxies_alwaysTheSocketAddress() {
+        resolver = new ClientAddressResolver(new RateLimitProperties());
+
+        assertEquals(ALB, resolver.resolve(request(ALB, "203.0.113.5")));
+    }
+
+    @Test
+    void clientsBehindTheLoadBalancer_getTheirOwnBuckets() {
+        props.setEndpoints(Map.of(RateLimiter.REQUEST_CODE, new RateLimitProperties.Endpoint(
+                new RateLimitProperties.Bucket(100, Duration.ofMinutes(1)),
+                new RateLimitProperties.Bucket(2, Duration.ofMinutes(1)))));
+        RateLimiter limiter = new RateLimiter(props, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 2; i++) {
+            limiter.check(RateLimiter.REQUEST_CODE, "+1555000111" + i, resolver.resolve(request(ALB, "203.0.113.5")));
+        }
+
+        // a second client arriving through the same balancer is not locked out
+        assertDoesNotThrow(() -> limiter.check(RateLimiter.REQUEST_CODE, "+15550002222",
+                resolver.resolve(request(ALB, "198.51.100.7"))));
+        assertThrows(RateLimitExceededException.class, () -> limiter.check(RateLimiter.REQUEST_CODE, "+15550003333",
+                resolver.resolve(request(ALB, "203.0.113.5"))));
+    }
+}
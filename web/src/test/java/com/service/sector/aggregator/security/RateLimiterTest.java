@@ -0,0 +1,100 @@
+package com.service.sector.aggregator.security;
+
+import com.service.sector.aggregator.config.RateLimitProperties;
+import com.service.sector.aggregator.exceptions.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RateLimiter}.
+ */
+class RateLimiterTest {
+
+    private static final String IP = "10.0.0.1";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitProperties props;
+
+    @BeforeEach
+    void setUp() {
+        props = new RateLimitProperties();
+        props.setEndpoints(Map.of(RateLimiter.REQUEST_CODE, new RateLimitProperties.Endpoint(
+                new RateLimitProperties.Bucket(3, Duration.ofMinutes(1)),
+                new RateLimitProperties.Bucket(5, Duration.ofSeconds(1)))));
+    }
+
+    private RateLimiter limiter() {
+        return new RateLimiter(props, meterRegistry, nanos::get);
+    }
+
+    @Test
+    void burstWithinCapacity_isAllowed_thenRejectedWithRetryAfter() {
+        RateLimiter limiter = limiter();
+
+        for (int i = 0; i < 3; i++) {
+            limiter.check(RateLimiter.REQUEST_CODE, "+15550001111", "10.0.0." + i);
+        }
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> limiter.check(RateLimiter.REQUEST_CODE, "+15550001111", "10.0.0.9"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+        assertEquals("60", e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("auth.rate.limit.rejected")
+                .tag("endpoint", RateLimiter.REQUEST_CODE).tag("key", "phone").counter().count());
+    }
+
+    @Test
+    void tokensRefillOverTime() {
+        RateLimiter limiter = limiter();
+        for (int i = 0; i < 3; i++) {
+            limiter.check(RateLimiter.REQUEST_CODE, "+15550001111", "10.0.0." + i);
+        }
+
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        assertDoesNotThrow(() -> limiter.check(RateLimiter.REQUEST_CODE, "+15550001111", "10.0.0.7"));
+        assertThrows(RateLimitExceededException.class,
+                () -> limiter.check(RateLimiter.REQUEST_CODE, "+15550001111", "10.0.0.8"));
+    }
+
+    @Test
+    void oneAddress_cyclingPhones_isLimitedByIp() {
+        RateLimiter limiter = limiter();
+        for (int i = 0; i < 5; i++) {
+            limiter.check(RateLimiter.REQUEST_CODE, "+1555000111" + i, IP);
+        }
+
+        assertThrows(RateLimitExceededException.class,
+                () -> limiter.check(RateLimiter.REQUEST_CODE, "+15550009999", IP));
+        // the rejected request did not consume the new phone's budget
+        for (int i = 0; i < 3; i++) {
+            limiter.check(RateLimiter.REQUEST_CODE, "+15550009999", "10.0.1." + i);
+        }
+        assertEquals(1.0, meterRegistry.get("auth.rate.limit.rejected")
+                .tag("endpoint", RateLimiter.REQUEST_CODE).tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void unknownEndpointOrDisabled_isNotLimited() {
+        RateLimiter limiter = limiter();
+        for (int i = 0; i < 100; i++) {
+            limiter.check(RateLimiter.LOGIN, "+15550001111", IP);
+        }
+
+        props.setEnabled(false);
+        RateLimiter disabled = limiter();
+        for (int i = 0; i < 100; i++) {
+            disabled.check(RateLimiter.REQUEST_CODE, "+15550001111", IP);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.service.sector.aggregator.security;
+
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.data.entity.AppUser;
+import com.service.sector.aggregator.data.repositories.AppUserRepository;
+import com.service.sector.aggregator.service.external.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TokenRefresher}.
+ */
+class TokenRefresherTest {
+
+    private JwtService jwtService;
+    private AppUserRepository userRepo;
+    private TokenRefresher refresher;
+    private AppUser user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = mock(JwtService.class);
+        userRepo = mock(AppUserRepository.class);
+        refresher = new TokenRefresher(jwtService, userRepo, new JwtProperties());
+        user = AppUser.builder().id(5L).phone("+1234567890").realName("John Doe").build();
+    }
+
+    @Test
+    void parallelRefreshes_shareOneLookupAndOneToken() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepo.findById(5L)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);     // keep the leader busy while others pile up
+            return Optional.of(user);
+        });
+        when(jwtService.generateToken(user)).thenReturn("token-1", "token-2");
+
+        ExecutorService pool = Executors.newFixedThreadPool(20);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(pool.submit(() -> refresher.refresh(5L)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            Set<String> tokens = ConcurrentHashMap.newKeySet();
+            for (Future<String> f : results) {
+                tokens.add(f.get(5, TimeUnit.SECONDS));
+            }
+
+            assertEquals(Set.of("token-1"), tokens);
+            verify(userRepo, times(1)).findById(5L);
+            verify(jwtService, times(1)).generateToken(any());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void forget_mintsNewTokenOnNextRefresh() {
+        when(userRepo.findById(5L)).thenReturn(Optional.of(user));
+        when(jwtService.generateToken(user)).thenReturn("token-1", "token-2");
+
+        assertEquals("token-1", refresher.refresh(5L));
+        refresher.forget(5L);
+
+        assertEquals("token-2", refresher.refresh(5L));
+    }
+
+    @Test
+    void unknownUser_throws401AndIsNotCached() {
+        when(userRepo.findById(5L)).thenReturn(Optional.empty());
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> refresher.refresh(5L));
+        assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatusCode());
+
+        assertThrows(ResponseStatusException.class, () -> refresher.refresh(5L));
+        verify(userRepo, times(2)).findById(5L);
+    }
+}
@@ -0,0 +1,144 @@
+package com.service.sector.aggregator.security;
+
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.data.entity.RevokedToken;
+import com.service.sector.aggregator.data.entity.UserTokenRevocation;
+import com.service.sector.aggregator.data.repositories.RevokedTokenRepository;
+import com.service.sector.aggregator.data.repositories.UserTokenRevocationRepository;
+import com.service.sector.aggregator.service.external.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TokenRevocationList}.
+ */
+class TokenRevocationListTest {
+
+    private static final Long USER_ID = 42L;
+
+    private RevokedTokenRepository revokedTokenRepo;
+    private UserTokenRevocationRepository userRevocationRepo;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationList revocations;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepo = mock(RevokedTokenRepository.class);
+        userRevocationRepo = mock(UserTokenRevocationRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        revocations = new TokenRevocationList(revokedTokenRepo, userRevocationRepo, new JwtProperties(), meterRegistry);
+    }
+
+    private static AuthenticatedUser token(String jti, Instant issuedAt) {
+        Claims claims = Jwts.claims()
+                .id(jti)
+                .subject(USER_ID.toString())
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(issuedAt.plus(1, ChronoUnit.HOURS)))
+                .build();
+        return new AuthenticatedUser(USER_ID, claims);
+    }
+
+    @Test
+    void revoke_rejectsThatTokenOnly_andPersistsIt() {
+        AuthenticatedUser revoked = token("jti-1", Instant.now());
+        AuthenticatedUser other = token("jti-2", Instant.now());
+
+        revocations.revoke(USER_ID, revoked.claims());
+
+        assertTrue(revocations.isRevoked(revoked));
+        assertFalse(revocations.isRevoked(other));
+        verify(revokedTokenRepo).revoke(eq("jti-1"), eq(USER_ID), any());
+        assertEquals(1.0, meterRegistry.get("auth.revocation.rejected").counter().count());
+    }
+
+    @Test
+    void revokeAll_rejectsTokensIssuedBefore_butNotNewerOnes() {
+        AuthenticatedUser old = token("jti-old", Instant.now().minusSeconds(60));
+
+        revocations.revokeAll(USER_ID);
+
+        assertTrue(revocations.isRevoked(old));
+        assertFalse(revocations.isRevoked(token("jti-new", Instant.now().plusSeconds(2))));
+        verify(userRevocationRepo).revokeAll(eq(USER_ID), any());
+    }
+
+    /** As {@code JwtService} mints it: {@code iat} in whole seconds, the exact issue time in its own claim. */
+    private static AuthenticatedUser issued(String jti, Instant issueTime) {
+        Claims claims = Jwts.claims()
+                .id(jti)
+                .subject(USER_ID.toString())
+                .issuedAt(Date.from(issueTime.truncatedTo(ChronoUnit.SECONDS)))
+                .add(JwtService.ISSUED_AT_MILLIS, issueTime.toEpochMilli())
+                .expiration(Date.from(issueTime.plus(1, ChronoUnit.HOURS)))
+                .build();
+        return new AuthenticatedUser(USER_ID, claims);
+    }
+
+    @Test
+    void revokeAll_thenImmediateLogin_theNewTokenIsValid() {
+        AuthenticatedUser before = issued("jti-before", Instant.now().minusMillis(1));
+
+        revocations.revokeAll(USER_ID);
+        // same second, so iat alone would fall before the cutoff
+        AuthenticatedUser after = issued("jti-after", Instant.now());
+
+        assertFalse(revocations.isRevoked(after));
+        assertTrue(revocations.isRevoked(before));
+        verify(userRevocationRepo, never()).findById(any());
+    }
+
+    @Test
+    void tokenWithoutJti_isRevokedWithAllTokensOfUser() {
+        AuthenticatedUser legacy = token(null, Instant.now().minusSeconds(60));
+
+        revocations.revoke(USER_ID, legacy.claims());
+
+        assertTrue(revocations.isRevoked(legacy));
+        verify(userRevocationRepo).revokeAll(eq(USER_ID), any());
+        verify(revokedTokenRepo, never()).revoke(any(), any(), any());
+    }
+
+    @Test
+    void refresh_picksUpRevocationsFromOtherNodes() {
+        OffsetDateTime exp = OffsetDateTime.now(ZoneOffset.UTC).plusHours(1);
+        when(revokedTokenRepo.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(RevokedToken.builder().jti("remote").userId(USER_ID).expiresAt(exp).build()));
+        when(userRevocationRepo.findByUpdatedAtAfter(any()))
+                .thenReturn(List.of(UserTokenRevocation.builder()
+                        .userId(7L).revokedBefore(OffsetDateTime.now().plusSeconds(1)).build()));
+
+        revocations.refresh();
+
+        assertTrue(revocations.isRevoked(token("remote", Instant.now())));
+        assertTrue(revocations.isRevoked(new AuthenticatedUser(7L, token("x", Instant.now().minusSeconds(5)).claims())));
+    }
+
+    @Test
+    void rebuild_loadsOnlyUnexpiredRevocations_andPurgesTheRest() {
+        OffsetDateTime exp = OffsetDateTime.now(ZoneOffset.UTC).plusHours(1);
+        when(revokedTokenRepo.findByExpiresAtAfter(any()))
+                .thenReturn(List.of(RevokedToken.builder().jti("kept").userId(USER_ID).expiresAt(exp).build()));
+
+        revocations.rebuild();
+
+        assertTrue(revocations.isRevoked(token("kept", Instant.now())));
+        verify(revokedTokenRepo, atLeastOnce()).deleteExpired(any());
+        verify(userRevocationRepo, atLeastOnce()).deleteOlderThan(any());
+    }
+}
@@ -0,0 +1,81 @@
+package com.service.sector.aggregator.security;
+
+import com.service.sector.aggregator.config.JwtProperties;
+import com.service.sector.aggregator.data.entity.AppUser;
+import com.service.sector.aggregator.service.external.JwtService;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link VerifiedTokenCache}.
+ */
+class VerifiedTokenCacheTest {
+
+    private static final String TEST_SECRET =
+            "dGhpcy1pcy1hLXRlc3QtbG9uZy1zZWNyZXQtb2YtMzItYnl0ZXMhIQ==";
+
+    private JwtProperties props;
+    private JwtService jwtService;
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+    private AppUser user;
+
+    @BeforeEach
+    void setUp() {
+        props = new JwtProperties();
+        props.setSecret(TEST_SECRET);
+        props.setTtl(Duration.ofHours(1));
+
+        jwtService = spy(new JwtService(props));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(jwtService, props, meterRegistry);
+
+        user = AppUser.builder().id(7L).phone("+1234567890").realName("Jane Doe").build();
+    }
+
+    @Test
+    void repeatedToken_isVerifiedOnlyOnce() {
+        String token = jwtService.generateToken(user);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("7", cache.getClaims(token).getPayload().getSubject());
+        }
+
+        verify(jwtService, times(1)).getClaims(anyString());
+        assertEquals(4.0, meterRegistry.get("cache.gets")
+                .tag("cache", "jwt.verified-tokens").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void tamperedPayloadWithKnownSignature_isVerifiedAgainAndRejected() {
+        String token = jwtService.generateToken(user);
+        cache.getClaims(token);
+
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"1\",\"uid\":1}".getBytes(StandardCharsets.UTF_8));
+        String forged = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        assertThrows(JwtException.class, () -> cache.getClaims(forged));
+    }
+
+    @Test
+    void secretRotation_invalidatesCachedVerification() {
+        String token = jwtService.generateToken(user);
+        cache.getClaims(token);
+
+        props.setSecret("YW5vdGhlci10ZXN0LXNlY3JldC10aGF0LWlzLTMyLWJ5dGVzIQ==");
+
+        assertThrows(JwtException.class, () -> cache.getClaims(token));
+    }
+}
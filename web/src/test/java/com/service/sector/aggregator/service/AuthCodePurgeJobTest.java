@@ -0,0 +1,92 @@
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.config.OtpProperties;
+import com.service.sector.aggregator.service.impl.AuthCodePurgeJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link AuthCodePurgeJob}.
+ */
+class AuthCodePurgeJobTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Connection con;
+    private PreparedStatement tryLock;
+    private PreparedStatement unlock;
+    private PreparedStatement delete;
+    private ResultSet lockResult;
+    private AuthCodePurgeJob job;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        con = mock(Connection.class);
+        tryLock = mock(PreparedStatement.class);
+        unlock = mock(PreparedStatement.class);
+        delete = mock(PreparedStatement.class);
+        lockResult = mock(ResultSet.class);
+
+        when(con.prepareStatement(contains("pg_try_advisory_lock"))).thenReturn(tryLock);
+        when(con.prepareStatement(contains("pg_advisory_unlock"))).thenReturn(unlock);
+        when(con.prepareStatement(startsWith("DELETE"))).thenReturn(delete);
+        when(tryLock.executeQuery()).thenReturn(lockResult);
+        when(unlock.executeQuery()).thenReturn(mock(ResultSet.class));
+        when(lockResult.next()).thenReturn(true);
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(inv -> inv.<ConnectionCallback<?>>getArgument(0).doInConnection(con));
+
+        OtpProperties props = new OtpProperties();
+        props.setPurgeBatchSize(100);
+        job = new AuthCodePurgeJob(jdbcTemplate, props, meterRegistry);
+    }
+
+    @Test
+    void purge_deletesInBatchesUntilShortBatch_thenUnlocks() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(delete.executeUpdate()).thenReturn(100, 100, 42);
+
+        job.purge();
+
+        verify(delete, times(3)).executeUpdate();
+        verify(delete).setInt(2, 100);
+        verify(unlock).executeQuery();
+        assertEquals(242.0, meterRegistry.get("otp.purge.rows").counter().count());
+        assertEquals(1, meterRegistry.get("otp.purge.duration").timer().count());
+    }
+
+    @Test
+    void job_runsWithTheDefaultMemoryStore() {
+        new ApplicationContextRunner()
+                .withBean(JdbcTemplate.class, () -> mock(JdbcTemplate.class))
+                .withBean(OtpProperties.class)
+                .withBean(SimpleMeterRegistry.class)
+                .withUserConfiguration(AuthCodePurgeJob.class)
+                .run(context -> assertThat(context).hasSingleBean(AuthCodePurgeJob.class));
+    }
+
+    @Test
+    void purge_lockHeldByAnotherNode_skipsRun() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(false);
+
+        job.purge();
+
+        verify(con, never()).prepareStatement(startsWith("DELETE"));
+        verify(unlock, never()).executeQuery();
+        assertEquals(0, meterRegistry.get("otp.purge.duration").timer().count());
+    }
+}
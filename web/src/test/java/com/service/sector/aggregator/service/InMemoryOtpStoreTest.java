@@ -0,0 +1,144 @@
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.config.OtpProperties;
+import com.service.sector.aggregator.service.impl.InMemoryOtpStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link InMemoryOtpStore}.
+ */
+class InMemoryOtpStoreTest {
+
+    private static final String PHONE = "+15550000001";
+
+    private OtpProperties props;
+    private InMemoryOtpStore store;
+
+    @BeforeEach
+    void setUp() {
+        props = new OtpProperties();
+        props.setTtl(Duration.ofMinutes(5));
+        props.setReuseWindow(Duration.ofSeconds(30));
+        props.setMaxAttempts(3);
+        store = new InMemoryOtpStore(props);
+    }
+
+    @Test
+    void issue_thenConsume_succeedsOnce() {
+        OtpStore.IssuedOtp otp = store.issue(PHONE, () -> "123456");
+
+        assertTrue(otp.fresh());
+        assertTrue(store.consume(PHONE, "123456"));
+        assertFalse(store.consume(PHONE, "123456"));
+    }
+
+    @Test
+    void issue_withinReuseWindow_returnsPendingCode() {
+        store.issue(PHONE, () -> "111111");
+
+        OtpStore.IssuedOtp second = store.issue(PHONE, () -> "222222");
+
+        assertFalse(second.fresh());
+        assertEquals("111111", second.code());
+    }
+
+    @Test
+    void issue_withinReuseWindow_doesNotGenerateACode() {
+        store.issue(PHONE, () -> "111111");
+        AtomicInteger generated = new AtomicInteger();
+
+        store.issue(PHONE, () -> {
+            generated.incrementAndGet();
+            return "222222";
+        });
+
+        assertEquals(0, generated.get());
+    }
+
+    @Test
+    void issue_afterReuseWindow_replacesCode() {
+        props.setReuseWindow(Duration.ZERO);
+        store.issue(PHONE, () -> "111111");
+
+        OtpStore.IssuedOtp second = store.issue(PHONE, () -> "222222");
+
+        assertTrue(second.fresh());
+        assertFalse(store.consume(PHONE, "111111"));
+        assertTrue(store.consume(PHONE, "222222"));
+    }
+
+    @Test
+    void consume_tooManyWrongAttempts_discardsCode() {
+        store.issue(PHONE, () -> "123456");
+
+        for (int i = 0; i < props.getMaxAttempts(); i++) {
+            assertFalse(store.consume(PHONE, "000000"));
+        }
+
+        assertFalse(store.consume(PHONE, "123456"));
+    }
+
+    @Test
+    void consume_expiredCode_fails() throws InterruptedException {
+        props.setTtl(Duration.ofMillis(20));
+        store.issue(PHONE, () -> "123456");
+
+        Thread.sleep(60);
+
+        assertFalse(store.consume(PHONE, "123456"));
+    }
+
+    @Test
+    void invalidate_staleCode_keepsNewerCode() {
+        props.setReuseWindow(Duration.ZERO);
+        store.issue(PHONE, () -> "111111");
+        store.issue(PHONE, () -> "222222");
+
+        store.invalidate(PHONE, "111111");
+
+        assertTrue(store.consume(PHONE, "222222"));
+    }
+
+    @Test
+    void invalidate_currentCode_discardsIt() {
+        store.issue(PHONE, () -> "123456");
+
+        store.invalidate(PHONE, "123456");
+
+        assertFalse(store.consume(PHONE, "123456"));
+    }
+
+    @Test
+    void consume_concurrentLogins_onlyOneWins() throws Exception {
+        store.issue(PHONE, () -> "123456");
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger winners = new AtomicInteger();
+            for (int i = 0; i < 8; i++) {
+                pool.submit(() -> {
+                    start.await();
+                    if (store.consume(PHONE, "123456")) {
+                        winners.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+            assertEquals(1, winners.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.config.OtpProperties;
+import com.service.sector.aggregator.data.entity.AuthCode;
+import com.service.sector.aggregator.data.repositories.AuthCodeRepository;
+import com.service.sector.aggregator.service.impl.JpaOtpStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link JpaOtpStore}.
+ */
+class JpaOtpStoreTest {
+
+    private static final String PHONE = "+15550000001";
+
+    private AuthCodeRepository authCodeRepository;
+    private OtpProperties props;
+    private JpaOtpStore store;
+
+    @BeforeEach
+    void setUp() {
+        authCodeRepository = mock(AuthCodeRepository.class);
+        props = new OtpProperties();
+        props.setReuseWindow(Duration.ofSeconds(30));
+        props.setMaxAttempts(3);
+        store = new JpaOtpStore(authCodeRepository, props);
+    }
+
+    @Test
+    void issue_noPendingCode_storesNewOne() {
+        when(authCodeRepository.lockByPhone(PHONE)).thenReturn(List.of());
+
+        OtpStore.IssuedOtp otp = store.issue(PHONE, () -> "123456");
+
+        assertTrue(otp.fresh());
+        assertEquals("123456", otp.code());
+        verify(authCodeRepository).save(argThat(c -> c.getPhone().equals(PHONE) && c.getCode().equals("123456")));
+    }
+
+    @Test
+    void issue_withinReuseWindow_returnsPendingCode() {
+        when(authCodeRepository.lockByPhone(PHONE)).thenReturn(List.of(pending("111111", 5, 0)));
+
+        OtpStore.IssuedOtp otp = store.issue(PHONE, () -> "222222");
+
+        assertFalse(otp.fresh());
+        assertEquals("111111", otp.code());
+        verify(authCodeRepository, never()).save(any());
+        verify(authCodeRepository, never()).deleteAllByPhone(any());
+    }
+
+    @Test
+    void issue_afterReuseWindow_replacesCode() {
+        when(authCodeRepository.lockByPhone(PHONE)).thenReturn(List.of(pending("111111", 60, 0)));
+
+        OtpStore.IssuedOtp otp = store.issue(PHONE, () -> "222222");
+
+        assertTrue(otp.fresh());
+        assertEquals("222222", otp.code());
+        verify(authCodeRepository).deleteAllByPhone(PHONE);
+    }
+
+    @Test
+    void issue_pendingCodeOutOfAttempts_replacesCode() {
+        when(authCodeRepository.lockByPhone(PHONE)).thenReturn(List.of(pending("111111", 5, 3)));
+
+        OtpStore.IssuedOtp otp = store.issue(PHONE, () -> "222222");
+
+        assertTrue(otp.fresh());
+        assertEquals("222222", otp.code());
+    }
+
+    @Test
+    void consume_matchingCode_usesSingleStatement() {
+        when(authCodeRepository.consume(eq(PHONE), eq("123456"), any(), anyInt())).thenReturn(List.of(7L));
+
+        assertTrue(store.consume(PHONE, "123456"));
+
+        verify(authCodeRepository).consume(eq(PHONE), eq("123456"), any(), anyInt());
+        verifyNoMoreInteractions(authCodeRepository);
+    }
+
+    @Test
+    void consume_noMatchingRow_returnsFalseAndCountsAttempt() {
+        when(authCodeRepository.consume(eq(PHONE), eq("000000"), any(), anyInt())).thenReturn(List.of());
+
+        assertFalse(store.consume(PHONE, "000000"));
+
+        verify(authCodeRepository).countFailedAttempt(eq(PHONE), any());
+    }
+
+    @Test
+    void consume_onlyAcceptsCodesWithAttemptsLeft() {
+        when(authCodeRepository.consume(eq(PHONE), eq("123456"), any(), anyInt())).thenReturn(List.of());
+
+        store.consume(PHONE, "123456");
+
+        verify(authCodeRepository).consume(eq(PHONE), eq("123456"), any(), eq(3));
+    }
+
+    @Test
+    void consume_onlyAcceptsCodesWithinTtl() {
+        OffsetDateTime before = OffsetDateTime.now().minusMinutes(5);
+        when(authCodeRepository.consume(eq(PHONE), eq("123456"), any(), anyInt())).thenReturn(List.of());
+
+        store.consume(PHONE, "123456");
+
+        ArgumentCaptor<OffsetDateTime> issuedAfter = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(authCodeRepository).consume(eq(PHONE), eq("123456"), issuedAfter.capture(), anyInt());
+        assertFalse(issuedAfter.getValue().isBefore(before));
+        assertTrue(issuedAfter.getValue().isBefore(OffsetDateTime.now().minusMinutes(4)));
+    }
+
+    @Test
+    void invalidate_deletesOnlyTheGivenCode() {
+        store.invalidate(PHONE, "123456");
+
+        verify(authCodeRepository).deleteByPhoneAndCode(PHONE, "123456");
+        verify(authCodeRepository, never()).deleteAllByPhone(any());
+    }
+
+    private static AuthCode pending(String code, long ageSeconds, int attempts) {
+        return AuthCode.builder()
+                .phone(PHONE)
+                .code(code)
+                .createdAt(OffsetDateTime.now().minusSeconds(ageSeconds))
+                .attempts(attempts)
+                .build();
+    }
+}
@@ -0,0 +1,263 @@
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.data.dto.ResumableUploadStatus;
+import com.service.sector.aggregator.service.impl.DirectBufferPool;
+import com.service.sector.aggregator.service.impl.ResumablePhotoUploads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ResumablePhotoUploads}.
+ */
+class ResumablePhotoUploadsTest {
+
+    @TempDir
+    Path spool;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PhotoProperties props;
+    private ResumablePhotoUploads uploads;
+
+    @BeforeEach
+    void setUp() {
+        props = new PhotoProperties();
+        props.setResumableSpoolDir(spool);
+        props.setBufferChunkSize(DataSize.ofBytes(4));          // chunks span several buffers
+        uploads = newUploads();
+    }
+
+    private ResumablePhotoUploads newUploads() {
+        return new ResumablePhotoUploads(props, new DirectBufferPool(props, new SimpleMeterRegistry()), meterRegistry);
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(InputStreamSource photo) throws IOException {
+        try (InputStream in = photo.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void chunks_resentFromAnEarlierOffset_areWrittenOnce_andCountedAsRetransmitted() throws Exception {
+        String id = uploads.start(7L, List.of(11L, 3L, 3L)).uploadId();
+
+        assertEquals(5, uploads.write(7L, id, 0, 0, body("hello")));
+        // the acknowledgement was lost; the client resends from 3
+        assertEquals(11, uploads.write(7L, id, 0, 3, body("lo world")));
+        uploads.write(7L, id, 1, 0, body("abc"));
+        uploads.write(7L, id, 2, 0, body("xyz"));
+
+        assertEquals(List.of(11L, 3L, 3L), uploads.status(7L, id).offsets());
+        List<InputStreamSource> photos = uploads.photos(7L, id);
+        assertEquals("hello world", read(photos.get(0)));
+        assertEquals("xyz", read(photos.get(2)));
+
+        uploads.complete(7L, id);
+
+        assertEquals(2, meterRegistry.get("photo.upload.retransmitted").summary().totalAmount());
+        assertFalse(Files.exists(spool.resolve(id)));
+        assertEquals(HttpStatus.NOT_FOUND,
+                assertThrows(ResponseStatusException.class, () -> uploads.status(7L, id)).getStatusCode());
+    }
+
+    @Test
+    void write_chunkCutOffMidway_keepsWhatArrived() throws Exception {
+        String id = uploads.start(7L, List.of(10L, 1L, 1L)).uploadId();
+        InputStream dropped = new InputStream() {
+            private final InputStream sent = body("abcdef");
+
+            @Override
+            public int read() throws IOException {
+                int b = sent.read();
+                if (b < 0) {
+                    throw new IOException("Connection reset");
+                }
+                return b;
+            }
+        };
+
+        assertThrows(IOException.class, () -> uploads.write(7L, id, 0, 0, dropped));
+
+        assertEquals(6, uploads.status(7L, id).offsets().getFirst());
+        assertEquals(10, uploads.write(7L, id, 0, 6, body("ghij")));
+        uploads.write(7L, id, 1, 0, body("x"));
+        uploads.write(7L, id, 2, 0, body("y"));
+        assertEquals("abcdefghij", read(uploads.photos(7L, id).getFirst()));
+    }
+
+    @Test
+    void write_offsetPastTheReceivedBytes_isConflict() throws Exception {
+        String id = uploads.start(7L, List.of(10L, 1L, 1L)).uploadId();
+        uploads.write(7L, id, 0, 0, body("abc"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> uploads.write(7L, id, 0, 4, body("e")));
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        assertEquals(3, uploads.status(7L, id).offsets().getFirst());
+    }
+
+    @Test
+    void write_pastThePhotosLength_isRejected_afterWritingUpToIt() throws Exception {
+        String id = uploads.start(7L, List.of(4L, 1L, 1L)).uploadId();
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> uploads.write(7L, id, 0, 0, body("abcdef")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        assertEquals(4, uploads.status(7L, id).offsets().getFirst());
+        assertEquals(4, Files.size(spool.resolve(id).resolve("0")));
+    }
+
+    @Test
+    void write_whileAnotherChunkOfThePhotoIsWritten_isConflict() throws Exception {
+        String id = uploads.start(7L, List.of(10L, 1L, 1L)).uploadId();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream slow = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return -1;
+            }
+        };
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return uploads.write(7L, id, 0, 0, slow);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> uploads.write(7L, id, 0, 0, body("abc")));
+        // other photos are not blocked
+        assertEquals(1, uploads.write(7L, id, 1, 0, body("x")));
+
+        release.countDown();
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        assertEquals(0, first.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void photos_ofAnIncompleteUpload_isConflict() throws Exception {
+        String id = uploads.start(7L, List.of(3L, 3L, 3L)).uploadId();
+        uploads.write(7L, id, 0, 0, body("abc"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> uploads.photos(7L, id));
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+    }
+
+    @Test
+    void uploadsOfOtherUsers_andUnknownIds_areNotFound() throws Exception {
+        String id = uploads.start(7L, List.of(3L, 3L, 3L)).uploadId();
+
+        for (String unknown : List.of(UUID.randomUUID().toString(), "../" + id, "")) {
+            assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class,
+                    () -> uploads.status(7L, unknown)).getStatusCode());
+        }
+        assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class,
+                () -> uploads.write(8L, id, 0, 0, body("abc"))).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class,
+                () -> uploads.write(7L, id, 3, 0, body("abc"))).getStatusCode());
+    }
+
+    @Test
+    void start_rejectsOversizedPhotos() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> uploads.start(7L, List.of(1L, 2L, DataSize.ofMegabytes(11).toBytes())));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        try (var files = Files.list(spool)) {
+            assertEquals(0, files.count());
+        } catch (IOException ex) {
+            fail(ex);
+        }
+    }
+
+    @Test
+    void sessions_surviveARestart() throws Exception {
+        ResumableUploadStatus started = uploads.start(7L, List.of(10L, 1L, 1L));
+        uploads.write(7L, started.uploadId(), 0, 0, body("abcd"));
+
+        ResumableUploadStatus resumed = newUploads().status(7L, started.uploadId());
+
+        assertEquals(List.of(4L, 0L, 0L), resumed.offsets());
+        assertEquals(started.expiresAt(), resumed.expiresAt());
+    }
+
+    @Test
+    void sessions_readBackConcurrently_afterARestart_shareOneSession() throws Exception {
+        String id = uploads.start(7L, List.of(1L, 1L, 1L)).uploadId();
+        ResumablePhotoUploads resumed = newUploads();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<CompletableFuture<Long>> writes = IntStream.range(0, 3)
+                .mapToObj(photo -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                        return resumed.write(7L, id, photo, 0, body("x"));
+                    } catch (IOException | InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }))
+                .toList();
+        start.countDown();
+        for (CompletableFuture<Long> write : writes) {
+            assertEquals(1, write.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(List.of(1L, 1L, 1L), resumed.status(7L, id).offsets());
+    }
+
+    @Test
+    void sweep_deletesExpiredSessions_andAbandonedLeftovers() throws Exception {
+        String live = uploads.start(7L, List.of(1L, 1L, 1L)).uploadId();
+        props.setResumableUploadTtl(Duration.ofSeconds(-1));
+        String expired = uploads.start(7L, List.of(1L, 1L, 1L)).uploadId();
+        Path leftover = Files.createDirectories(spool.resolve(UUID.randomUUID() + ".new"));
+        Files.setLastModifiedTime(leftover, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        props.setResumableUploadTtl(Duration.ofHours(24));
+
+        uploads.sweep();
+
+        assertTrue(Files.exists(spool.resolve(live)));
+        assertFalse(Files.exists(spool.resolve(expired)));
+        assertFalse(Files.exists(leftover));
+    }
+}
@@ -0,0 +1,43 @@
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.data.entity.Role;
+import com.service.sector.aggregator.data.enums.RoleName;
+import com.service.sector.aggregator.data.repositories.RoleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RoleRegistry}.
+ */
+class RoleRegistryTest {
+
+    private final RoleRepository roleRepo = mock(RoleRepository.class);
+
+    @Test
+    void roles_areLoadedOnce() {
+        List<Role> seeded = Arrays.stream(RoleName.values())
+                .map(name -> Role.builder().id((long) name.ordinal() + 1).roleName(name).build())
+                .toList();
+        when(roleRepo.findAll()).thenReturn(seeded);
+
+        RoleRegistry registry = new RoleRegistry(roleRepo);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(RoleName.CUSTOMER, registry.get(RoleName.CUSTOMER).getRoleName());
+        }
+
+        verify(roleRepo, times(1)).findAll();
+        verifyNoMoreInteractions(roleRepo);
+    }
+
+    @Test
+    void missingSeedRole_failsAtStartup() {
+        when(roleRepo.findAll()).thenReturn(List.of(Role.builder().id(4L).roleName(RoleName.CUSTOMER).build()));
+
+        assertThrows(IllegalStateException.class, () -> new RoleRegistry(roleRepo));
+    }
+}
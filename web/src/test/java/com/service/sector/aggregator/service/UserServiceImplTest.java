@@ -4,21 +4,24 @@ import com.service.sector.aggregator.data.dto.AppUserRequest;
 import com.service.sector.aggregator.data.dto.AppUserResponse;
 import com.service.sector.aggregator.data.dto.auth.LoginRequest;
 import com.service.sector.aggregator.data.entity.AppUser;
-import com.service.sector.aggregator.data.entity.AuthCode;
 import com.service.sector.aggregator.data.entity.Role;
 import com.service.sector.aggregator.data.enums.RoleName;
 import com.service.sector.aggregator.data.repositories.AppUserRepository;
-import com.service.sector.aggregator.data.repositories.AuthCodeRepository;
-import com.service.sector.aggregator.data.repositories.RoleRepository;
+import com.service.sector.aggregator.exceptions.SmsDeliveryException;
+import com.service.sector.aggregator.security.AuthenticatedUser;
+import com.service.sector.aggregator.security.TokenRefresher;
+import com.service.sector.aggregator.security.TokenRevocationList;
 import com.service.sector.aggregator.service.external.JwtService;
+import com.service.sector.aggregator.service.external.SmsOtpService;
 import com.service.sector.aggregator.service.impl.UserServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -32,9 +35,12 @@ import static org.mockito.Mockito.*;
 class UserServiceImplTest {
 
     @Mock  private AppUserRepository userRepo;
-    @Mock  private AuthCodeRepository authCodeRepository;
-    @Mock  private RoleRepository    roleRepo;
+    @Mock  private OtpStore          otpStore;
+    @Mock  private RoleRegistry      roleRegistry;
     @Mock  private JwtService jwtService;
+    @Mock  private SmsOtpService smsOtpService;
+    @Mock  private TokenRevocationList revocationList;
+    @Mock  private TokenRefresher tokenRefresher;
 
     @InjectMocks
     private UserServiceImpl service;     // concrete implementation under test
@@ -56,7 +62,7 @@ class UserServiceImplTest {
     void register_success() {
         when(userRepo.existsByPhone(PHONE)).thenReturn(false);
         Role customerRole = Role.builder().roleName(RoleName.CUSTOMER).build();
-        when(roleRepo.findByRoleName(RoleName.CUSTOMER)).thenReturn(Optional.of(customerRole));
+        when(roleRegistry.get(RoleName.CUSTOMER)).thenReturn(customerRole);
         // repository returns the same entity (id not used in assertions here)
         when(userRepo.save(any(AppUser.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -92,12 +98,8 @@ class UserServiceImplTest {
         // user exists
         when(userRepo.findByPhone(PHONE)).thenReturn(Optional.of(user));
 
-        // matching verification-code record exists
-        AuthCode authCode = AuthCode.builder()
-                .phone(PHONE)
-                .code(CODE)
-                .build();
-        when(authCodeRepository.findAllByPhone(PHONE)).thenReturn(List.of(authCode));
+        // matching verification code is pending
+        when(otpStore.consume(PHONE, CODE)).thenReturn(true);
 
         // token generation succeeds
         when(jwtService.generateToken(user)).thenReturn("dummy-jwt");
@@ -105,7 +107,7 @@ class UserServiceImplTest {
         AppUserResponse resp = service.login(new LoginRequest(PHONE, CODE));
 
         assertThat(resp.token()).isEqualTo("dummy-jwt");
-        verify(authCodeRepository).deleteAllByPhone(PHONE);
+        verify(otpStore).consume(PHONE, CODE);
     }
 
     @Test
@@ -114,10 +116,8 @@ class UserServiceImplTest {
                 .phone(PHONE)
                 .realName(REAL_NAME)
                 .build();
-        AuthCode authCode = AuthCode.builder().phone(PHONE).code(CODE).build();
-
         when(userRepo.findByPhone(PHONE)).thenReturn(Optional.of(user));
-        when(authCodeRepository.findByPhone(PHONE)).thenReturn(Optional.of(authCode));
+        when(otpStore.consume(PHONE, WRONG_CODE)).thenReturn(false);
 
         LoginRequest req = new LoginRequest(PHONE, WRONG_CODE);
         ResponseStatusException ex =
@@ -126,4 +126,71 @@ class UserServiceImplTest {
         assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
         verify(jwtService, never()).generateToken(user);
     }
+
+    // =========================================================================
+    // sendCode()
+    // =========================================================================
+    @Test
+    void sendCode_freshCode_isSent() {
+        when(smsOtpService.newCode(PHONE)).thenReturn(CODE);
+        when(otpStore.issue(eq(PHONE), any())).thenAnswer(inv ->
+                new OtpStore.IssuedOtp(inv.<java.util.function.Supplier<String>>getArgument(1).get(), true));
+
+        service.sendCode(PHONE);
+
+        verify(smsOtpService).send(eq(PHONE), eq(CODE), any(Runnable.class));
+    }
+
+    @Test
+    void sendCode_reusedCode_isNotSentAgain() {
+        when(otpStore.issue(eq(PHONE), any())).thenReturn(new OtpStore.IssuedOtp(CODE, false));
+
+        service.sendCode(PHONE);
+
+        verify(smsOtpService, never()).send(anyString(), anyString(), any(Runnable.class));
+    }
+
+    @Test
+    void sendCode_deliveryFailure_discardsCode() {
+        when(otpStore.issue(eq(PHONE), any())).thenReturn(new OtpStore.IssuedOtp(CODE, true));
+        doThrow(new SmsDeliveryException("boom", null))
+                .when(smsOtpService).send(eq(PHONE), eq(CODE), any(Runnable.class));
+
+        assertThrows(SmsDeliveryException.class, () -> service.sendCode(PHONE));
+
+        verify(otpStore).invalidate(PHONE, CODE);
+    }
+
+    @Test
+    void sendCode_lateDeliveryFailure_onlyDiscardsTheUndeliveredCode() {
+        when(otpStore.issue(eq(PHONE), any())).thenReturn(new OtpStore.IssuedOtp(CODE, true));
+        ArgumentCaptor<Runnable> onFailure = ArgumentCaptor.forClass(Runnable.class);
+
+        service.sendCode(PHONE);
+        verify(smsOtpService).send(eq(PHONE), eq(CODE), onFailure.capture());
+        onFailure.getValue().run();
+
+        verify(otpStore).invalidate(PHONE, CODE);
+    }
+
+    // =========================================================================
+    // logout()
+    // =========================================================================
+    @Test
+    void logout_revokesTokenAndForgetsRefreshedOne() {
+        Claims claims = Jwts.claims().id("jti-1").subject("7").build();
+
+        service.logout(new AuthenticatedUser(7L, claims));
+
+        verify(revocationList).revoke(7L, claims);
+        verify(tokenRefresher).forget(7L);
+    }
+
+    @Test
+    void logoutEverywhere_revokesAllTokensOfUser() {
+        service.logoutEverywhere(7L);
+
+        verify(revocationList).revokeAll(7L);
+        verify(tokenRefresher).forget(7L);
+    }
 }
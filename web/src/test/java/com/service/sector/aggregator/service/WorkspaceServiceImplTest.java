@@ -0,0 +1,714 @@
+
+package com.service.sector.aggregator.service;
+
+import com.service.sector.aggregator.config.PhotoProperties;
+import com.service.sector.aggregator.data.dto.BecomeLandlordResponse;
+import com.service.sector.aggregator.data.dto.WorkspacePhotoDto;
+import com.service.sector.aggregator.data.dto.WorkspaceResponse;
+import com.service.sector.aggregator.data.entity.AppUser;
+import com.service.sector.aggregator.data.entity.PhotoJob;
+import com.service.sector.aggregator.data.entity.Workspace;
+import com.service.sector.aggregator.data.entity.WorkspacePhoto;
+import com.service.sector.aggregator.data.enums.PhotoStatus;
+import com.service.sector.aggregator.data.enums.RoleRequestStatus;
+import com.service.sector.aggregator.data.enums.WorkspaceStatus;
+import com.service.sector.aggregator.data.form.WorkspaceForm;
+import com.service.sector.aggregator.data.repositories.AppUserRepository;
+import com.service.sector.aggregator.data.repositories.PhotoBlobRepository;
+import com.service.sector.aggregator.data.repositories.PhotoJobRepository;
+import com.service.sector.aggregator.data.repositories.WorkspaceRepository;
+import com.service.sector.aggregator.service.external.BlobStore;
+import com.service.sector.aggregator.service.external.DateTimeService;
+import com.service.sector.aggregator.service.external.ImageService;
+import com.service.sector.aggregator.service.impl.DirectBufferPool;
+import com.service.sector.aggregator.service.impl.PhotoUploadPipeline;
+import com.service.sector.aggregator.service.impl.ResumablePhotoUploads;
+import com.service.sector.aggregator.service.impl.StagedPhotoUploads;
+import com.service.sector.aggregator.service.impl.WorkspaceServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkspaceServiceImplTest {
+
+    @Mock
+    private ImageService imageSrv;
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private DateTimeService dtSrv;
+
+    @Mock
+    private AppUserRepository userRepo;
+
+    @Mock
+    private WorkspaceRepository workspaceRepo;
+
+    @Mock
+    private PhotoBlobRepository blobRepo;
+
+    @Mock
+    private PhotoJobRepository jobRepo;
+
+    @Mock
+    private StagedPhotoUploads stagedUploads;
+
+    @Mock
+    private ResumablePhotoUploads resumableUploads;
+
+    private static final List<String> STAGED = List.of("uploads/1/u/0", "uploads/1/u/1", "uploads/1/u/2");
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private WorkspaceServiceImpl workspaceService;
+
+    private AppUser testUser;
+    private WorkspaceForm testForm;
+    private Workspace testWorkspace;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        PhotoProperties photoProps = new PhotoProperties();
+        PhotoUploadPipeline photoPipeline = new PhotoUploadPipeline(imageSrv, blobStore,
+                new DirectBufferPool(photoProps, meterRegistry), blobRepo, photoProps, meterRegistry);
+        workspaceService = new WorkspaceServiceImpl(photoPipeline, stagedUploads, resumableUploads, dtSrv, userRepo,
+                workspaceRepo, jobRepo, new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry);
+
+        testUser = AppUser.builder()
+                .id(1L)
+                .realName("John Doe")
+                .landlordRoleStatus(RoleRequestStatus.NO)
+                .build();
+
+        testForm = new WorkspaceForm(
+                "Test Workspace",
+                "Test City",
+                "Test Address",
+                "Office Space",
+                "Test Description",
+                LocalTime.of(9, 0),
+                LocalTime.of(17, 0),
+                Arrays.asList("MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"),
+                60,
+                new BigDecimal("25.00"),
+                "Test Legal Name",
+                "REG123456",
+                "Legal details"
+        );
+
+        testWorkspace = Workspace.builder()
+                .id(1L)
+                .owner(testUser)
+                .name("Test Workspace")
+                .city("Test City")
+                .photos(new ArrayList<>())
+                .build();
+    }
+
+    @Test
+    void requestLandlord_Success() throws IOException {
+        // Arrange
+        List<MultipartFile> testPhotos = createBasicMockMultipartFiles(3);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepo.save(any(AppUser.class))).thenReturn(testUser);
+        when(dtSrv.toMask(anyList())).thenReturn((short) 31);
+        when(stagedUploads.stage(1L, testPhotos)).thenReturn(STAGED);
+        when(workspaceRepo.save(any(Workspace.class))).thenReturn(testWorkspace);
+
+        // Act
+        BecomeLandlordResponse result = workspaceService.requestLandlord(1L, testForm, testPhotos);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1L, result.userId());
+        assertEquals("John Doe", result.userName());
+        assertEquals(RoleRequestStatus.WAITING_APPROVAL, result.landlordStatus());
+        assertNotNull(result.workspaceResponse());
+        assertTrue(result.workspaceResponse().photos().stream().allMatch(p -> p.status() == PhotoStatus.PROCESSING));
+
+        // read once before staging, again inside the short transaction
+        verify(userRepo, times(2)).findById(1L);
+        verify(userRepo).save(argThat(user -> user.getLandlordRoleStatus() == RoleRequestStatus.WAITING_APPROVAL));
+        verify(workspaceRepo).save(any(Workspace.class));
+        verify(jobRepo).saveAll(argThat((List<PhotoJob> jobs) -> jobs.size() == 3));
+        assertEquals(1, meterRegistry.get("workspace.connection.hold")
+                .tag("operation", "request-landlord").timer().count());
+    }
+
+    @Test
+    void requestLandlord_UserNotFound() {
+        // Arrange
+        List<MultipartFile> testPhotos = createBasicMockMultipartFiles(3);
+        when(userRepo.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.requestLandlord(1L, testForm, testPhotos));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+        verify(userRepo).findById(1L);
+        verify(userRepo, never()).save(any(AppUser.class));
+        verifyNoInteractions(stagedUploads);
+    }
+
+    @Test
+    void requestLandlord_StagingError() throws IOException {
+        // Arrange
+        List<MultipartFile> testPhotos = createBasicMockMultipartFiles(3);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(dtSrv.toMask(anyList())).thenReturn((short) 31);
+        when(stagedUploads.stage(1L, testPhotos)).thenThrow(new IOException("Store unavailable"));
+
+        // Act & Assert
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.requestLandlord(1L, testForm, testPhotos));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, ex.getStatusCode());
+        assertEquals("Failed to store workspace photos", ex.getReason());
+        // the user is only touched once every photo is staged
+        verify(userRepo, never()).save(any());
+        verify(workspaceRepo, never()).save(any());
+    }
+
+    @Test
+    void createWorkspace_Success_QueuesOneJobPerPhoto() throws IOException {
+        // Arrange
+        List<MultipartFile> testPhotos = createBasicMockMultipartFiles(3);
+        testUser.setLandlordRoleStatus(RoleRequestStatus.APPROVED);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(dtSrv.toMask(anyList())).thenReturn((short) 31);
+        when(stagedUploads.stage(1L, testPhotos)).thenReturn(STAGED);
+
+        // Mock the save method to return a workspace with ID and photos
+        when(workspaceRepo.save(any(Workspace.class))).thenAnswer(invocation -> {
+            Workspace savedWorkspace = invocation.getArgument(0);
+            // Simulate the database setting the ID
+            savedWorkspace.setId(1L);
+            return savedWorkspace;
+        });
+
+        // Act
+        WorkspaceResponse result = workspaceService.createWorkspace(1L, testForm, testPhotos);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1L, result.id());
+        assertEquals("Test Workspace", result.name());
+        assertEquals("Test City", result.city());
+        // nothing is ready yet
+        assertEquals(List.of(), result.photoUrls());
+        assertEquals(3, result.photos().size());
+        assertTrue(result.photos().stream().allMatch(p -> p.status() == PhotoStatus.PROCESSING && p.url() == null));
+        assertEquals(List.of((short) 0, (short) 1, (short) 2), result.photos().stream().map(p -> p.order()).toList());
+
+        verify(userRepo).findById(1L);
+        verify(workspaceRepo).save(argThat(workspace -> workspace.getStatus() == WorkspaceStatus.APPROVED));
+        ArgumentCaptor<List<PhotoJob>> jobs = ArgumentCaptor.captor();
+        verify(jobRepo).saveAll(jobs.capture());
+        assertEquals(STAGED, jobs.getValue().stream().map(PhotoJob::getSourceKey).toList());
+        assertEquals(List.of((short) 0, (short) 1, (short) 2),
+                jobs.getValue().stream().map(job -> job.getPhoto().getOrder()).toList());
+        // photos are processed by the workers, not on the request
+        verifyNoInteractions(imageSrv, blobStore, blobRepo);
+        verify(stagedUploads, never()).discard(anyList());
+    }
+
+    @Test
+    void createWorkspace_InsertFails_DiscardsStagedPhotos() throws IOException {
+        // Arrange
+        List<MultipartFile> testPhotos = createBasicMockMultipartFiles(3);
+        testUser.setLandlordRoleStatus(RoleRequestStatus.APPROVED);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(dtSrv.toMask(anyList())).thenReturn((short) 31);
+        when(stagedUploads.stage(1L, testPhotos)).thenReturn(STAGED);
+        when(workspaceRepo.save(any(Workspace.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class,
+                () -> workspaceService.createWorkspace(1L, testForm, testPhotos));
+
+        verify(stagedUploads).discard(STAGED);
+        verify(jobRepo, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createWorkspace_FromDirectUpload_QueuesTheStagedPhotos() {
+        // Arrange
+        String uploadId = UUID.randomUUID().toString();
+        testUser.setLandlordRoleStatus(RoleRequestStatus.APPROVED);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(dtSrv.toMask(anyList())).thenReturn((short) 31);
+        when(stagedUploads.keys(1L, uploadId)).thenReturn(STAGED);
+
+        // Act
+        WorkspaceResponse result = workspaceService.createWorkspace(1L, testForm, uploadId);
+
+        // Assert
+        assertEquals(3, result.photos().size());
+        verify(workspaceRepo).save(argThat(workspace -> uploadId.equals(workspace.getUploadId())));
+        verify(jobRepo).saveAll(argThat((List<PhotoJob> jobs) ->
+                jobs.stream().map(PhotoJob::getSourceKey).toList().equals(STAGED)));
+        // the workers delete the staged objects once they are processed
+        verify(stagedUploads, never()).discard(anyList());
+    }
+
+    @Test
+    void createWorkspace_FromDirectUpload_AlreadyConfirmed_Conflict() {
+        // Arrange
+        String uploadId = UUID.randomUUID().toString();
+        testUser.setLandlordRoleStatus(RoleRequestStatus.APPROVED);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(workspaceRepo.existsByUploadId(uploadId)).thenReturn(true);
+
+        // Act & Assert
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.createWorkspace(1L, testForm, uploadId));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        verifyNoInteractions(stagedUploads);
+        verify(workspaceRepo, never()).save(any());
+    }
+
+    @Test
+    void createWorkspace_FromDirectUpload_ConfirmedConcurrently_ConflictKeepsTheWinnersPhotos() {
+        // Arrange
+        String uploadId = UUID.randomUUID().toString();
+        testUser.setLandlordRoleStatus(RoleRequestStatus.APPROVED);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(dtSrv.toMask(anyList())).thenReturn((short) 31);
+        when(stagedUploads.keys(1L, uploadId)).thenReturn(STAGED);
+        // the other confirm commits between the check and the insert
+        when(workspaceRepo.existsByUploadId(uploadId)).thenReturn(false, true);
+        when(workspaceRepo.save(any(Workspace.class)))
+                .thenThrow(new DataIntegrityViolationException("uc_workspace_upload_id"));
+
+        // Act & Assert
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.createWorkspace(1L, testForm, uploadId));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        // the staged objects are the sources of the other workspace's jobs
+        verify(stagedUploads, never()).discard(anyList());
+    }
+
+    @Test
+    void createWorkspace_FromDirectUpload_UserNotApproved_DoesNotTouchUpload() {
+        // Arrange
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.createWorkspace(1L, testForm, UUID.randomUUID().toString()));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verifyNoInteractions(stagedUploads);
+    }
+
+    @Test
+    void requestLandlord_FromDirectUpload_TooFewPhotos_KeepsStagedPhotos() {
+        // Arrange
+        String uploadId = UUID.randomUUID().toString();
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(dtSrv.toMask(anyList())).thenReturn((short) 31);
+        when(stagedUploads.keys(1L, uploadId)).thenReturn(STAGED.subList(0, 2));
+
+        // Act & Assert
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.requestLandlord(1L, testForm, uploadId));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        // the client may upload the missing photo and confirm again; abandoned uploads expire in the bucket
+        verify(stagedUploads, never()).discard(anyList());
+        verify(workspaceRepo, never()).save(any());
+    }
+
+    @Test
+    void createWorkspace_FromResumableUpload_StagesTheSpooledPhotos_ThenCompletesTheUpload() throws IOException {
+        // Arrange
+        String uploadId = UUID.randomUUID().toString();
+        List<InputStreamSource> spooled = List.of(resource("a"), resource("b"), resource("c"));
+        testUser.setLandlordRoleStatus(RoleRequestStatus.APPROVED);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(dtSrv.toMask(anyList())).thenReturn((short) 31);
+        when(resumableUploads.photos(1L, uploadId)).thenReturn(spooled);
+        when(stagedUploads.stage(1L, spooled)).thenReturn(STAGED);
+
+        // Act
+        WorkspaceResponse result = workspaceService.createWorkspaceFromResumableUpload(1L, testForm, uploadId);
+
+        // Assert
+        assertEquals(3, result.photos().size());
+        var order = inOrder(stagedUploads, jobRepo, resumableUploads);
+        order.verify(stagedUploads).stage(1L, spooled);
+        order.verify(jobRepo).saveAll(anyList());
+        order.verify(resumableUploads).complete(1L, uploadId);
+    }
+
+    @Test
+    void createWorkspace_FromResumableUpload_FinalizedConcurrently_ConflictDiscardsOwnCopies() throws IOException {
+        // Arrange
+        String uploadId = UUID.randomUUID().toString();
+        List<InputStreamSource> spooled = List.of(resource("a"), resource("b"), resource("c"));
+        testUser.setLandlordRoleStatus(RoleRequestStatus.APPROVED);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(dtSrv.toMask(anyList())).thenReturn((short) 31);
+        when(resumableUploads.photos(1L, uploadId)).thenReturn(spooled);
+        when(stagedUploads.stage(1L, spooled)).thenReturn(STAGED);
+        when(workspaceRepo.existsByUploadId(uploadId)).thenReturn(false, true);
+        when(workspaceRepo.save(any(Workspace.class)))
+                .thenThrow(new DataIntegrityViolationException("uc_workspace_upload_id"));
+
+        // Act & Assert
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.createWorkspaceFromResumableUpload(1L, testForm, uploadId));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        verify(stagedUploads).discard(STAGED);
+        // the request that won completes the upload
+        verify(resumableUploads, never()).complete(anyLong(), anyString());
+    }
+
+    @Test
+    void requestLandlord_FromResumableUpload_InsertFails_KeepsTheUpload() throws IOException {
+        // Arrange
+        String uploadId = UUID.randomUUID().toString();
+        List<InputStreamSource> spooled = List.of(resource("a"), resource("b"), resource("c"));
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(dtSrv.toMask(anyList())).thenReturn((short) 31);
+        when(resumableUploads.photos(1L, uploadId)).thenReturn(spooled);
+        when(stagedUploads.stage(1L, spooled)).thenReturn(STAGED);
+        when(workspaceRepo.save(any(Workspace.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class,
+                () -> workspaceService.requestLandlordFromResumableUpload(1L, testForm, uploadId));
+
+        // the client can finalize again without re-sending the photos
+        verify(stagedUploads).discard(STAGED);
+        verify(resumableUploads, never()).complete(anyLong(), anyString());
+    }
+
+    @Test
+    void startResumableUpload_UnknownUser() {
+        // Arrange
+        when(userRepo.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.startResumableUpload(1L, List.of(1L, 2L, 3L)));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+        verifyNoInteractions(resumableUploads);
+    }
+
+    @Test
+    void startPhotoUpload_UnknownUser() {
+        // Arrange
+        when(userRepo.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.startPhotoUpload(1L, 5));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+        verifyNoInteractions(stagedUploads);
+    }
+
+    @Test
+    void createWorkspace_UserNotFound() {
+        // Arrange
+        List<MultipartFile> testPhotos = createBasicMockMultipartFiles(3);
+        when(userRepo.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.createWorkspace(1L, testForm, testPhotos));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+        verify(userRepo).findById(1L);
+        verify(workspaceRepo, never()).save(any(Workspace.class));
+    }
+
+    @Test
+    void createWorkspace_UserNotApproved() {
+        // Arrange
+        List<MultipartFile> testPhotos = createBasicMockMultipartFiles(3);
+        testUser.setLandlordRoleStatus(RoleRequestStatus.NO);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.createWorkspace(1L, testForm, testPhotos));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        assertEquals("User is not approved as a landlord", exception.getReason());
+        verify(userRepo).findById(1L);
+        verify(workspaceRepo, never()).save(any(Workspace.class));
+    }
+
+    @Test
+    void createWorkspace_UserWaitingApproval() {
+        // Arrange
+        List<MultipartFile> testPhotos = createBasicMockMultipartFiles(3);
+        testUser.setLandlordRoleStatus(RoleRequestStatus.WAITING_APPROVAL);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.createWorkspace(1L, testForm, testPhotos));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        assertEquals("User is not approved as a landlord", exception.getReason());
+        verify(userRepo).findById(1L);
+        verify(workspaceRepo, never()).save(any(Workspace.class));
+    }
+
+    @Test
+    void createWorkspace_UserRejected() {
+        // Arrange
+        List<MultipartFile> testPhotos = createBasicMockMultipartFiles(3);
+        testUser.setLandlordRoleStatus(RoleRequestStatus.REJECTED);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.createWorkspace(1L, testForm, testPhotos));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        assertEquals("User is not approved as a landlord", exception.getReason());
+        verify(userRepo).findById(1L);
+        verify(workspaceRepo, never()).save(any(Workspace.class));
+    }
+
+    @Test
+    void createWorkspace_TooFewPhotos() {
+        // Arrange
+        List<MultipartFile> tooFewPhotos = createBasicMockMultipartFiles(2);
+        testUser.setLandlordRoleStatus(RoleRequestStatus.APPROVED);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(dtSrv.toMask(anyList())).thenReturn((short) 31);
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.createWorkspace(1L, testForm, tooFewPhotos));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals("3–15 photos required", exception.getReason());
+        verifyNoInteractions(stagedUploads);
+    }
+
+    @Test
+    void createWorkspace_TooManyPhotos() {
+        // Arrange
+        List<MultipartFile> tooManyPhotos = createBasicMockMultipartFiles(16);
+        testUser.setLandlordRoleStatus(RoleRequestStatus.APPROVED);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(dtSrv.toMask(anyList())).thenReturn((short) 31);
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.createWorkspace(1L, testForm, tooManyPhotos));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals("3–15 photos required", exception.getReason());
+        verifyNoInteractions(stagedUploads);
+    }
+
+    @Test
+    void deleteWorkspace_ReleasesPhotoBlobs() {
+        // Arrange
+        testWorkspace.getPhotos().add(WorkspacePhoto.builder().blobSha256("a".repeat(64)).build());
+        testWorkspace.getPhotos().add(WorkspacePhoto.builder().blobSha256("b".repeat(64)).build());
+        testWorkspace.getPhotos().add(WorkspacePhoto.builder().build());      // stored before deduplication
+        when(workspaceRepo.findById(1L)).thenReturn(Optional.of(testWorkspace));
+
+        // Act
+        workspaceService.deleteWorkspace(1L, 1L);
+
+        // Assert
+        verify(blobRepo).release("a".repeat(64));
+        verify(blobRepo).release("b".repeat(64));
+        verifyNoMoreInteractions(blobRepo);
+        verify(workspaceRepo).delete(testWorkspace);
+        verifyNoInteractions(blobStore, stagedUploads);
+    }
+
+    @Test
+    void deleteWorkspace_LocksPendingJobs_AndDiscardsTheirSources() {
+        // Arrange
+        WorkspacePhoto pending = WorkspacePhoto.builder().status(PhotoStatus.PROCESSING).build();
+        testWorkspace.getPhotos().add(pending);
+        when(workspaceRepo.findById(1L)).thenReturn(Optional.of(testWorkspace));
+        when(jobRepo.lockByWorkspaceId(1L)).thenReturn(List.of(
+                PhotoJob.builder().photo(pending).sourceKey(STAGED.getFirst()).build()));
+
+        // Act
+        workspaceService.deleteWorkspace(1L, 1L);
+
+        // Assert
+        var order = inOrder(jobRepo, workspaceRepo, stagedUploads);
+        order.verify(jobRepo).lockByWorkspaceId(1L);
+        order.verify(workspaceRepo).delete(testWorkspace);
+        order.verify(stagedUploads).discard(List.of(STAGED.getFirst()));
+        verifyNoInteractions(blobRepo);
+    }
+
+    @Test
+    void getPhotos_ReportsTheirStatus() {
+        // Arrange
+        testWorkspace.getPhotos().add(WorkspacePhoto.builder().id(10L).order((short) 0)
+                .filePath("https://s3.example.com/full.jpg").status(PhotoStatus.READY).build());
+        testWorkspace.getPhotos().add(WorkspacePhoto.builder().id(11L).order((short) 1)
+                .status(PhotoStatus.FAILED).build());
+        when(workspaceRepo.findById(1L)).thenReturn(Optional.of(testWorkspace));
+
+        // Act
+        List<WorkspacePhotoDto> photos = workspaceService.getPhotos(1L, 1L);
+
+        // Assert
+        assertEquals(List.of(PhotoStatus.READY, PhotoStatus.FAILED),
+                photos.stream().map(WorkspacePhotoDto::status).toList());
+        assertEquals("https://s3.example.com/full.jpg", photos.getFirst().url());
+    }
+
+    @Test
+    void getPhotos_NotOwner() {
+        // Arrange
+        when(workspaceRepo.findById(1L)).thenReturn(Optional.of(testWorkspace));
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.getPhotos(2L, 1L));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+    }
+
+    @Test
+    void deleteWorkspace_NotOwner() {
+        // Arrange
+        when(workspaceRepo.findById(1L)).thenReturn(Optional.of(testWorkspace));
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.deleteWorkspace(2L, 1L));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(workspaceRepo, never()).delete(any(Workspace.class));
+        verifyNoInteractions(blobRepo);
+    }
+
+    @Test
+    void deleteWorkspace_NotFound() {
+        // Arrange
+        when(workspaceRepo.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> workspaceService.deleteWorkspace(1L, 1L));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        verify(workspaceRepo, never()).delete(any(Workspace.class));
+    }
+
+    @Test
+    void getWorkspacesByOwner_Success() {
+        // Arrange
+        List<Workspace> expectedWorkspaces = Collections.singletonList(testWorkspace);
+        when(workspaceRepo.findAllByOwner(testUser)).thenReturn(expectedWorkspaces);
+
+        // Act
+        List<Workspace> result = workspaceService.getWorkspacesByOwner(testUser);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals(testWorkspace, result.getFirst());
+        verify(workspaceRepo).findAllByOwner(testUser);
+    }
+
+    @Test
+    void getWorkspacesByOwnerId_Success() {
+        // Arrange
+        List<Workspace> expectedWorkspaces = Collections.singletonList(testWorkspace);
+        when(workspaceRepo.findAllByOwnerId(1L)).thenReturn(expectedWorkspaces);
+
+        // Act
+        List<Workspace> result = workspaceService.getWorkspacesByOwnerId(1L);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals(testWorkspace, result.getFirst());
+        verify(workspaceRepo).findAllByOwnerId(1L);
+    }
+
+    @Test
+    void getWorkspacesByOwner_EmptyList() {
+        // Arrange
+        when(workspaceRepo.findAllByOwner(testUser)).thenReturn(Collections.emptyList());
+
+        // Act
+        List<Workspace> result = workspaceService.getWorkspacesByOwner(testUser);
+
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+        verify(workspaceRepo).findAllByOwner(testUser);
+    }
+
+    @Test
+    void getWorkspacesByOwnerId_EmptyList() {
+        // Arrange
+        when(workspaceRepo.findAllByOwnerId(1L)).thenReturn(Collections.emptyList());
+
+        // Act
+        List<Workspace> result = workspaceService.getWorkspacesByOwnerId(1L);
+
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+        verify(workspaceRepo).findAllByOwnerId(1L);
+    }
+
+    private static InputStreamSource resource(String content) {
+        return new ByteArrayResource(content.getBytes());
+    }
+
+    /**
+     * Creates basic mock MultipartFile objects with no stubs.
+     * Use this for tests that don't process file content at all.
+     */
+    private List<MultipartFile> createBasicMockMultipartFiles(int count) {
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MultipartFile mockFile = mock(MultipartFile.class);
+            files.add(mockFile);
+        }
+        return files;
+    }
+}
@@ -2,6 +2,8 @@ package com.service.sector.aggregator.service.external;
 
 import com.service.sector.aggregator.config.JwtProperties;
 import com.service.sector.aggregator.data.entity.AppUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -21,13 +23,14 @@ class JwtServiceTest {
     private static final String TEST_SECRET =
             "dGhpcy1pcy1hLXRlc3QtbG9uZy1zZWNyZXQtb2YtMzItYnl0ZXMhIQ==";
 
+    private JwtProperties props;
     private JwtService jwtService;
     private AppUser    user;
 
     @BeforeEach
     void setUp() {
         // Prepare properties object
-        JwtProperties props = new JwtProperties();
+        props = new JwtProperties();
         props.setSecret(TEST_SECRET);
         props.setTtl(Duration.ofHours(1));          // short TTL speeds up tests
         props.setRefreshThreshold(Duration.ofMinutes(10));
@@ -73,4 +76,38 @@ class JwtServiceTest {
     /* ---------------------------------------------------------------------- *
      * getClaims()                                                            *
      * ---------------------------------------------------------------------- */
+
+    @Test
+    void getClaims_returnsPayloadOfGeneratedToken() {
+        String token = jwtService.generateToken(user);
+
+        Claims claims = jwtService.getClaims("Bearer " + token).getPayload();
+
+        assertEquals("42", claims.getSubject());
+        assertEquals(42L, claims.get("uid", Long.class));
+        assertEquals("+1234567890", claims.get("phone", String.class));
+    }
+
+    @Test
+    void getClaims_carryTheIssueTimeInMilliseconds() {
+        long before = System.currentTimeMillis();
+        String token = jwtService.generateToken(user);
+
+        Claims claims = jwtService.getClaims(token).getPayload();
+
+        long issuedAt = ((Number) claims.get(JwtService.ISSUED_AT_MILLIS)).longValue();
+        assertTrue(issuedAt >= before && issuedAt <= System.currentTimeMillis());
+        assertEquals(issuedAt / 1000, claims.getIssuedAt().getTime() / 1000);
+    }
+
+    @Test
+    void getClaims_afterSecretRotation_rejectsTokenSignedWithOldKey() {
+        String token = jwtService.generateToken(user);
+
+        // cached key material must be rebuilt once the secret changes
+        props.setSecret("YW5vdGhlci10ZXN0LXNlY3JldC10aGF0LWlzLTMyLWJ5dGVzIQ==");
+
+        assertThrows(JwtException.class, () -> jwtService.getClaims(token));
+        assertEquals(user.getId(), jwtService.parseUserId(jwtService.generateToken(user)));
+    }
 }
\ No newline at end of file
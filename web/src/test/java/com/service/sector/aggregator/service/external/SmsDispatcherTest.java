@@ -0,0 +1,119 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.config.SmsProperties;
+import com.service.sector.aggregator.exceptions.SmsDeliveryException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SmsDispatcher}.
+ */
+class SmsDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SmsDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    private SmsProperties props() {
+        SmsProperties props = new SmsProperties();
+        props.setInitialBackoff(Duration.ofMillis(1));
+        props.setTimeout(Duration.ofMillis(200));
+        props.setMaxAttempts(3);
+        return props;
+    }
+
+    @Test
+    void failedAttempts_areRetriedUntilDelivered() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch delivered = new CountDownLatch(1);
+        dispatcher = new SmsDispatcher((phone, message) -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new SmsDeliveryException("transient", null);
+            }
+            delivered.countDown();
+        }, props(), meterRegistry);
+        dispatcher.start();
+
+        assertTrue(dispatcher.enqueue("+15550001111", "hi", () -> fail("must not give up")));
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(3, calls.get());
+        assertEquals(2.0, meterRegistry.get("sms.send.retries").counter().count());
+    }
+
+    @Test
+    void slowSender_timesOutAndReportsFailure() throws InterruptedException {
+        CountDownLatch gaveUp = new CountDownLatch(1);
+        dispatcher = new SmsDispatcher((phone, message) -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, props(), meterRegistry);
+        dispatcher.start();
+
+        dispatcher.enqueue("+15550001111", "hi", gaveUp::countDown);
+
+        assertTrue(gaveUp.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void concurrency_isBoundedByMaxConcurrency() throws InterruptedException {
+        SmsProperties props = props();
+        props.setMaxConcurrency(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(10);
+        dispatcher = new SmsDispatcher((phone, message) -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            done.countDown();
+        }, props, meterRegistry);
+        dispatcher.start();
+
+        for (int i = 0; i < 10; i++) {
+            dispatcher.enqueue("+1555000111" + i, "hi", () -> { });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(peak.get() <= 2, "peak concurrency " + peak.get());
+    }
+
+    @Test
+    void fullQueue_rejectsMessage() {
+        SmsProperties props = props();
+        props.setQueueCapacity(1);
+        dispatcher = new SmsDispatcher((phone, message) -> { }, props, meterRegistry);   // not started
+
+        assertTrue(dispatcher.enqueue("+15550001111", "a", () -> { }));
+        assertFalse(dispatcher.enqueue("+15550001111", "b", () -> { }));
+        assertEquals(1.0, meterRegistry.get("sms.queue.rejected").counter().count());
+    }
+
+    @Test
+    void masked_keepsOnlyTheLastFourDigits() {
+        assertEquals("********4567", SmsDispatcher.masked("+15551234567"));
+        assertEquals("****", SmsDispatcher.masked("+123"));
+        assertEquals("****", SmsDispatcher.masked(null));
+    }
+}
@@ -3,17 +3,13 @@ package com.service.sector.aggregator.service.external;
 import com.service.sector.aggregator.exceptions.InvalidPhoneNumberException;
 import com.service.sector.aggregator.exceptions.SmsDeliveryException;
 import org.junit.jupiter.api.*;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.sns.SnsClient;
-import software.amazon.awssdk.services.sns.model.*;
-
-import java.lang.reflect.Field;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -21,20 +17,16 @@ import static org.mockito.Mockito.*;
  */
 class SmsOtpServiceTest {
 
-    private static final String TOPIC_ARN = "arn:aws:sns:eu-north-1:123456789012:verification-codes";
-
     @Mock
-    private SnsClient sns;
+    private SmsDispatcher dispatcher;
 
     private SmsOtpService service;
     private AutoCloseable mocks;      // to close MockitoAnnotations
 
     @BeforeEach
-    void setUp() throws Exception {
+    void setUp() {
         mocks = MockitoAnnotations.openMocks(this);
-        service = new SmsOtpService(Region.EU_NORTH_1);
-        // Inject the mock SnsClient (replace the internally created one)
-        setFinalField(service, "sns", sns);
+        service = new SmsOtpService(dispatcher);
     }
 
     @AfterEach
@@ -69,36 +61,21 @@ class SmsOtpServiceTest {
      * ------------------------------------------------------------------ */
 
     @Test
-    @DisplayName("send() skips publishing for test numbers")
-    void send_testPhone_skipsPublish() {
+    @DisplayName("send() skips delivery for test numbers")
+    void send_testPhone_skipsDelivery() {
         service.send("+09999999999", "444444");
 
-        verify(sns, never()).publish(any(PublishRequest.class));
+        verify(dispatcher, never()).enqueue(anyString(), anyString(), any());
     }
 
     @Test
-    @DisplayName("send() publishes correctly for valid E.164 numbers")
-    void send_realPhone_publishesMessage() {
-        when(sns.publish(any(PublishRequest.class)))
-                .thenReturn(PublishResponse.builder().messageId("mid-1").build());
-
-        String phone = "+15550001111";
-        String code  = "654321";
+    @DisplayName("send() queues the formatted message for valid E.164 numbers")
+    void send_realPhone_enqueuesMessage() {
+        when(dispatcher.enqueue(anyString(), anyString(), any())).thenReturn(true);
 
-        service.send(phone, code);
+        service.send("+15550001111", "654321");
 
-        ArgumentCaptor<PublishRequest> captor = ArgumentCaptor.forClass(PublishRequest.class);
-        verify(sns, times(1)).publish(captor.capture());
-
-        PublishRequest req = captor.getValue();
-        assertAll(
-                () -> assertEquals(phone, req.phoneNumber()),
-                () -> assertEquals("Your verification code: " + code, req.message()),
-                () -> assertEquals("Transactional",
-                                   req.messageAttributes()
-                                      .get("AWS.SNS.SMS.SMSType")
-                                      .stringValue())
-        );
+        verify(dispatcher).enqueue(eq("+15550001111"), eq("Your verification code: 654321"), any());
     }
 
     @Test
@@ -109,10 +86,9 @@ class SmsOtpServiceTest {
     }
 
     @Test
-    @DisplayName("send() wraps SNS failures into SmsDeliveryException")
-    void send_snsException_wrapped() {
-        when(sns.publish(any(PublishRequest.class)))
-                .thenThrow(SnsException.builder().message("boom").build());
+    @DisplayName("send() throws SmsDeliveryException when the delivery queue is full")
+    void send_queueFull_throws() {
+        when(dispatcher.enqueue(anyString(), anyString(), any())).thenReturn(false);
 
         assertThrows(SmsDeliveryException.class,
                      () -> service.send("+15550002222", "222222"));
@@ -128,14 +104,4 @@ class SmsOtpServiceTest {
         assertTrue (SmsOtpService.isTestPhoneNumber("+01234"));
         assertFalse(SmsOtpService.isTestPhoneNumber("+1555"));
     }
-
-    /* ------------------------------------------------------------------
-     * Reflection helper
-     * ------------------------------------------------------------------ */
-
-    private static void setFinalField(Object target, String name, Object value) throws Exception {
-        Field f = target.getClass().getDeclaredField(name);
-        f.setAccessible(true);
-        f.set(target, value);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.service.sector.aggregator.service.external;
+
+import com.service.sector.aggregator.exceptions.SmsDeliveryException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishResponse;
+import software.amazon.awssdk.services.sns.model.SnsException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SnsSmsSender}.
+ */
+class SnsSmsSenderTest {
+
+    @Mock
+    private SnsClient sns;
+
+    private SnsSmsSender sender;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        sender = new SnsSmsSender(sns);
+    }
+
+    @Test
+    @DisplayName("send() publishes a transactional SMS to the phone number")
+    void send_publishesMessage() {
+        when(sns.publish(any(PublishRequest.class)))
+                .thenReturn(PublishResponse.builder().messageId("mid-1").build());
+
+        sender.send("+15550001111", "Your verification code: 654321");
+
+        ArgumentCaptor<PublishRequest> captor = ArgumentCaptor.forClass(PublishRequest.class);
+        verify(sns, times(1)).publish(captor.capture());
+
+        PublishRequest req = captor.getValue();
+        assertAll(
+                () -> assertEquals("+15550001111", req.phoneNumber()),
+                () -> assertEquals("Your verification code: 654321", req.message()),
+                () -> assertEquals("Transactional",
+                                   req.messageAttributes()
+                                      .get("AWS.SNS.SMS.SMSType")
+                                      .stringValue())
+        );
+    }
+
+    @Test
+    @DisplayName("send() wraps SNS failures into SmsDeliveryException")
+    void send_snsException_wrapped() {
+        when(sns.publish(any(PublishRequest.class)))
+                .thenThrow(SnsException.builder().message("boom").build());
+
+        assertThrows(SmsDeliveryException.class,
+                     () -> sender.send("+15550002222", "text"));
+    }
+}